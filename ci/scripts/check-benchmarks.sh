@@ -0,0 +1,23 @@
+#!/bin/bash
+set -e
+
+source $(dirname $0)/common.sh
+gradle_options="-Dorg.gradle.internal.launcher.welcomeMessageEnabled=false --no-daemon --max-workers=4"
+
+pushd git-repo > /dev/null
+baseline_revision=$(git rev-parse HEAD^)
+git worktree add --detach ../baseline-repo ${baseline_revision}
+popd > /dev/null
+
+pushd baseline-repo > /dev/null
+if [ ! -d spring-restdocs-benchmarks ]; then
+	echo "Baseline revision ${baseline_revision} has no benchmarks"
+	exit 0
+fi
+./gradlew ${gradle_options} :spring-restdocs-benchmarks:jmh
+baseline_results=$(pwd)/spring-restdocs-benchmarks/build/results/jmh/results.json
+popd > /dev/null
+
+pushd git-repo > /dev/null
+./gradlew ${gradle_options} :spring-restdocs-benchmarks:jmh :spring-restdocs-benchmarks:jmhCheckBaseline -PbenchmarkBaseline=${baseline_results}
+popd > /dev/null
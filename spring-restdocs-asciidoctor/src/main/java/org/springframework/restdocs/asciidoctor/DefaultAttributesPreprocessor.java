@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,12 +28,37 @@ import org.asciidoctor.extension.PreprocessorReader;
  */
 final class DefaultAttributesPreprocessor extends Preprocessor {
 
+	/**
+	 * Name of the attribute that marks a document whose conversion has started.
+	 * Documents that are loaded by the Ruby {@code operation} block macro inherit the
+	 * attributes of the document that is being converted so the marker prevents them
+	 * from discarding the conversion's {@link SnippetStore}.
+	 */
+	private static final String CONVERSION_STARTED_ATTRIBUTE = "restdocs-conversion-started";
+
 	private final SnippetsDirectoryResolver snippetsDirectoryResolver = new SnippetsDirectoryResolver();
 
+	private final SnippetArchiveIncludeProcessor snippetArchiveIncludeProcessor;
+
+	DefaultAttributesPreprocessor() {
+		this(null);
+	}
+
+	DefaultAttributesPreprocessor(SnippetArchiveIncludeProcessor snippetArchiveIncludeProcessor) {
+		this.snippetArchiveIncludeProcessor = snippetArchiveIncludeProcessor;
+	}
+
 	@Override
 	public void process(Document document, PreprocessorReader reader) {
+		if (document.getAttribute(CONVERSION_STARTED_ATTRIBUTE) == null) {
+			SnippetStore.conversionStarted();
+			document.setAttribute(CONVERSION_STARTED_ATTRIBUTE, "", false);
+		}
 		document.setAttribute("snippets", this.snippetsDirectoryResolver.getSnippetsDirectory(document.getAttributes()),
 				false);
+		if (this.snippetArchiveIncludeProcessor != null) {
+			this.snippetArchiveIncludeProcessor.snippetsDirectoryResolved(document);
+		}
 	}
 
 }
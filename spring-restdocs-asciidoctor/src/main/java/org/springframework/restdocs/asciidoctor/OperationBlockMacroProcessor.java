@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.asciidoctor.ast.Document;
+import org.asciidoctor.ast.Section;
+import org.asciidoctor.ast.StructuralNode;
+import org.asciidoctor.extension.BlockMacroProcessor;
+import org.asciidoctor.extension.Name;
+import org.asciidoctor.log.LogRecord;
+import org.asciidoctor.log.Severity;
+
+/**
+ * {@link BlockMacroProcessor} for the {@code operation} block macro that includes
+ * multiple snippets of an operation at once. A Java replacement for the Ruby
+ * implementation of the macro that reads snippets from a {@link SnippetStore}.
+ * <p>
+ * Usage: <pre class="code">
+ * operation::operation-name[snippets='snippet-name1,snippet-name2']
+ * </pre>
+ *
+ * @author Andy Wilkinson
+ */
+@Name("operation")
+final class OperationBlockMacroProcessor extends BlockMacroProcessor {
+
+	private static final Pattern ATTRIBUTE_REFERENCE = Pattern.compile("\\{([\\w-]+)\\}");
+
+	private static final Map<String, String> DEFAULT_TITLES;
+
+	static {
+		Map<String, String> defaultTitles = new HashMap<>();
+		defaultTitles.put("http-request", "HTTP request");
+		defaultTitles.put("curl-request", "Curl request");
+		defaultTitles.put("httpie-request", "HTTPie request");
+		defaultTitles.put("request-body", "Request body");
+		defaultTitles.put("request-fields", "Request fields");
+		defaultTitles.put("http-response", "HTTP response");
+		defaultTitles.put("response-body", "Response body");
+		defaultTitles.put("response-fields", "Response fields");
+		defaultTitles.put("links", "Links");
+		DEFAULT_TITLES = defaultTitles;
+	}
+
+	@Override
+	public Object process(StructuralNode parent, String target, Map<String, Object> attributes) {
+		Document document = parent.getDocument();
+		String snippetsDirectory = String.valueOf(document.getAttribute("snippets"));
+		String operation = substituteAttributes(target, document);
+		SnippetStore store = SnippetStore.of(snippetsDirectory);
+		List<String> snippetNames = getSnippetNames(attributes, operation, store);
+		if (snippetNames.isEmpty()) {
+			warn(parent, "No snippets were found for operation " + operation + " in " + snippetsDirectory);
+			parent.append(createBlock(parent, "paragraph", "No snippets found for operation::" + operation));
+			return null;
+		}
+		for (String snippetName : snippetNames) {
+			parent.append(createSnippetSection(parent, store, snippetsDirectory, operation, snippetName));
+		}
+		return null;
+	}
+
+	private List<String> getSnippetNames(Map<String, Object> attributes, String operation, SnippetStore store) {
+		Object snippets = attributes.get("snippets");
+		if (snippets == null || snippets.toString().isEmpty()) {
+			return store.getSnippetNames(operation);
+		}
+		return Arrays.asList(snippets.toString().split(","));
+	}
+
+	private Section createSnippetSection(StructuralNode parent, SnippetStore store, String snippetsDirectory,
+			String operation, String snippetName) {
+		Section section = createSection(parent);
+		section.setTitle(getTitle(parent.getDocument(), snippetName));
+		section.setId(((parent.getId() != null) ? parent.getId() : "") + "_" + snippetName.replaceFirst("-", "_"));
+		String content = store.getSnippet(operation, snippetName);
+		if (content == null) {
+			warn(parent, "Snippet " + snippetName + " not found at " + snippetsDirectory + "/" + operation + "/"
+					+ snippetName + SnippetStore.SNIPPET_FILE_SUFFIX + " for operation " + operation);
+			content = "Snippet " + snippetName + " not found for operation::" + operation + "\n";
+		}
+		parseContent(section, Arrays.asList(content.split("\\r?\\n", -1)));
+		return section;
+	}
+
+	private String getTitle(Document document, String snippetName) {
+		Object title = document.getAttribute("operation-" + snippetName + "-title");
+		if (title != null) {
+			return title.toString();
+		}
+		String defaultTitle = DEFAULT_TITLES.get(snippetName);
+		if (defaultTitle != null) {
+			return defaultTitle;
+		}
+		String name = snippetName.replaceFirst("-", " ");
+		return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1).toLowerCase(Locale.ROOT);
+	}
+
+	private String substituteAttributes(String text, Document document) {
+		Matcher matcher = ATTRIBUTE_REFERENCE.matcher(text);
+		StringBuilder result = new StringBuilder();
+		while (matcher.find()) {
+			Object value = document.getAttribute(matcher.group(1));
+			matcher.appendReplacement(result,
+					Matcher.quoteReplacement((value != null) ? value.toString() : matcher.group()));
+		}
+		matcher.appendTail(result);
+		return result.toString();
+	}
+
+	private void warn(StructuralNode parent, String message) {
+		log(new LogRecord(Severity.WARN, parent.getSourceLocation(), message));
+	}
+
+}
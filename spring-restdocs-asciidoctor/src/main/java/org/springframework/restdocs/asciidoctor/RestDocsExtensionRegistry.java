@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,17 +21,40 @@ import org.asciidoctor.jruby.extension.spi.ExtensionRegistry;
 
 /**
  * {@link ExtensionRegistry} for Spring REST Docs.
+ * <p>
+ * By default, the {@code operation} block macro is implemented in Ruby. Setting the
+ * {@value #JAVA_OPERATION_MACRO_PROPERTY} system property to {@code true} registers its
+ * Java implementation instead.
  *
  * @author Andy Wilkinson
  */
 public final class RestDocsExtensionRegistry implements ExtensionRegistry {
 
+	/**
+	 * Name of the system property that, when {@code true}, causes the Java
+	 * implementation of the {@code operation} block macro to be registered.
+	 * @since 3.0.0
+	 */
+	public static final String JAVA_OPERATION_MACRO_PROPERTY = "org.springframework.restdocs.asciidoctor.javaOperationMacro";
+
 	@Override
 	public void register(Asciidoctor asciidoctor) {
-		asciidoctor.javaExtensionRegistry().preprocessor(new DefaultAttributesPreprocessor());
-		asciidoctor.rubyExtensionRegistry()
-				.loadClass(RestDocsExtensionRegistry.class.getResourceAsStream("/extensions/operation_block_macro.rb"))
-				.blockMacro("operation", "OperationBlockMacro");
+		register(asciidoctor, Boolean.getBoolean(JAVA_OPERATION_MACRO_PROPERTY));
+	}
+
+	void register(Asciidoctor asciidoctor, boolean javaOperationMacro) {
+		SnippetArchiveIncludeProcessor includeProcessor = new SnippetArchiveIncludeProcessor();
+		asciidoctor.javaExtensionRegistry().preprocessor(new DefaultAttributesPreprocessor(includeProcessor));
+		asciidoctor.javaExtensionRegistry().includeProcessor(includeProcessor);
+		if (javaOperationMacro) {
+			asciidoctor.javaExtensionRegistry().blockMacro(new OperationBlockMacroProcessor());
+		}
+		else {
+			asciidoctor.rubyExtensionRegistry()
+					.loadClass(
+							RestDocsExtensionRegistry.class.getResourceAsStream("/extensions/operation_block_macro.rb"))
+					.blockMacro("operation", "OperationBlockMacro");
+		}
 	}
 
 }
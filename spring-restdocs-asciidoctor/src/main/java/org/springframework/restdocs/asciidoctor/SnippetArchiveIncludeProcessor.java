@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.asciidoctor.ast.Document;
+import org.asciidoctor.extension.IncludeProcessor;
+import org.asciidoctor.extension.PreprocessorReader;
+
+/**
+ * {@link IncludeProcessor} that includes snippets from the archives in the snippets
+ * directory of the document that is being rendered using a {@link SnippetStore}. Only
+ * targets that are beneath the snippets directory and that are
+ * {@link SnippetStore#isArchived(String) served from an archive} are handled, so a
+ * snippet file takes precedence over an archived snippet with the same path. The
+ * {@code lines} and {@code tags} attributes are not supported when including an
+ * archived snippet.
+ *
+ * @author Andy Wilkinson
+ */
+final class SnippetArchiveIncludeProcessor extends IncludeProcessor {
+
+	private final ThreadLocal<SnippetsLocation> snippetsLocation = new ThreadLocal<>();
+
+	/**
+	 * Called once the snippets directory of the given {@code document} has been
+	 * resolved.
+	 * @param document the document that is being rendered
+	 */
+	void snippetsDirectoryResolved(Document document) {
+		Object snippets = document.getAttribute("snippets");
+		if (snippets == null) {
+			this.snippetsLocation.remove();
+			return;
+		}
+		Object docdir = document.getAttribute("docdir");
+		Path base = Paths.get((docdir != null) ? docdir.toString() : "").toAbsolutePath();
+		this.snippetsLocation.set(new SnippetsLocation(base, base.resolve(snippets.toString()).normalize()));
+	}
+
+	@Override
+	public boolean handles(String target) {
+		SnippetsLocation location = this.snippetsLocation.get();
+		if (location == null) {
+			return false;
+		}
+		Path resolved = location.resolve(target);
+		if (!resolved.startsWith(location.snippetsDirectory)) {
+			return false;
+		}
+		try {
+			return SnippetStore.of(location.snippetsDirectory).isArchived(location.relativize(resolved));
+		}
+		catch (UncheckedIOException ex) {
+			return false;
+		}
+	}
+
+	@Override
+	public void process(Document document, PreprocessorReader reader, String target, Map<String, Object> attributes) {
+		SnippetsLocation location = this.snippetsLocation.get();
+		Path resolved = location.resolve(target);
+		String content = SnippetStore.of(location.snippetsDirectory).getArchivedSnippet(location.relativize(resolved));
+		reader.pushInclude(content, target, resolved.toString(), 1, attributes);
+	}
+
+	private static final class SnippetsLocation {
+
+		private final Path base;
+
+		private final Path snippetsDirectory;
+
+		private SnippetsLocation(Path base, Path snippetsDirectory) {
+			this.base = base;
+			this.snippetsDirectory = snippetsDirectory;
+		}
+
+		private Path resolve(String target) {
+			return this.base.resolve(target).normalize();
+		}
+
+		private String relativize(Path path) {
+			return this.snippetsDirectory.relativize(path).toString().replace(File.separatorChar, '/');
+		}
+
+	}
+
+}
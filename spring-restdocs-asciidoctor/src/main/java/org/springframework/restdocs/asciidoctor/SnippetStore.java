@@ -0,0 +1,353 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A store of the Asciidoctor snippets in a snippets directory. Snippets are served from
+ * the files in each operation's directory and from the archives in the snippets
+ * directory, as written by Spring REST Docs' {@code SnippetArchiveWriterResolver}. A
+ * snippet file takes precedence over an archived snippet with the same path.
+ * <p>
+ * Each archive is made up of a data file with the suffix {@code .snippets} and an index
+ * file with the suffix {@code .snippets.index}. The first line of an index file is of
+ * the form {@code snippet-archive 1 <encoding>} and each subsequent line is of the form
+ * {@code <offset> <length> <path>}. When a path appears more than once, its last entry
+ * is used.
+ * <p>
+ * A store is a snapshot of the snippets directory that is taken once per conversion of
+ * a document. The index files are listed, and read if they have changed since they were
+ * last read, when the snapshot is taken, and each operation's directory is listed the
+ * first time that the operation is used. Lookups are then served from memory. The
+ * content of an archived snippet is read from its data file when it is requested. No
+ * files are held open between lookups.
+ * <p>
+ * Intended for use by the {@code operation} block macro and the handling of
+ * {@code include} directives.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class SnippetStore {
+
+	static final String DATA_FILE_SUFFIX = ".snippets";
+
+	static final String INDEX_FILE_SUFFIX = ".snippets.index";
+
+	static final String SNIPPET_FILE_SUFFIX = ".adoc";
+
+	private static final String INDEX_HEADER_PREFIX = "snippet-archive 1 ";
+
+	private static final ThreadLocal<SnippetStore> current = new ThreadLocal<>();
+
+	private static final ConcurrentMap<Path, Archive> archives = new ConcurrentHashMap<>();
+
+	private final Path snippetsDirectory;
+
+	private final Map<String, Map<String, Entry>> operations = new HashMap<>();
+
+	private final Map<String, Set<String>> snippetFiles = new HashMap<>();
+
+	private SnippetStore(Path snippetsDirectory, List<Archive> archives) {
+		this.snippetsDirectory = snippetsDirectory;
+		for (Archive archive : archives) {
+			archive.operations.forEach((operation, entries) -> this.operations
+					.computeIfAbsent(operation, (key) -> new TreeMap<>()).putAll(entries));
+		}
+	}
+
+	/**
+	 * Returns the store of the snippets in the given {@code snippetsDirectory}.
+	 * @param snippetsDirectory the snippets directory
+	 * @return the store
+	 */
+	public static SnippetStore of(String snippetsDirectory) {
+		return of(Paths.get(snippetsDirectory));
+	}
+
+	/**
+	 * Returns the store of the snippets in the given {@code snippetsDirectory}. The same
+	 * store is returned to the current thread until {@link #conversionStarted()} is
+	 * called.
+	 * @param snippetsDirectory the snippets directory
+	 * @return the store
+	 */
+	static SnippetStore of(Path snippetsDirectory) {
+		Path directory = snippetsDirectory.toAbsolutePath().normalize();
+		SnippetStore store = current.get();
+		if (store == null || !store.snippetsDirectory.equals(directory)) {
+			try {
+				store = new SnippetStore(directory, readArchives(directory));
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to read snippets in '" + directory + "'", ex);
+			}
+			current.set(store);
+		}
+		return store;
+	}
+
+	/**
+	 * Called when the conversion of a document starts so that a new snapshot of the
+	 * snippets directory is taken by the next call to {@link #of(Path)}.
+	 */
+	static void conversionStarted() {
+		current.remove();
+	}
+
+	/**
+	 * Returns the names of the snippets of the given {@code operation}, in alphabetical
+	 * order.
+	 * @param operation the name of the operation
+	 * @return the names of the snippets, empty if the operation has no snippets
+	 */
+	public List<String> getSnippetNames(String operation) {
+		Set<String> names = new TreeSet<>(getSnippetFiles(operation));
+		Map<String, Entry> archived = this.operations.get(operation);
+		if (archived != null) {
+			names.addAll(archived.keySet());
+		}
+		return new ArrayList<>(names);
+	}
+
+	/**
+	 * Returns the content of the snippet with the given {@code snippetName} of the given
+	 * {@code operation}.
+	 * @param operation the name of the operation
+	 * @param snippetName the name of the snippet
+	 * @return the content of the snippet or {@code null} if it does not exist
+	 */
+	public String getSnippet(String operation, String snippetName) {
+		if (getSnippetFiles(operation).contains(snippetName)) {
+			Path snippet = this.snippetsDirectory.resolve(operation).resolve(snippetName + SNIPPET_FILE_SUFFIX);
+			try {
+				return Files.readString(snippet, StandardCharsets.UTF_8);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to read snippet '" + snippet + "'", ex);
+			}
+		}
+		Map<String, Entry> archived = this.operations.get(operation);
+		Entry entry = (archived != null) ? archived.get(snippetName) : null;
+		return (entry != null) ? entry.read() : null;
+	}
+
+	/**
+	 * Returns whether the snippet with the given {@code path} is served from an archive,
+	 * that is it is archived and there is no snippet file with the same path.
+	 * @param path the path of the snippet, relative to the snippets directory
+	 * @return {@code true} if the snippet is served from an archive, otherwise
+	 * {@code false}
+	 */
+	boolean isArchived(String path) {
+		return getArchivedEntry(path) != null;
+	}
+
+	/**
+	 * Returns the content of the snippet with the given {@code path} that is served from
+	 * an archive.
+	 * @param path the path of the snippet, relative to the snippets directory
+	 * @return the content of the snippet or {@code null} if it is not served from an
+	 * archive
+	 */
+	String getArchivedSnippet(String path) {
+		Entry entry = getArchivedEntry(path);
+		return (entry != null) ? entry.read() : null;
+	}
+
+	private Entry getArchivedEntry(String path) {
+		int separator = path.lastIndexOf('/');
+		if (separator < 0 || !path.endsWith(SNIPPET_FILE_SUFFIX)) {
+			return null;
+		}
+		String operation = path.substring(0, separator);
+		Map<String, Entry> archived = this.operations.get(operation);
+		if (archived == null) {
+			return null;
+		}
+		String snippetName = path.substring(separator + 1, path.length() - SNIPPET_FILE_SUFFIX.length());
+		Entry entry = archived.get(snippetName);
+		return (entry != null && !getSnippetFiles(operation).contains(snippetName)) ? entry : null;
+	}
+
+	private synchronized Set<String> getSnippetFiles(String operation) {
+		return this.snippetFiles.computeIfAbsent(operation, this::listSnippetFiles);
+	}
+
+	private Set<String> listSnippetFiles(String operation) {
+		Path operationDirectory = this.snippetsDirectory.resolve(operation);
+		if (!Files.isDirectory(operationDirectory)) {
+			return Collections.emptySet();
+		}
+		Set<String> names = new HashSet<>();
+		try (DirectoryStream<Path> snippets = Files.newDirectoryStream(operationDirectory,
+				"*" + SNIPPET_FILE_SUFFIX)) {
+			for (Path snippet : snippets) {
+				if (Files.isRegularFile(snippet)) {
+					String fileName = snippet.getFileName().toString();
+					names.add(fileName.substring(0, fileName.length() - SNIPPET_FILE_SUFFIX.length()));
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to list snippets in '" + operationDirectory + "'", ex);
+		}
+		return names;
+	}
+
+	private static List<Archive> readArchives(Path directory) throws IOException {
+		List<Path> indexFiles = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			try (DirectoryStream<Path> candidates = Files.newDirectoryStream(directory, "*" + INDEX_FILE_SUFFIX)) {
+				candidates.forEach(indexFiles::add);
+			}
+		}
+		Collections.sort(indexFiles);
+		Set<Path> found = new HashSet<>(indexFiles);
+		archives.keySet()
+				.removeIf((indexFile) -> directory.equals(indexFile.getParent()) && !found.contains(indexFile));
+		List<Archive> result = new ArrayList<>();
+		for (Path indexFile : indexFiles) {
+			long lastModified = Files.getLastModifiedTime(indexFile).toMillis();
+			long size = Files.size(indexFile);
+			Archive archive = archives.get(indexFile);
+			if (archive == null || archive.lastModified != lastModified || archive.size != size) {
+				archive = Archive.read(indexFile, lastModified, size);
+				archives.put(indexFile, archive);
+			}
+			result.add(archive);
+		}
+		return result;
+	}
+
+	/**
+	 * The index of an archive, keyed by the path of its index file and the time at which
+	 * that file was last modified.
+	 */
+	private static final class Archive {
+
+		private final long lastModified;
+
+		private final long size;
+
+		private final Map<String, Map<String, Entry>> operations = new HashMap<>();
+
+		private Archive(long lastModified, long size) {
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+
+		private static Archive read(Path indexFile, long lastModified, long size) throws IOException {
+			Archive archive = new Archive(lastModified, size);
+			String indexFileName = indexFile.getFileName().toString();
+			Path dataFile = indexFile.resolveSibling(
+					indexFileName.substring(0, indexFileName.length() - INDEX_FILE_SUFFIX.length())
+							+ DATA_FILE_SUFFIX);
+			if (!Files.isRegularFile(dataFile)) {
+				return archive;
+			}
+			long dataLength = Files.size(dataFile);
+			try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+				String header = reader.readLine();
+				if (header == null || !header.startsWith(INDEX_HEADER_PREFIX)) {
+					return archive;
+				}
+				Charset charset = Charset.forName(header.substring(INDEX_HEADER_PREFIX.length()));
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] components = line.split(" ", 3);
+					if (components.length != 3) {
+						continue;
+					}
+					long offset = Long.parseLong(components[0]);
+					int length = Integer.parseInt(components[1]);
+					String path = components[2];
+					int separator = path.lastIndexOf('/');
+					if (separator > 0 && path.endsWith(SNIPPET_FILE_SUFFIX) && offset + length <= dataLength) {
+						archive.operations
+								.computeIfAbsent(path.substring(0, separator), (operation) -> new TreeMap<>())
+								.put(path.substring(separator + 1, path.length() - SNIPPET_FILE_SUFFIX.length()),
+										new Entry(dataFile, offset, length, charset));
+					}
+				}
+			}
+			catch (NumberFormatException ex) {
+				// Truncated or corrupt entry. Keep those that have been read.
+			}
+			return archive;
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final Path dataFile;
+
+		private final long offset;
+
+		private final int length;
+
+		private final Charset charset;
+
+		private Entry(Path dataFile, long offset, int length, Charset charset) {
+			this.dataFile = dataFile;
+			this.offset = offset;
+			this.length = length;
+			this.charset = charset;
+		}
+
+		private String read() {
+			ByteBuffer content = ByteBuffer.allocate(this.length);
+			try (FileChannel data = FileChannel.open(this.dataFile)) {
+				while (content.hasRemaining()) {
+					if (data.read(content, this.offset + content.position()) < 0) {
+						throw new IOException("Unexpected end of file");
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to read snippet from '" + this.dataFile + "'", ex);
+			}
+			content.flip();
+			return this.charset.decode(content).toString();
+		}
+
+	}
+
+}
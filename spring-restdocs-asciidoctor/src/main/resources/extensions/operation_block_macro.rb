@@ -70,25 +70,18 @@ class OperationBlockMacro < Asciidoctor::Extensions::BlockMacroProcessor
   end
 
   def snippets_to_include(snippet_names, snippets_dir, operation)
-    if snippet_names.empty?
-      all_snippets snippets_dir, operation
-    else
-      snippet_names.split(',').map do |name|
-        path = File.join snippets_dir, operation, "#{name}.adoc"
-        Snippet.new path, name
-      end
+    store = Java::OrgSpringframeworkRestdocsAsciidoctor::SnippetStore.of snippets_dir
+    names = if snippet_names.empty?
+              store.get_snippet_names(operation).to_a
+            else
+              snippet_names.split(',')
+            end
+    names.map do |name|
+      path = File.join snippets_dir, operation, "#{name}.adoc"
+      Snippet.new path, name, store.get_snippet(operation, name)
     end
   end
 
-  def all_snippets(snippets_dir, operation)
-    operation_dir = File.join snippets_dir, operation
-    return [] unless Dir.exist? operation_dir
-    Dir.entries(operation_dir)
-       .sort
-       .select { |file| file.end_with? '.adoc' }
-       .map { |file| Snippet.new(File.join(operation_dir, file), file[0..-6]) }
-  end
-
   def append_snippet_block(content, snippet, section_id,
                            operation, snippet_titles, parent)
     write_title content, snippet, section_id, snippet_titles
@@ -96,8 +89,8 @@ class OperationBlockMacro < Asciidoctor::Extensions::BlockMacroProcessor
   end
 
   def write_content(content, snippet, operation, parent)
-    if File.file? snippet.path
-      content.puts File.readlines(snippet.path, :encoding => 'UTF-8').join
+    if snippet.content
+      content.puts snippet.content
     else
       location = parent.document.reader.cursor_at_mark
       logger.warn message_with_context "Snippet #{snippet.name} not found at #{snippet.path} for"\
@@ -118,12 +111,12 @@ class OperationBlockMacro < Asciidoctor::Extensions::BlockMacroProcessor
 
   # Details of a snippet to be rendered
   class Snippet
-    attr_reader :name, :path
+    attr_reader :name, :path, :content
 
-    def initialize(path, name)
+    def initialize(path, name, content)
       @path = path
       @name = name
-      @snippet_titles
+      @content = content
     end
   end
 
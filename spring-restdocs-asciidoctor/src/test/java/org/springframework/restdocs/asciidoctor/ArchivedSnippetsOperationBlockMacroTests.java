@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.asciidoctor.Asciidoctor;
+import org.asciidoctor.Attributes;
+import org.asciidoctor.Options;
+import org.asciidoctor.SafeMode;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for Ruby operation block macro and for includes when snippets have been written
+ * to an archive in a Gradle build.
+ *
+ * @author Andy Wilkinson
+ */
+public class ArchivedSnippetsOperationBlockMacroTests extends AbstractOperationBlockMacroTests {
+
+	@Override
+	public void prepareOperationSnippets(File buildOutputLocation) throws IOException {
+		File snippetsDirectory = new File(buildOutputLocation, "generated-snippets");
+		snippetsDirectory.mkdirs();
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		StringBuilder index = new StringBuilder("snippet-archive 1 UTF-8\n");
+		File[] snippets = new File("src/test/resources/some-operation").listFiles();
+		Arrays.sort(snippets);
+		for (File snippet : snippets) {
+			byte[] content = Files.readAllBytes(snippet.toPath());
+			index.append(data.size()).append(' ').append(content.length).append(" some-operation/")
+					.append(snippet.getName()).append('\n');
+			data.write(content);
+		}
+		Files.write(new File(snippetsDirectory, "com.example.ExampleTests" + SnippetStore.DATA_FILE_SUFFIX).toPath(),
+				data.toByteArray());
+		Files.write(new File(snippetsDirectory, "com.example.ExampleTests" + SnippetStore.INDEX_FILE_SUFFIX).toPath(),
+				index.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void archivedSnippetCanBeIncluded() throws IOException {
+		Options options = Options.builder().safe(SafeMode.UNSAFE).baseDir(getSourceLocation()).build();
+		options.setAttributes(getAttributes());
+		String result = Asciidoctor.Factory.create().convert("include::{snippets}/some-operation/curl-request.adoc[]",
+				options);
+		assertThat(result).contains("$ curl 'http://localhost:8080/' -i");
+	}
+
+	@Test
+	public void snippetFileTakesPrecedenceOverArchivedSnippetWhenIncluded() throws IOException {
+		File operationDirectory = new File(getBuildOutputLocation(), "generated-snippets/some-operation");
+		operationDirectory.mkdirs();
+		Files.writeString(new File(operationDirectory, "curl-request.adoc").toPath(), "Snippet file");
+		Options options = Options.builder().safe(SafeMode.UNSAFE).baseDir(getSourceLocation()).build();
+		options.setAttributes(getAttributes());
+		String result = Asciidoctor.Factory.create().convert("include::{snippets}/some-operation/curl-request.adoc[]",
+				options);
+		assertThat(result).contains("Snippet file").doesNotContain("$ curl");
+	}
+
+	@Override
+	protected Attributes getAttributes() {
+		return Attributes.builder()
+				.attribute("projectdir", new File(this.temp.getRoot(), "gradle-project").getAbsolutePath()).build();
+	}
+
+	@Override
+	protected File getBuildOutputLocation() {
+		File outputLocation = new File(this.temp.getRoot(), "gradle-project/build");
+		outputLocation.mkdirs();
+		return outputLocation;
+	}
+
+	@Override
+	protected File getSourceLocation() {
+		File sourceLocation = new File(this.temp.getRoot(), "gradle-project/src/docs/asciidoc");
+		if (!sourceLocation.exists()) {
+			sourceLocation.mkdirs();
+		}
+		return sourceLocation;
+	}
+
+}
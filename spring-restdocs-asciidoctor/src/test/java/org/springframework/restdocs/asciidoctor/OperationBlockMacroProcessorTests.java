@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.asciidoctor.Asciidoctor;
+import org.asciidoctor.Attributes;
+import org.asciidoctor.Options;
+import org.asciidoctor.SafeMode;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.util.FileSystemUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OperationBlockMacroProcessor}.
+ *
+ * @author Andy Wilkinson
+ */
+public class OperationBlockMacroProcessorTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private final Asciidoctor asciidoctor = createAsciidoctor();
+
+	private Options options;
+
+	@Before
+	public void setUp() throws IOException {
+		File projectDirectory = new File(this.temp.getRoot(), "gradle-project");
+		File snippets = new File(projectDirectory, "build/generated-snippets/some-operation");
+		snippets.mkdirs();
+		FileSystemUtils.copyRecursively(new File("src/test/resources/some-operation"), snippets);
+		File sourceLocation = new File(projectDirectory, "src/docs/asciidoc");
+		sourceLocation.mkdirs();
+		this.options = Options.builder().safe(SafeMode.UNSAFE).baseDir(sourceLocation).build();
+		this.options.setAttributes(
+				Attributes.builder().attribute("projectdir", projectDirectory.getAbsolutePath()).build());
+		CapturingLogHandler.clear();
+	}
+
+	@Test
+	public void snippetIsIncludedInSectionWithDefaultTitle() {
+		String result = this.asciidoctor.convert("operation::some-operation[snippets='curl-request']", this.options);
+		assertThat(result).contains("id=\"_curl_request\"").contains("Curl request")
+				.contains("$ curl 'http://localhost:8080/' -i");
+	}
+
+	@Test
+	public void allSnippetsAreIncludedInAlphabeticalOrderWhenSnippetsAttributeIsAbsent() {
+		String result = this.asciidoctor.convert("operation::some-operation[]", this.options);
+		assertThat(result).containsSubsequence("Curl request", "Custom snippet", "HTTP request", "Response fields");
+	}
+
+	@Test
+	public void operationNameCanBeParameterized() {
+		String result = this.asciidoctor.convert(":name: some\noperation::{name}-operation[snippets='curl-request']",
+				this.options);
+		assertThat(result).contains("$ curl 'http://localhost:8080/' -i");
+	}
+
+	@Test
+	public void titleOfSnippetCanBeCustomizedUsingDocumentAttribute() {
+		String result = this.asciidoctor.convert(":operation-curl-request-title: Example request\n"
+				+ "operation::some-operation[snippets='curl-request']", this.options);
+		assertThat(result).contains("Example request").doesNotContain("Curl request");
+	}
+
+	@Test
+	public void includingMissingSnippetAddsWarning() {
+		String result = this.asciidoctor.convert("operation::some-operation[snippets='missing-snippet']", this.options);
+		assertThat(result).contains("Snippet missing-snippet not found for operation::some-operation");
+		assertThat(CapturingLogHandler.getLogRecords()).hasSize(1);
+		assertThat(CapturingLogHandler.getLogRecords().get(0).getMessage())
+				.contains("Snippet missing-snippet not found");
+	}
+
+	@Test
+	public void missingOperationAddsWarning() {
+		String result = this.asciidoctor.convert("operation::missing-operation[]", this.options);
+		assertThat(result).contains("No snippets found for operation::missing-operation");
+		assertThat(CapturingLogHandler.getLogRecords()).hasSize(1);
+		assertThat(CapturingLogHandler.getLogRecords().get(0).getMessage())
+				.contains("No snippets were found for operation missing-operation");
+	}
+
+	private static Asciidoctor createAsciidoctor() {
+		Asciidoctor asciidoctor = Asciidoctor.Factory.create();
+		asciidoctor.unregisterAllExtensions();
+		new RestDocsExtensionRegistry().register(asciidoctor, true);
+		return asciidoctor;
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.asciidoctor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SnippetStore}.
+ *
+ * @author Andy Wilkinson
+ */
+public class SnippetStoreTests {
+
+	@Rule
+	public final TemporaryFolder temp = new TemporaryFolder();
+
+	@After
+	public void discardStore() {
+		SnippetStore.conversionStarted();
+	}
+
+	@Test
+	public void snippetsAreReadFromOperationDirectoryWhenNotArchived() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		Files.createDirectories(directory.resolve("alpha"));
+		Files.writeString(directory.resolve("alpha/charlie.adoc"), "charlie");
+		Files.writeString(directory.resolve("alpha/bravo.adoc"), "bravo");
+		Files.writeString(directory.resolve("alpha/delta.txt"), "delta");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippetNames("alpha")).containsExactly("bravo", "charlie");
+		assertThat(store.getSnippet("alpha", "bravo")).isEqualTo("bravo");
+		assertThat(store.isArchived("alpha/bravo.adoc")).isFalse();
+	}
+
+	@Test
+	public void missingOperationHasNoSnippets() {
+		SnippetStore store = SnippetStore.of(this.temp.getRoot().toPath());
+		assertThat(store.getSnippetNames("alpha")).isEmpty();
+		assertThat(store.getSnippet("alpha", "bravo")).isNull();
+	}
+
+	@Test
+	public void archivedSnippetsAreIndexedByOperationAndName() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravoechodelta", "0 5 alpha/bravo.adoc", "5 4 charlie/echo.adoc",
+				"9 5 alpha/delta.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippetNames("alpha")).containsExactly("bravo", "delta");
+		assertThat(store.getSnippet("alpha", "delta")).isEqualTo("delta");
+		assertThat(store.getSnippet("charlie", "echo")).isEqualTo("echo");
+		assertThat(store.getArchivedSnippet("charlie/echo.adoc")).isEqualTo("echo");
+	}
+
+	@Test
+	public void archivedSnippetsOfNestedOperationAreIndexed() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravo", "0 5 alpha/one/bravo.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippetNames("alpha/one")).containsExactly("bravo");
+		assertThat(store.getSnippet("alpha/one", "bravo")).isEqualTo("bravo");
+	}
+
+	@Test
+	public void snippetFileTakesPrecedenceOverArchivedSnippet() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		Files.createDirectories(directory.resolve("alpha"));
+		Files.writeString(directory.resolve("alpha/bravo.adoc"), "file");
+		Files.writeString(directory.resolve("alpha/charlie.adoc"), "file");
+		writeArchive(directory, "one", "UTF-8", "bravodelta", "0 5 alpha/bravo.adoc", "5 5 alpha/delta.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippetNames("alpha")).containsExactly("bravo", "charlie", "delta");
+		assertThat(store.getSnippet("alpha", "bravo")).isEqualTo("file");
+		assertThat(store.getSnippet("alpha", "delta")).isEqualTo("delta");
+	}
+
+	@Test
+	public void lastEntryForPathIsUsed() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "oldnew", "0 3 alpha/bravo.adoc", "3 3 alpha/bravo.adoc");
+		assertThat(SnippetStore.of(directory).getSnippet("alpha", "bravo")).isEqualTo("new");
+	}
+
+	@Test
+	public void snippetsAreReadFromAllArchives() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravo", "0 5 alpha/bravo.adoc");
+		writeArchive(directory, "two", "UTF-8", "delta", "0 5 charlie/delta.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippet("alpha", "bravo")).isEqualTo("bravo");
+		assertThat(store.getSnippet("charlie", "delta")).isEqualTo("delta");
+	}
+
+	@Test
+	public void snippetsAreDecodedUsingEncodingOfArchive() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "ISO-8859-1", "caf\u00e9", "0 4 alpha/bravo.adoc");
+		assertThat(SnippetStore.of(directory).getSnippet("alpha", "bravo")).isEqualTo("caf\u00e9");
+	}
+
+	@Test
+	public void entryBeyondEndOfDataFileIsIgnored() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravo", "0 5 alpha/bravo.adoc", "5 5 alpha/charlie.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.isArchived("alpha/bravo.adoc")).isTrue();
+		assertThat(store.isArchived("alpha/charlie.adoc")).isFalse();
+	}
+
+	@Test
+	public void sameStoreIsUsedUntilConversionStarts() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravo", "0 5 alpha/bravo.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.getSnippetNames("alpha")).containsExactly("bravo");
+		writeArchive(directory, "two", "UTF-8", "charlie", "0 7 alpha/charlie.adoc");
+		Files.createDirectories(directory.resolve("alpha"));
+		Files.writeString(directory.resolve("alpha/delta.adoc"), "delta");
+		assertThat(SnippetStore.of(directory)).isSameAs(store);
+		assertThat(store.getSnippetNames("alpha")).containsExactly("bravo");
+		SnippetStore.conversionStarted();
+		SnippetStore rebuilt = SnippetStore.of(directory);
+		assertThat(rebuilt).isNotSameAs(store);
+		assertThat(rebuilt.getSnippetNames("alpha")).containsExactly("bravo", "charlie", "delta");
+	}
+
+	@Test
+	public void archiveWithChangedIndexIsReadAgain() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		writeArchive(directory, "one", "UTF-8", "bravo", "0 5 alpha/bravo.adoc");
+		assertThat(SnippetStore.of(directory).getSnippetNames("alpha")).containsExactly("bravo");
+		writeArchive(directory, "one", "UTF-8", "charlie", "0 7 alpha/charlie.adoc");
+		Files.setLastModifiedTime(directory.resolve("one" + SnippetStore.INDEX_FILE_SUFFIX),
+				FileTime.fromMillis(System.currentTimeMillis() + 10000));
+		SnippetStore.conversionStarted();
+		assertThat(SnippetStore.of(directory).getSnippetNames("alpha")).containsExactly("charlie");
+	}
+
+	@Test
+	public void archivedSnippetWithSnippetFileIsNotServedFromArchive() throws IOException {
+		Path directory = this.temp.getRoot().toPath();
+		Files.createDirectories(directory.resolve("alpha"));
+		Files.writeString(directory.resolve("alpha/bravo.adoc"), "file");
+		writeArchive(directory, "one", "UTF-8", "bravodelta", "0 5 alpha/bravo.adoc", "5 5 alpha/delta.adoc");
+		SnippetStore store = SnippetStore.of(directory);
+		assertThat(store.isArchived("alpha/bravo.adoc")).isFalse();
+		assertThat(store.isArchived("alpha/delta.adoc")).isTrue();
+		assertThat(store.getArchivedSnippet("alpha/delta.adoc")).isEqualTo("delta");
+	}
+
+	private void writeArchive(Path directory, String name, String encoding, String data, String... entries)
+			throws IOException {
+		Files.write(directory.resolve(name + SnippetStore.DATA_FILE_SUFFIX), data.getBytes(encoding));
+		StringBuilder index = new StringBuilder("snippet-archive 1 ").append(encoding).append('\n');
+		for (String entry : entries) {
+			index.append(entry).append('\n');
+		}
+		File indexFile = directory.resolve(name + SnippetStore.INDEX_FILE_SUFFIX).toFile();
+		Files.write(indexFile.toPath(), index.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.mockmvc;
+
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.restdocs.operation.OperationRequest;
+import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+/**
+ * Benchmarks for {@link MockMvcRequestConverter} and {@link MockMvcResponseConverter}.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class MockMvcConverterBenchmark {
+
+	private final MockMvcRequestConverter requestConverter = new MockMvcRequestConverter();
+
+	private final MockMvcResponseConverter responseConverter = new MockMvcResponseConverter();
+
+	private MockHttpServletRequest getRequest;
+
+	private MockHttpServletRequest postRequest;
+
+	private MockHttpServletRequest multipartRequest;
+
+	private MockHttpServletResponse response;
+
+	@Setup
+	public void setUp() throws Exception {
+		MockServletContext servletContext = new MockServletContext();
+		this.getRequest = MockMvcRequestBuilders.get("/orders").param("page", "1").param("size", "20")
+				.header("Accept", MediaType.APPLICATION_JSON_VALUE).header("X-Request-Id", "1234")
+				.buildRequest(servletContext);
+		this.postRequest = MockMvcRequestBuilders.post("/orders").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Item\",\"price\":1.5,\"tags\":[\"a\",\"b\"]}")
+				.header("Accept", MediaType.APPLICATION_JSON_VALUE).buildRequest(servletContext);
+		this.multipartRequest = MockMvcRequestBuilders.multipart("/upload")
+				.file(new MockMultipartFile("file", "orders.csv", "text/csv",
+						"id,name\n1,Item\n".getBytes(StandardCharsets.UTF_8)))
+				.param("description", "Orders").buildRequest(servletContext);
+		this.response = new MockHttpServletResponse();
+		this.response.setStatus(200);
+		this.response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		this.response.addHeader("X-Request-Id", "1234");
+		this.response.getWriter().write("{\"id\":1,\"name\":\"Item\",\"price\":1.5}");
+		this.response.getWriter().flush();
+	}
+
+	@Benchmark
+	public OperationRequest convertGetRequest() {
+		return this.requestConverter.convert(this.getRequest);
+	}
+
+	@Benchmark
+	public OperationRequest convertPostRequest() {
+		return this.requestConverter.convert(this.postRequest);
+	}
+
+	@Benchmark
+	public OperationRequest convertMultipartRequest() {
+		return this.requestConverter.convert(this.multipartRequest);
+	}
+
+	@Benchmark
+	public OperationResponse convertResponse() {
+		return this.responseConverter.convert(this.response);
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.mockmvc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.restdocs.ManualRestDocumentation;
+import org.springframework.restdocs.generate.RestDocumentationGenerator;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.FileSystemUtils;
+
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+
+/**
+ * End-to-end benchmark for {@link RestDocumentationGenerator#handle} using the default
+ * MockMvc configuration. Each invocation converts, preprocesses, and documents a request
+ * and response, writing the default snippets and fields snippets to disk.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class RestDocumentationGeneratorBenchmark {
+
+	private static final String ORDER = "{\"id\":1,\"name\":\"Item\",\"price\":1.5,\"tags\":[\"a\",\"b\"]}";
+
+	private File outputDirectory;
+
+	private ManualRestDocumentation restDocumentation;
+
+	private RestDocumentationGenerator<MockHttpServletRequest, MockHttpServletResponse> generator;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	private Map<String, Object> configuration;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws IOException {
+		this.outputDirectory = Files.createTempDirectory("restdocs-benchmark").toFile();
+		this.restDocumentation = new ManualRestDocumentation(this.outputDirectory.getAbsolutePath());
+		this.restDocumentation.beforeTest(getClass(), "handle");
+		this.request = MockMvcRequestBuilders.post("/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER)
+				.header("Accept", MediaType.APPLICATION_JSON_VALUE).buildRequest(new MockServletContext());
+		MockMvcRestDocumentation.documentationConfiguration(this.restDocumentation).beforeMockMvcCreated(null, null)
+				.postProcessRequest(this.request);
+		this.configuration = (Map<String, Object>) this.request
+				.getAttribute(RestDocumentationResultHandler.ATTRIBUTE_NAME_CONFIGURATION);
+		this.response = new MockHttpServletResponse();
+		this.response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		this.response.getWriter().write(ORDER);
+		this.response.getWriter().flush();
+		this.generator = new RestDocumentationGenerator<>("orders", new MockMvcRequestConverter(),
+				new MockMvcResponseConverter(), preprocessRequest(prettyPrint()), preprocessResponse(prettyPrint()),
+				requestFields(fieldWithPath("id").description("The id"), fieldWithPath("name").description("The name"),
+						fieldWithPath("price").description("The price"),
+						fieldWithPath("tags[]").description("The tags")),
+				responseFields(fieldWithPath("id").description("The id"), fieldWithPath("name").description("The name"),
+						fieldWithPath("price").description("The price"),
+						fieldWithPath("tags[]").description("The tags")));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.restDocumentation.afterTest();
+		FileSystemUtils.deleteRecursively(this.outputDirectory);
+	}
+
+	@Benchmark
+	public void handle() {
+		this.generator.handle(this.request, this.response, this.configuration);
+	}
+
+}
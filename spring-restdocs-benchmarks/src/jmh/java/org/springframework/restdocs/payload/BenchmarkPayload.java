@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON payloads of different shapes, and the descriptors that document them, for use
+ * in benchmarks.
+ *
+ * @author Andy Wilkinson
+ */
+enum BenchmarkPayload {
+
+	/**
+	 * A small object with a handful of fields.
+	 */
+	SMALL {
+
+		@Override
+		Object createContent() {
+			Map<String, Object> address = new LinkedHashMap<>();
+			address.put("street", "10 Downing Street");
+			address.put("city", "London");
+			Map<String, Object> content = new LinkedHashMap<>();
+			content.put("id", 1);
+			content.put("name", "Alice");
+			content.put("tags", Arrays.asList("alpha", "bravo"));
+			content.put("address", address);
+			return content;
+		}
+
+		@Override
+		List<FieldDescriptor> createDescriptors() {
+			return Arrays.asList(field("id"), field("name"), field("tags[]"), field("address"),
+					field("address.street"), field("address.city"));
+		}
+
+	},
+
+	/**
+	 * An object containing an array of 1000 items, each with nested fields.
+	 */
+	LARGE {
+
+		@Override
+		Object createContent() {
+			List<Object> items = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				Map<String, Object> supplier = new LinkedHashMap<>();
+				supplier.put("name", "Supplier " + (i % 10));
+				supplier.put("country", "GB");
+				Map<String, Object> item = new LinkedHashMap<>();
+				item.put("id", i);
+				item.put("name", "Item " + i);
+				item.put("price", i * 1.5);
+				item.put("tags", Arrays.asList("tag" + (i % 3), "tag" + (i % 5)));
+				item.put("supplier", supplier);
+				items.add(item);
+			}
+			Map<String, Object> content = new LinkedHashMap<>();
+			content.put("items", items);
+			content.put("total", items.size());
+			return content;
+		}
+
+		@Override
+		List<FieldDescriptor> createDescriptors() {
+			return Arrays.asList(field("items[].id"), field("items[].name"), field("items[].price"),
+					field("items[].tags[]"), field("items[].supplier.name"), field("items[].supplier.country"),
+					field("total"));
+		}
+
+	},
+
+	/**
+	 * An object that is nested 32 levels deep with a field at each level.
+	 */
+	DEEPLY_NESTED {
+
+		@Override
+		Object createContent() {
+			Map<String, Object> content = new LinkedHashMap<>();
+			content.put("value", DEPTH);
+			for (int depth = DEPTH - 1; depth > 0; depth--) {
+				Map<String, Object> parent = new LinkedHashMap<>();
+				parent.put("value", depth);
+				parent.put("child", content);
+				content = parent;
+			}
+			return content;
+		}
+
+		@Override
+		List<FieldDescriptor> createDescriptors() {
+			List<FieldDescriptor> descriptors = new ArrayList<>();
+			StringBuilder path = new StringBuilder();
+			for (int depth = 1; depth <= DEPTH; depth++) {
+				descriptors.add(field(path + "value"));
+				if (depth < DEPTH) {
+					path.append("child.");
+				}
+			}
+			return descriptors;
+		}
+
+	};
+
+	private static final int DEPTH = 32;
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Returns the payload serialized as JSON.
+	 * @return the JSON payload
+	 */
+	byte[] getContent() {
+		try {
+			return objectMapper.writeValueAsBytes(createContent());
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Returns the paths of the descriptors of the payload.
+	 * @return the paths
+	 */
+	List<String> getPaths() {
+		List<String> paths = new ArrayList<>();
+		for (FieldDescriptor descriptor : createDescriptors()) {
+			paths.add(descriptor.getPath());
+		}
+		return paths;
+	}
+
+	abstract Object createContent();
+
+	abstract List<FieldDescriptor> createDescriptors();
+
+	private static FieldDescriptor field(String path) {
+		return PayloadDocumentation.fieldWithPath(path).description("The " + path);
+	}
+
+}
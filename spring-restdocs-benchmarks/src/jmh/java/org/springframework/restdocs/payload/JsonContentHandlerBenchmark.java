@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link JsonContentHandler}. Each benchmark creates a new handler, as a
+ * fields snippet does when documenting an operation.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class JsonContentHandlerBenchmark {
+
+	@Param
+	private BenchmarkPayload payload;
+
+	private byte[] content;
+
+	private List<FieldDescriptor> descriptors;
+
+	@Setup
+	public void setUp() {
+		this.content = this.payload.getContent();
+		this.descriptors = this.payload.createDescriptors();
+	}
+
+	@Benchmark
+	public List<FieldDescriptor> findMissingFields() {
+		return new JsonContentHandler(this.content, this.descriptors).findMissingFields();
+	}
+
+	@Benchmark
+	public String getUndocumentedContent() {
+		return new JsonContentHandler(this.content, this.descriptors).getUndocumentedContent();
+	}
+
+	@Benchmark
+	public void resolveFieldTypes(Blackhole blackhole) {
+		JsonContentHandler contentHandler = new JsonContentHandler(this.content, this.descriptors);
+		for (FieldDescriptor descriptor : this.descriptors) {
+			blackhole.consume(contentHandler.resolveFieldType(descriptor));
+		}
+	}
+
+}
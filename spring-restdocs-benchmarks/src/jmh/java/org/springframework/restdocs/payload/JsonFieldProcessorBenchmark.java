@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link JsonFieldProcessor}.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class JsonFieldProcessorBenchmark {
+
+	@Param
+	private BenchmarkPayload payload;
+
+	private final JsonFieldProcessor fieldProcessor = new JsonFieldProcessor();
+
+	private Object content;
+
+	private List<String> paths;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.content = new ObjectMapper().readValue(this.payload.getContent(), Object.class);
+		this.paths = this.payload.getPaths();
+	}
+
+	@Benchmark
+	public void evaluateAllPaths(Blackhole blackhole) {
+		blackhole.consume(this.fieldProcessor.evaluate(this.paths, this.content));
+	}
+
+	@Benchmark
+	public void hasFieldForEachPath(Blackhole blackhole) {
+		for (String path : this.paths) {
+			blackhole.consume(this.fieldProcessor.hasField(path, this.content));
+		}
+	}
+
+	@Benchmark
+	public void extractEachPath(Blackhole blackhole) {
+		for (String path : this.paths) {
+			blackhole.consume(this.fieldProcessor.extract(path, this.content));
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.templates.mustache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.restdocs.mustache.Mustache;
+import org.springframework.restdocs.templates.IndexedTemplateResourceResolver;
+import org.springframework.restdocs.templates.TemplateFormats;
+
+/**
+ * Benchmarks for {@link MustacheTemplateEngine} rendering the default Asciidoctor
+ * templates.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class MustacheTemplateEngineBenchmark {
+
+	@Param({ "10", "100" })
+	private int rows;
+
+	private MustacheTemplateEngine templateEngine;
+
+	private MustacheTemplateEngine uncachedTemplateEngine;
+
+	private Map<String, Object> fieldsModel;
+
+	private Map<String, Object> httpRequestModel;
+
+	@Setup
+	public void setUp() {
+		this.templateEngine = createTemplateEngine();
+		this.uncachedTemplateEngine = createTemplateEngine();
+		this.uncachedTemplateEngine.setTemplateCacheLimit(0);
+		List<Map<String, Object>> fields = new ArrayList<>();
+		List<Map<String, String>> headers = new ArrayList<>();
+		for (int i = 0; i < this.rows; i++) {
+			Map<String, Object> field = new HashMap<>();
+			field.put("path", "items[].field" + i);
+			field.put("type", "String");
+			field.put("description", "The field | with index " + i);
+			fields.add(field);
+			Map<String, String> header = new LinkedHashMap<>();
+			header.put("name", "X-Header-" + i);
+			header.put("value", "value-" + i);
+			headers.add(header);
+		}
+		this.fieldsModel = Collections.singletonMap("fields", fields);
+		this.httpRequestModel = new HashMap<>();
+		this.httpRequestModel.put("method", "POST");
+		this.httpRequestModel.put("path", "/orders?page=1");
+		this.httpRequestModel.put("headers", headers);
+		this.httpRequestModel.put("requestBody", String.join("", Collections.nCopies(this.rows, "{\"a\":1}")));
+	}
+
+	@Benchmark
+	public String renderRequestFields() throws IOException {
+		return this.templateEngine.compileTemplate("request-fields").render(this.fieldsModel);
+	}
+
+	@Benchmark
+	public String renderHttpRequest() throws IOException {
+		return this.templateEngine.compileTemplate("http-request").render(this.httpRequestModel);
+	}
+
+	@Benchmark
+	public String compileAndRenderRequestFields() throws IOException {
+		return this.uncachedTemplateEngine.compileTemplate("request-fields").render(this.fieldsModel);
+	}
+
+	private MustacheTemplateEngine createTemplateEngine() {
+		Map<String, Object> context = Collections.singletonMap("tableCellContent",
+				new AsciidoctorTableCellContentLambda());
+		return new MustacheTemplateEngine(new IndexedTemplateResourceResolver(TemplateFormats.asciidoctor()),
+				Mustache.compiler().escapeHTML(false), context);
+	}
+
+}
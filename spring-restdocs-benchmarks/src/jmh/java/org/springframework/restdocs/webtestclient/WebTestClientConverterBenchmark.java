@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.webtestclient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.OperationRequest;
+import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.test.web.reactive.server.ExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+/**
+ * Benchmarks for {@link WebTestClientRequestConverter} and
+ * {@link WebTestClientResponseConverter}.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+public class WebTestClientConverterBenchmark {
+
+	private static final String ORDER = "{\"name\":\"Item\",\"price\":1.5,\"tags\":[\"a\",\"b\"]}";
+
+	private final WebTestClientRequestConverter requestConverter = new WebTestClientRequestConverter();
+
+	private final WebTestClientResponseConverter responseConverter = new WebTestClientResponseConverter();
+
+	private ExchangeResult getResult;
+
+	private ExchangeResult postResult;
+
+	@Setup
+	public void setUp() {
+		RouterFunction<ServerResponse> routes = RouterFunctions
+				.route(GET("/orders"), (request) -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+						.bodyValue(ORDER))
+				.andRoute(POST("/orders"), (request) -> request.bodyToMono(String.class).flatMap(
+						(body) -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body)));
+		WebTestClient client = WebTestClient.bindToRouterFunction(routes).configureClient()
+				.baseUrl("http://localhost").build();
+		this.getResult = client.get().uri("/orders?page=1&size=20").header("Accept", MediaType.APPLICATION_JSON_VALUE)
+				.header("X-Request-Id", "1234").exchange().expectBody().returnResult();
+		this.postResult = client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON).bodyValue(ORDER)
+				.exchange().expectBody().returnResult();
+	}
+
+	@Benchmark
+	public OperationRequest convertGetRequest() {
+		return this.requestConverter.convert(this.getResult);
+	}
+
+	@Benchmark
+	public OperationRequest convertPostRequest() {
+		return this.requestConverter.convert(this.postResult);
+	}
+
+	@Benchmark
+	public OperationResponse convertResponse() {
+		return this.responseConverter.convert(this.getResult);
+	}
+
+}
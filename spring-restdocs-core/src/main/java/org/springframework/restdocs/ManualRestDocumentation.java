@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,9 @@
 package org.springframework.restdocs;
 
 import java.io.File;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code ManualRestDocumentation} is used to manually manage the
@@ -25,6 +28,12 @@ import java.io.File;
  * <p>
  * Users of JUnit should use {@link JUnitRestDocumentation} and take advantage of its
  * Rule-based support for automatic management of the context.
+ * <p>
+ * A {@code ManualRestDocumentation} instance is thread-safe and may be shared by tests
+ * that run concurrently. Each thread that calls {@link #beforeTest(Class, String)} has
+ * its own context, which is used by operations that are documented on that thread until
+ * {@link #afterTest()} is called. Operations that are documented on a thread that has
+ * not begun a test use the single context that is active, if there is one.
  *
  * @author Andy Wilkinson
  * @since 1.1.0
@@ -33,7 +42,9 @@ public final class ManualRestDocumentation implements RestDocumentationContextPr
 
 	private final File outputDirectory;
 
-	private StandardRestDocumentationContext context;
+	private final ThreadLocal<StandardRestDocumentationContext> threadContext = new ThreadLocal<>();
+
+	private final Set<StandardRestDocumentationContext> activeContexts = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * Creates a new {@code ManualRestDocumentation} instance that will generate snippets
@@ -57,33 +68,65 @@ public final class ManualRestDocumentation implements RestDocumentationContextPr
 	}
 
 	/**
-	 * Notification that a test is about to begin. Creates a
+	 * Notification that a test is about to begin on the current thread. Creates a
 	 * {@link RestDocumentationContext} for the test on the given {@code testClass} with
 	 * the given {@code testMethodName}. Must be followed by a call to
-	 * {@link #afterTest()} once the test has completed.
+	 * {@link #afterTest()} on the same thread once the test has completed.
 	 * @param testClass the test class
 	 * @param testMethodName the name of the test method
-	 * @throws IllegalStateException if a context has already be created
+	 * @throws IllegalStateException if a context has already be created for the current
+	 * thread
 	 */
 	public void beforeTest(Class<?> testClass, String testMethodName) {
-		if (this.context != null) {
+		if (this.threadContext.get() != null) {
 			throw new IllegalStateException("Context already exists. Did you forget to call afterTest()?");
 		}
-		this.context = new StandardRestDocumentationContext(testClass, testMethodName, this.outputDirectory);
+		StandardRestDocumentationContext context = new StandardRestDocumentationContext(testClass, testMethodName,
+				this.outputDirectory);
+		this.threadContext.set(context);
+		this.activeContexts.add(context);
 	}
 
 	/**
-	 * Notification that a test has completed. Clears the {@link RestDocumentationContext}
-	 * that was previously established by a call to {@link #beforeTest(Class, String)}.
+	 * Notification that a test has completed on the current thread. Clears the
+	 * {@link RestDocumentationContext} that was previously established on the current
+	 * thread by a call to {@link #beforeTest(Class, String)} and then calls any
+	 * {@link RestDocumentationContext#registerTestCompletionCallback callbacks} that were
+	 * registered with it. Has no effect if the current thread has not begun a test.
 	 */
 	public void afterTest() {
-		this.context = null;
+		StandardRestDocumentationContext context = this.threadContext.get();
+		if (context == null) {
+			return;
+		}
+		this.threadContext.remove();
+		this.activeContexts.remove(context);
+		context.testCompleted();
 	}
 
 	@Override
 	public RestDocumentationContext beforeOperation() {
-		this.context.getAndIncrementStepCount();
-		return this.context;
+		StandardRestDocumentationContext context = this.threadContext.get();
+		if (context == null) {
+			context = getSoleActiveContext();
+		}
+		if (context == null) {
+			throw new IllegalStateException("No context is available for the current thread. "
+					+ "Did you forget to call beforeTest(Class, String)?");
+		}
+		context.getAndIncrementStepCount();
+		return context;
+	}
+
+	private StandardRestDocumentationContext getSoleActiveContext() {
+		Iterator<StandardRestDocumentationContext> contexts = this.activeContexts.iterator();
+		if (contexts.hasNext()) {
+			StandardRestDocumentationContext context = contexts.next();
+			if (!contexts.hasNext()) {
+				return context;
+			}
+		}
+		return null;
 	}
 
 	private static File getDefaultOutputDirectory() {
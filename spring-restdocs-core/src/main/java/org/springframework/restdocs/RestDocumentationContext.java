@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,4 +50,18 @@ public interface RestDocumentationContext {
 	 */
 	File getOutputDirectory();
 
+	/**
+	 * Registers a {@code callback} that will be called once the test that is currently
+	 * executing has completed. An exception thrown by the callback will be propagated to
+	 * the test. The default implementation does not support callbacks and returns
+	 * {@code false}.
+	 * @param callback the callback
+	 * @return {@code true} if the callback was registered, or {@code false} if this
+	 * context does not support completion callbacks or the test has already completed
+	 * @since 3.0.0
+	 */
+	default boolean registerTestCompletionCallback(Runnable callback) {
+		return false;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.restdocs;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -34,6 +36,10 @@ final class StandardRestDocumentationContext implements RestDocumentationContext
 
 	private final File outputDirectory;
 
+	private final List<Runnable> testCompletionCallbacks = new ArrayList<>();
+
+	private boolean testCompleted;
+
 	StandardRestDocumentationContext(Class<?> testClass, String testMethodName, File outputDirectory) {
 		this.testClass = testClass;
 		this.testMethodName = testMethodName;
@@ -64,4 +70,39 @@ final class StandardRestDocumentationContext implements RestDocumentationContext
 		return this.outputDirectory;
 	}
 
+	@Override
+	public synchronized boolean registerTestCompletionCallback(Runnable callback) {
+		if (this.testCompleted) {
+			return false;
+		}
+		this.testCompletionCallbacks.add(callback);
+		return true;
+	}
+
+	void testCompleted() {
+		List<Runnable> callbacks;
+		synchronized (this) {
+			this.testCompleted = true;
+			callbacks = new ArrayList<>(this.testCompletionCallbacks);
+			this.testCompletionCallbacks.clear();
+		}
+		RuntimeException failure = null;
+		for (Runnable callback : callbacks) {
+			try {
+				callback.run();
+			}
+			catch (RuntimeException ex) {
+				if (failure == null) {
+					failure = ex;
+				}
+				else {
+					failure.addSuppressed(ex);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.restdocs.cli;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -79,6 +80,16 @@ final class CliOperationRequest implements OperationRequest {
 		return this.delegate.getContent();
 	}
 
+	@Override
+	public int getContentLength() {
+		return this.delegate.getContentLength();
+	}
+
+	@Override
+	public ByteBuffer getContentAsByteBuffer() {
+		return this.delegate.getContentAsByteBuffer();
+	}
+
 	@Override
 	public String getContentAsString() {
 		return this.delegate.getContentAsString();
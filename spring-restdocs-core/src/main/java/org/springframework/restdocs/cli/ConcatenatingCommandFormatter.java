@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.restdocs.cli;
 
 import java.util.List;
 
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -25,7 +27,7 @@ import org.springframework.util.CollectionUtils;
  *
  * @author Tomasz Kopczynski
  */
-final class ConcatenatingCommandFormatter implements CommandFormatter {
+final class ConcatenatingCommandFormatter implements CommandFormatter, Fingerprintable {
 
 	private String separator;
 
@@ -51,4 +53,9 @@ final class ConcatenatingCommandFormatter implements CommandFormatter {
 		return result.toString();
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		fingerprint.add(this.separator);
+	}
+
 }
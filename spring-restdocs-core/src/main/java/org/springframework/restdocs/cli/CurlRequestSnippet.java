@@ -29,6 +29,7 @@ import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationRequestPart;
 import org.springframework.restdocs.operation.Parameters;
 import org.springframework.restdocs.operation.RequestCookie;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 import org.springframework.util.Assert;
@@ -93,7 +94,7 @@ public class CurlRequestSnippet extends TemplatedSnippet {
 	private boolean includeParametersInUri(OperationRequest request) {
 		HttpMethod method = request.getMethod();
 		return (method != HttpMethod.PUT && method != HttpMethod.POST && method != HttpMethod.PATCH)
-				|| (request.getContent().length > 0 && !MediaType.APPLICATION_FORM_URLENCODED
+				|| (request.getContentLength() > 0 && !MediaType.APPLICATION_FORM_URLENCODED
 						.isCompatibleWith(request.getHeaders().getContentType()));
 	}
 
@@ -196,4 +197,9 @@ public class CurlRequestSnippet extends TemplatedSnippet {
 		}
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.commandFormatter);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,8 @@ import org.springframework.restdocs.RestDocumentationContext;
  */
 public abstract class AbstractConfigurer {
 
+	private volatile int modificationCount;
+
 	/**
 	 * Applies the configurer to the given {@code configuration}.
 	 * @param configuration the configuration to be configured
@@ -36,4 +38,18 @@ public abstract class AbstractConfigurer {
 	 */
 	public abstract void apply(Map<String, Object> configuration, RestDocumentationContext context);
 
+	/**
+	 * Records that this configurer has been modified, invalidating any configuration that
+	 * was previously computed from it. Should be called by every method that changes the
+	 * configuration that the configurer {@link #apply applies}.
+	 * @since 3.0.0
+	 */
+	protected final void modified() {
+		this.modificationCount++;
+	}
+
+	int getModificationCount() {
+		return this.modificationCount;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -65,6 +65,7 @@ public abstract class OperationPreprocessorsConfigurer<PARENT, TYPE> extends Abs
 	@SuppressWarnings("unchecked")
 	public TYPE withRequestDefaults(OperationPreprocessor... preprocessors) {
 		this.defaultOperationRequestPreprocessor = Preprocessors.preprocessRequest(preprocessors);
+		modified();
 		return (TYPE) this;
 	}
 
@@ -76,6 +77,7 @@ public abstract class OperationPreprocessorsConfigurer<PARENT, TYPE> extends Abs
 	@SuppressWarnings("unchecked")
 	public TYPE withResponseDefaults(OperationPreprocessor... preprocessors) {
 		this.defaultOperationResponsePreprocessor = Preprocessors.preprocessResponse(preprocessors);
+		modified();
 		return (TYPE) this;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,22 @@ package org.springframework.restdocs.config;
 
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.restdocs.RestDocumentationContext;
 import org.springframework.restdocs.mustache.Mustache;
+import org.springframework.restdocs.snippet.AsyncWriterResolver;
+import org.springframework.restdocs.snippet.PlaceholderResolverFactory;
 import org.springframework.restdocs.snippet.RestDocumentationContextPlaceholderResolverFactory;
+import org.springframework.restdocs.snippet.SnippetArchiveWriterResolver;
 import org.springframework.restdocs.snippet.StandardWriterResolver;
+import org.springframework.restdocs.snippet.StandardWriterResolver.WriteMode;
 import org.springframework.restdocs.snippet.WriterResolver;
-import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
+import org.springframework.restdocs.templates.IndexedTemplateResourceResolver;
 import org.springframework.restdocs.templates.TemplateEngine;
 import org.springframework.restdocs.templates.TemplateFormats;
 import org.springframework.restdocs.templates.mustache.AsciidoctorTableCellContentLambda;
@@ -50,6 +56,8 @@ public abstract class RestDocumentationConfigurer<S extends AbstractConfigurer,
 
 	private final TemplateEngineConfigurer templateEngineConfigurer = new TemplateEngineConfigurer();
 
+	private volatile ConfigurationSnapshot snapshot;
+
 	/**
 	 * Returns a {@link SnippetConfigurer} that can be used to configure the snippets that
 	 * will be generated.
@@ -89,20 +97,40 @@ public abstract class RestDocumentationConfigurer<S extends AbstractConfigurer,
 
 	/**
 	 * Applies this configurer to the given {@code configuration} within the given
-	 * {@code context}.
+	 * {@code context}. The configuration that is applied is computed once and then reused
+	 * until this configurer, or one of its nested configurers, is modified.
 	 * @param configuration the configuration
 	 * @param context the current context
 	 */
 	protected final void apply(Map<String, Object> configuration, RestDocumentationContext context) {
+		configuration.putAll(getSnapshot(context).configuration);
+	}
+
+	private ConfigurationSnapshot getSnapshot(RestDocumentationContext context) {
 		List<AbstractConfigurer> configurers = Arrays.asList(snippets(), operationPreprocessors(),
 				this.templateEngineConfigurer, this.writerResolverConfigurer);
+		int modificationCount = 0;
 		for (AbstractConfigurer configurer : configurers) {
-			configurer.apply(configuration, context);
+			modificationCount += configurer.getModificationCount();
 		}
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ConfigurationSnapshot snapshot = this.snapshot;
+		if (snapshot == null || snapshot.modificationCount != modificationCount
+				|| snapshot.classLoader != classLoader) {
+			Map<String, Object> configuration = new HashMap<>();
+			for (AbstractConfigurer configurer : configurers) {
+				configurer.apply(configuration, context);
+			}
+			snapshot = new ConfigurationSnapshot(configuration, modificationCount, classLoader);
+			this.snapshot = snapshot;
+		}
+		return snapshot;
 	}
 
 	private static final class TemplateEngineConfigurer extends AbstractConfigurer {
 
+		private final Map<List<Object>, TemplateEngine> defaultTemplateEngines = new ConcurrentHashMap<>();
+
 		private TemplateEngine templateEngine;
 
 		@Override
@@ -111,20 +139,28 @@ public abstract class RestDocumentationConfigurer<S extends AbstractConfigurer,
 			if (engineToUse == null) {
 				SnippetConfiguration snippetConfiguration = (SnippetConfiguration) configuration
 						.get(SnippetConfiguration.class.getName());
-				Map<String, Object> templateContext = new HashMap<>();
-				if (snippetConfiguration.getTemplateFormat().getId().equals(TemplateFormats.asciidoctor().getId())) {
-					templateContext.put("tableCellContent", new AsciidoctorTableCellContentLambda());
-				}
-				engineToUse = new MustacheTemplateEngine(
-						new StandardTemplateResourceResolver(snippetConfiguration.getTemplateFormat()),
-						Charset.forName(snippetConfiguration.getEncoding()), Mustache.compiler().escapeHTML(false),
-						templateContext);
+				List<Object> key = Arrays.asList(Thread.currentThread().getContextClassLoader(),
+						snippetConfiguration.getTemplateFormat().getId(), snippetConfiguration.getEncoding());
+				engineToUse = this.defaultTemplateEngines.computeIfAbsent(key,
+						(k) -> createDefaultTemplateEngine(snippetConfiguration));
 			}
 			configuration.put(TemplateEngine.class.getName(), engineToUse);
 		}
 
+		private TemplateEngine createDefaultTemplateEngine(SnippetConfiguration snippetConfiguration) {
+			Map<String, Object> templateContext = new HashMap<>();
+			if (snippetConfiguration.getTemplateFormat().getId().equals(TemplateFormats.asciidoctor().getId())) {
+				templateContext.put("tableCellContent", new AsciidoctorTableCellContentLambda());
+			}
+			return new MustacheTemplateEngine(
+					new IndexedTemplateResourceResolver(snippetConfiguration.getTemplateFormat()),
+					Charset.forName(snippetConfiguration.getEncoding()), Mustache.compiler().escapeHTML(false),
+					templateContext);
+		}
+
 		private void setTemplateEngine(TemplateEngine templateEngine) {
 			this.templateEngine = templateEngine;
+			modified();
 		}
 
 	}
@@ -139,14 +175,47 @@ public abstract class RestDocumentationConfigurer<S extends AbstractConfigurer,
 			if (resolverToUse == null) {
 				SnippetConfiguration snippetConfiguration = (SnippetConfiguration) configuration
 						.get(SnippetConfiguration.class.getName());
-				resolverToUse = new StandardWriterResolver(new RestDocumentationContextPlaceholderResolverFactory(),
-						snippetConfiguration.getEncoding(), snippetConfiguration.getTemplateFormat());
+				PlaceholderResolverFactory resolverFactory = new RestDocumentationContextPlaceholderResolverFactory();
+				if (snippetConfiguration.isArchive()) {
+					resolverToUse = new SnippetArchiveWriterResolver(resolverFactory,
+							snippetConfiguration.getEncoding(), snippetConfiguration.getTemplateFormat());
+				}
+				else {
+					WriteMode writeMode = snippetConfiguration.isSkipUnchanged() ? WriteMode.SKIP_UNCHANGED
+							: WriteMode.BUFFERED;
+					resolverToUse = new StandardWriterResolver(resolverFactory, snippetConfiguration.getEncoding(),
+							snippetConfiguration.getTemplateFormat(), writeMode);
+				}
+				if (snippetConfiguration.isAsynchronousWrites()) {
+					resolverToUse = new AsyncWriterResolver(resolverToUse);
+				}
 			}
 			configuration.put(WriterResolver.class.getName(), resolverToUse);
 		}
 
 		private void setWriterResolver(WriterResolver writerResolver) {
 			this.writerResolver = writerResolver;
+			modified();
+		}
+
+	}
+
+	/**
+	 * An immutable snapshot of the configuration applied by the configurers.
+	 */
+	private static final class ConfigurationSnapshot {
+
+		private final Map<String, Object> configuration;
+
+		private final int modificationCount;
+
+		private final ClassLoader classLoader;
+
+		private ConfigurationSnapshot(Map<String, Object> configuration, int modificationCount,
+				ClassLoader classLoader) {
+			this.configuration = Collections.unmodifiableMap(configuration);
+			this.modificationCount = modificationCount;
+			this.classLoader = classLoader;
 		}
 
 	}
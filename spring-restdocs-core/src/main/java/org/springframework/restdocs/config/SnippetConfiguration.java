@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.restdocs.config;
 
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 import org.springframework.restdocs.templates.TemplateFormat;
 
 /**
@@ -24,15 +26,29 @@ import org.springframework.restdocs.templates.TemplateFormat;
  * @author Andy Wilkinson
  * @since 1.1.0
  */
-class SnippetConfiguration {
+class SnippetConfiguration implements Fingerprintable {
 
 	private final String encoding;
 
 	private final TemplateFormat format;
 
+	private final boolean asynchronousWrites;
+
+	private final boolean skipUnchanged;
+
+	private final boolean archive;
+
 	SnippetConfiguration(String encoding, TemplateFormat templateFormat) {
+		this(encoding, templateFormat, false, false, false);
+	}
+
+	SnippetConfiguration(String encoding, TemplateFormat templateFormat, boolean asynchronousWrites,
+			boolean skipUnchanged, boolean archive) {
 		this.encoding = encoding;
 		this.format = templateFormat;
+		this.asynchronousWrites = asynchronousWrites;
+		this.skipUnchanged = skipUnchanged;
+		this.archive = archive;
 	}
 
 	String getEncoding() {
@@ -43,4 +59,21 @@ class SnippetConfiguration {
 		return this.format;
 	}
 
+	boolean isAsynchronousWrites() {
+		return this.asynchronousWrites;
+	}
+
+	boolean isSkipUnchanged() {
+		return this.skipUnchanged;
+	}
+
+	boolean isArchive() {
+		return this.archive;
+	}
+
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		fingerprint.add(this.encoding).add(this.format.getId()).add(this.format.getFileExtension());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,17 +18,27 @@ package org.springframework.restdocs.config;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.restdocs.RestDocumentationContext;
 import org.springframework.restdocs.cli.CliDocumentation;
 import org.springframework.restdocs.generate.RestDocumentationGenerator;
 import org.springframework.restdocs.http.HttpDocumentation;
+import org.springframework.restdocs.instrumentation.MeasurementListener;
+import org.springframework.restdocs.payload.AbstractFieldsSnippet;
+import org.springframework.restdocs.payload.ContentHandlerFactory;
 import org.springframework.restdocs.payload.PayloadDocumentation;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.restdocs.templates.TemplateFormat;
 import org.springframework.restdocs.templates.TemplateFormats;
+import org.springframework.util.Assert;
 
 /**
  * A configurer that can be used to configure the generated documentation snippets.
@@ -58,10 +68,30 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	 */
 	public static final TemplateFormat DEFAULT_TEMPLATE_FORMAT = TemplateFormats.asciidoctor();
 
+	private static final AtomicInteger snippetThreadCount = new AtomicInteger();
+
 	private String snippetEncoding = DEFAULT_SNIPPET_ENCODING;
 
 	private TemplateFormat templateFormat = DEFAULT_TEMPLATE_FORMAT;
 
+	private long payloadStreamingThreshold = AbstractFieldsSnippet.DEFAULT_STREAMING_THRESHOLD;
+
+	private List<ContentHandlerFactory> contentHandlerFactories = Collections.emptyList();
+
+	private boolean asynchronousWrites;
+
+	private boolean skipUnchanged;
+
+	private boolean archive;
+
+	private int parallelSnippetThreads;
+
+	private ExecutorService snippetExecutor;
+
+	private boolean incrementalGeneration;
+
+	private MeasurementListener measurementListener;
+
 	/**
 	 * Creates a new {@code SnippetConfigurer} with the given {@code parent}.
 	 * @param parent the parent
@@ -73,8 +103,19 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	@Override
 	public void apply(Map<String, Object> configuration, RestDocumentationContext context) {
 		configuration.put(SnippetConfiguration.class.getName(),
-				new SnippetConfiguration(this.snippetEncoding, this.templateFormat));
+				new SnippetConfiguration(this.snippetEncoding, this.templateFormat, this.asynchronousWrites,
+						this.skipUnchanged, this.archive));
 		configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_DEFAULT_SNIPPETS, this.defaultSnippets);
+		configuration.put(AbstractFieldsSnippet.ATTRIBUTE_NAME_STREAMING_THRESHOLD, this.payloadStreamingThreshold);
+		configuration.put(AbstractFieldsSnippet.ATTRIBUTE_NAME_CONTENT_HANDLER_FACTORIES,
+				this.contentHandlerFactories);
+		if (this.parallelSnippetThreads > 0) {
+			configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS, getSnippetExecutor());
+		}
+		configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_INCREMENTAL_GENERATION, this.incrementalGeneration);
+		if (this.measurementListener != null) {
+			configuration.put(MeasurementListener.class.getName(), this.measurementListener);
+		}
 	}
 
 	/**
@@ -86,6 +127,7 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	@SuppressWarnings("unchecked")
 	public TYPE withEncoding(String encoding) {
 		this.snippetEncoding = encoding;
+		modified();
 		return (TYPE) this;
 	}
 
@@ -98,6 +140,7 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	@SuppressWarnings("unchecked")
 	public TYPE withDefaults(Snippet... defaultSnippets) {
 		this.defaultSnippets = new ArrayList<>(Arrays.asList(defaultSnippets));
+		modified();
 		return (TYPE) this;
 	}
 
@@ -110,6 +153,7 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	@SuppressWarnings("unchecked")
 	public TYPE withAdditionalDefaults(Snippet... additionalDefaultSnippets) {
 		this.defaultSnippets.addAll(Arrays.asList(additionalDefaultSnippets));
+		modified();
 		return (TYPE) this;
 	}
 
@@ -121,7 +165,190 @@ public abstract class SnippetConfigurer<PARENT, TYPE> extends AbstractNestedConf
 	@SuppressWarnings("unchecked")
 	public TYPE withTemplateFormat(TemplateFormat format) {
 		this.templateFormat = format;
+		modified();
 		return (TYPE) this;
 	}
 
+	/**
+	 * Configures the size, in bytes, above which JSON payloads are processed as a stream
+	 * of tokens rather than being read into memory when documenting their fields. The
+	 * default is 16MB.
+	 * @param threshold the payload streaming threshold
+	 * @return {@code this}
+	 * @since 3.0.0
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withPayloadStreamingThreshold(long threshold) {
+		this.payloadStreamingThreshold = threshold;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures the factories of the handlers that are used to process payloads when
+	 * documenting their fields. The first factory that supports a payload's content type
+	 * is used. Payloads that no factory supports are handled as JSON or XML. By default,
+	 * no factories are configured.
+	 * @param factories the content handler factories
+	 * @return {@code this}
+	 * @since 3.0.0
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withContentHandlerFactories(ContentHandlerFactory... factories) {
+		this.contentHandlerFactories = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(factories)));
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures whether documentation snippets are written asynchronously by background
+	 * threads rather than by the thread that is documenting an operation. Pending writes
+	 * are completed when the test has completed and any failure is reported to the test.
+	 * The default is {@code false}. Has no effect when a custom
+	 * {@link org.springframework.restdocs.snippet.WriterResolver} is configured.
+	 * @param asynchronousWrites whether to write snippets asynchronously
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see org.springframework.restdocs.snippet.AsyncWriterResolver
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withAsynchronousWrites(boolean asynchronousWrites) {
+		this.asynchronousWrites = asynchronousWrites;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures whether documentation snippets whose content has not changed are left
+	 * untouched rather than being rewritten. When enabled, the paths of the snippets that
+	 * have changed are recorded in the output directory. The default is {@code false}.
+	 * Has no effect when a custom
+	 * {@link org.springframework.restdocs.snippet.WriterResolver} is configured.
+	 * @param skipUnchanged whether to skip writing unchanged snippets
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see org.springframework.restdocs.snippet.StandardWriterResolver.WriteMode#SKIP_UNCHANGED
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withSkipUnchangedSnippets(boolean skipUnchanged) {
+		this.skipUnchanged = skipUnchanged;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures whether documentation snippets are appended to an archive for each test
+	 * class rather than each being written to a file of its own. The Asciidoctor
+	 * extension reads snippets from the archives in the snippets directory. The default
+	 * is {@code false}. Has no effect when a custom
+	 * {@link org.springframework.restdocs.snippet.WriterResolver} is configured.
+	 * @param archive whether to archive snippets
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see org.springframework.restdocs.snippet.SnippetArchiveWriterResolver
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withSnippetArchives(boolean archive) {
+		this.archive = archive;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures whether the snippets of an operation are documented in parallel rather
+	 * than one after another. All of the snippets have been documented by the time that
+	 * the operation's documentation is complete and, if several snippets fail, all of
+	 * the failures are reported. When enabled, snippets are documented using as many
+	 * threads as there are available processors. The default is {@code false}.
+	 * @param parallelSnippets whether to document snippets in parallel
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see #withParallelSnippets(int)
+	 * @see RestDocumentationGenerator#ATTRIBUTE_NAME_PARALLEL_SNIPPETS
+	 */
+	public TYPE withParallelSnippets(boolean parallelSnippets) {
+		return withParallelSnippets(parallelSnippets ? Runtime.getRuntime().availableProcessors() : 0);
+	}
+
+	/**
+	 * Configures the snippets of an operation to be documented in parallel using at
+	 * most the given number of {@code threads}, in addition to the thread that is
+	 * handling the operation. The threads are dedicated to documenting snippets and are
+	 * stopped when they have been idle for a while. A value of zero disables parallel
+	 * documentation.
+	 * @param threads the maximum number of threads to use
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see #withParallelSnippets(boolean)
+	 * @see RestDocumentationGenerator#ATTRIBUTE_NAME_PARALLEL_SNIPPETS
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withParallelSnippets(int threads) {
+		Assert.isTrue(threads >= 0, "Threads must not be negative");
+		if (threads != this.parallelSnippetThreads && this.snippetExecutor != null) {
+			this.snippetExecutor.shutdown();
+			this.snippetExecutor = null;
+		}
+		this.parallelSnippetThreads = threads;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures whether the snippets of an operation are only documented when the
+	 * inputs to their documentation have changed. The inputs are the operation's
+	 * preprocessed request and response, the snippets' descriptors and other
+	 * configuration, their templates, and the implementation of REST Docs and of the
+	 * snippets. A fingerprint of the inputs is recorded for each operation beneath the
+	 * output directory once its snippets have been written. Operations with snippets
+	 * whose configuration cannot be fingerprinted, or whose previously written snippets
+	 * are no longer available, are always documented. The default is {@code false}.
+	 * @param incrementalGeneration whether to only document operations whose inputs have
+	 * changed
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see RestDocumentationGenerator#ATTRIBUTE_NAME_INCREMENTAL_GENERATION
+	 * @see RestDocumentationGenerator#FINGERPRINTS_DIRECTORY_NAME
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withIncrementalGeneration(boolean incrementalGeneration) {
+		this.incrementalGeneration = incrementalGeneration;
+		modified();
+		return (TYPE) this;
+	}
+
+	/**
+	 * Configures the listener that is notified of measurements of each phase of
+	 * documenting an operation, such as converting its request, preprocessing its
+	 * response, or rendering and writing its snippets. The listener may be notified by
+	 * several threads at once. By default, no listener is configured and operations are
+	 * not measured.
+	 * @param listener the measurement listener
+	 * @return {@code this}
+	 * @since 3.0.0
+	 * @see org.springframework.restdocs.instrumentation.AggregatingMeasurementListener
+	 * @see org.springframework.restdocs.instrumentation.FlightRecorderEvents
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE withMeasurementListener(MeasurementListener listener) {
+		this.measurementListener = listener;
+		modified();
+		return (TYPE) this;
+	}
+
+	private synchronized ExecutorService getSnippetExecutor() {
+		if (this.snippetExecutor == null) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(this.parallelSnippetThreads,
+					this.parallelSnippetThreads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+						Thread thread = new Thread(runnable,
+								"restdocs-snippet-documenter-" + snippetThreadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			this.snippetExecutor = executor;
+		}
+		return this.snippetExecutor;
+	}
+
 }
@@ -27,6 +27,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 import org.springframework.util.Assert;
 
@@ -155,4 +156,9 @@ public abstract class AbstractCookiesSnippet extends TemplatedSnippet {
 		return model;
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.descriptorsByName).add(this.ignoreUndocumentedCookies);
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.restdocs.cookies;
 
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.IgnorableDescriptor;
 
 /**
@@ -66,4 +67,10 @@ public class CookieDescriptor extends IgnorableDescriptor<CookieDescriptor> {
 		return this.optional;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		super.contributeTo(fingerprint);
+		fingerprint.add(this.name).add(this.optional);
+	}
+
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.generate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.restdocs.RestDocumentationContext;
+
+/**
+ * An index of the fingerprints of the operations that have been documented, held in the
+ * {@value RestDocumentationGenerator#FINGERPRINTS_DIRECTORY_NAME} directory beneath the
+ * output directory. Each documented operation has its own entry, identified by its test
+ * class, test method, step, and name, which is stored in a file of its own so that
+ * entries can be updated concurrently by separate threads and JVMs.
+ *
+ * @author Andy Wilkinson
+ */
+final class FingerprintIndex {
+
+	private FingerprintIndex() {
+
+	}
+
+	/**
+	 * Returns the entry for the operation with the given {@code operationName} that is
+	 * being documented in the given {@code context}.
+	 * @param context the documentation context
+	 * @param operationName the name of the operation
+	 * @return the entry or {@code null} if the context has no output directory
+	 */
+	static Entry entryFor(RestDocumentationContext context, String operationName) {
+		File outputDirectory = (context != null) ? context.getOutputDirectory() : null;
+		if (outputDirectory == null) {
+			return null;
+		}
+		Class<?> testClass = context.getTestClass();
+		String key = ((testClass != null) ? testClass.getName() : "") + "#" + context.getTestMethodName() + "#"
+				+ context.getStepCount() + "#" + operationName;
+		return new Entry(outputDirectory.toPath().resolve(RestDocumentationGenerator.FINGERPRINTS_DIRECTORY_NAME)
+				.resolve(sha256(key)));
+	}
+
+	private static String sha256(String input) {
+		try {
+			return HexFormat.of().formatHex(
+					MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * An operation's entry in the index.
+	 */
+	static final class Entry {
+
+		private final Path file;
+
+		private Entry(Path file) {
+			this.file = file;
+		}
+
+		/**
+		 * Returns whether the entry's recorded fingerprint matches the given
+		 * {@code fingerprint}.
+		 * @param fingerprint the fingerprint
+		 * @return {@code true} if it matches, otherwise {@code false}
+		 */
+		boolean matches(String fingerprint) {
+			try {
+				return fingerprint.equals(Files.readString(this.file, StandardCharsets.UTF_8));
+			}
+			catch (IOException ex) {
+				return false;
+			}
+		}
+
+		/**
+		 * Removes the entry's recorded fingerprint, if any.
+		 * @throws IOException if the fingerprint cannot be removed
+		 */
+		void remove() throws IOException {
+			Files.deleteIfExists(this.file);
+		}
+
+		/**
+		 * Records the given {@code fingerprint}, replacing any that was previously
+		 * recorded.
+		 * @param fingerprint the fingerprint
+		 * @throws IOException if the fingerprint cannot be recorded
+		 */
+		void record(String fingerprint) throws IOException {
+			Path directory = this.file.getParent();
+			Files.createDirectories(directory);
+			Path temp = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+			try {
+				Files.writeString(temp, fingerprint, StandardCharsets.UTF_8);
+				Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				try {
+					Files.deleteIfExists(temp);
+				}
+				catch (NoSuchFileException ex) {
+					// Moved into place
+				}
+			}
+		}
+
+	}
+
+}
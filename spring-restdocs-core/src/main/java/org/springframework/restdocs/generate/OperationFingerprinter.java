@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.generate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.operation.OperationRequest;
+import org.springframework.restdocs.operation.OperationRequestPart;
+import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.operation.RequestCookie;
+import org.springframework.restdocs.operation.ResponseCookie;
+import org.springframework.restdocs.payload.AbstractFieldsSnippet;
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
+import org.springframework.restdocs.snippet.Snippet;
+import org.springframework.restdocs.snippet.TemplatedSnippet;
+
+/**
+ * Computes the {@link Fingerprint} of the inputs to the documentation of an operation:
+ * its preprocessed request and response, its attributes, the configuration and
+ * templates of its snippets, and the implementation of REST Docs and of its snippets.
+ *
+ * @author Andy Wilkinson
+ */
+final class OperationFingerprinter {
+
+	private static final String restDocsImplementation = describeRestDocsImplementation();
+
+	private static final ClassValue<String> snippetImplementations = new ClassValue<String>() {
+
+		@Override
+		protected String computeValue(Class<?> type) {
+			return fingerprintImplementation(type);
+		}
+
+	};
+
+	private OperationFingerprinter() {
+
+	}
+
+	/**
+	 * Returns the fingerprint of the inputs to the documentation of the given
+	 * {@code operation} by the given {@code snippets}.
+	 * @param operation the operation
+	 * @param snippets the snippets
+	 * @return the fingerprint or {@code null} if the inputs cannot be fingerprinted
+	 * @throws IOException if a snippet's template cannot be read
+	 */
+	static String fingerprint(Operation operation, List<Snippet> snippets) throws IOException {
+		Fingerprint fingerprint = new Fingerprint();
+		fingerprint.add(restDocsImplementation);
+		fingerprint.add(operation.getName());
+		addRequest(fingerprint, operation.getRequest());
+		addResponse(fingerprint, operation.getResponse());
+		addAttributes(fingerprint, operation.getAttributes());
+		for (Snippet snippet : snippets) {
+			String implementation = snippetImplementations.get(snippet.getClass());
+			if (implementation == null) {
+				return null;
+			}
+			fingerprint.add(implementation);
+			if (snippet instanceof TemplatedSnippet) {
+				((TemplatedSnippet) snippet).contributeTo(fingerprint, operation);
+			}
+			else if (snippet instanceof Fingerprintable) {
+				((Fingerprintable) snippet).contributeTo(fingerprint);
+			}
+			else {
+				return null;
+			}
+			if (!fingerprint.isStable()) {
+				return null;
+			}
+		}
+		return fingerprint.isStable() ? fingerprint.toHexString() : null;
+	}
+
+	private static void addRequest(Fingerprint fingerprint, OperationRequest request) {
+		fingerprint.add(request.getMethod()).add(request.getUri()).add(request.getHeaders())
+				.add(request.getParameters()).add(request.getContent());
+		Collection<OperationRequestPart> parts = request.getParts();
+		fingerprint.add(parts.size());
+		for (OperationRequestPart part : parts) {
+			fingerprint.add(part.getName()).add(part.getSubmittedFileName()).add(part.getHeaders())
+					.add(part.getContent());
+		}
+		Collection<RequestCookie> cookies = request.getCookies();
+		fingerprint.add(cookies.size());
+		for (RequestCookie cookie : cookies) {
+			fingerprint.add(cookie.getName()).add(cookie.getValue());
+		}
+	}
+
+	private static void addResponse(Fingerprint fingerprint, OperationResponse response) {
+		fingerprint.add(response.getStatusCode()).add(response.getHeaders()).add(response.getContent());
+		Collection<ResponseCookie> cookies = response.getCookies();
+		fingerprint.add(cookies.size());
+		for (ResponseCookie cookie : cookies) {
+			fingerprint.add(cookie.getName()).add(cookie.getValue());
+		}
+	}
+
+	private static void addAttributes(Fingerprint fingerprint, Map<String, Object> attributes) {
+		Object contentHandlerFactories = attributes.get(AbstractFieldsSnippet.ATTRIBUTE_NAME_CONTENT_HANDLER_FACTORIES);
+		if (contentHandlerFactories instanceof Collection && !((Collection<?>) contentHandlerFactories).isEmpty()) {
+			fingerprint.markUnstable();
+		}
+		for (Map.Entry<String, Object> attribute : new TreeMap<>(attributes).entrySet()) {
+			if (Fingerprint.isSupported(attribute.getValue())) {
+				fingerprint.add(attribute.getKey()).add(attribute.getValue());
+			}
+		}
+	}
+
+	private static String describeRestDocsImplementation() {
+		Package restDocs = OperationFingerprinter.class.getPackage();
+		String version = (restDocs != null) ? restDocs.getImplementationVersion() : null;
+		StringBuilder description = new StringBuilder((version != null) ? version : "unknown");
+		try {
+			CodeSource codeSource = OperationFingerprinter.class.getProtectionDomain().getCodeSource();
+			File location = (codeSource != null) ? new File(codeSource.getLocation().toURI()) : null;
+			if (location != null && location.isFile()) {
+				// Distinguishes between snapshots that share a version
+				description.append(':').append(location.length()).append(':').append(location.lastModified());
+			}
+		}
+		catch (Exception ex) {
+			// Continue with the version alone
+		}
+		return description.toString();
+	}
+
+	/**
+	 * Returns a fingerprint of the bytecode of the given {@code type} and of its
+	 * superclasses.
+	 * @param type the type
+	 * @return the fingerprint or {@code null} if the bytecode of the type or one of its
+	 * superclasses cannot be read
+	 */
+	private static String fingerprintImplementation(Class<?> type) {
+		Fingerprint fingerprint = new Fingerprint();
+		Class<?> candidate = type;
+		while (candidate != null && candidate != Object.class) {
+			byte[] bytecode = readBytecode(candidate);
+			if (bytecode == null) {
+				return null;
+			}
+			fingerprint.add(candidate.getName()).add(bytecode);
+			candidate = candidate.getSuperclass();
+		}
+		return fingerprint.toHexString();
+	}
+
+	private static byte[] readBytecode(Class<?> type) {
+		String resource = type.getName().replace('.', '/') + ".class";
+		ClassLoader classLoader = type.getClassLoader();
+		try (InputStream bytecode = (classLoader != null) ? classLoader.getResourceAsStream(resource)
+				: ClassLoader.getSystemResourceAsStream(resource)) {
+			return (bytecode != null) ? bytecode.readAllBytes() : null;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+}
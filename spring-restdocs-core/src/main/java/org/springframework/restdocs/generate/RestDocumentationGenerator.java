@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,22 +17,34 @@
 package org.springframework.restdocs.generate;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.instrumentation.DocumentationPhase;
+import org.springframework.restdocs.instrumentation.FlightRecorderEvents;
+import org.springframework.restdocs.instrumentation.Instrumentation;
+import org.springframework.restdocs.instrumentation.OperationEvent;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.operation.ParsedContentCache;
 import org.springframework.restdocs.operation.RequestConverter;
 import org.springframework.restdocs.operation.ResponseConverter;
 import org.springframework.restdocs.operation.StandardOperation;
 import org.springframework.restdocs.operation.preprocess.OperationRequestPreprocessor;
 import org.springframework.restdocs.operation.preprocess.OperationResponsePreprocessor;
 import org.springframework.restdocs.snippet.Snippet;
+import org.springframework.restdocs.snippet.WriterResolver;
 import org.springframework.util.Assert;
 
 /**
@@ -69,6 +81,32 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 	 */
 	public static final String ATTRIBUTE_NAME_DEFAULT_OPERATION_RESPONSE_PREPROCESSOR = "org.springframework.restdocs.defaultOperationResponsePreprocessor";
 
+	/**
+	 * Name of the operation attribute used to hold the {@link Executor} that is used to
+	 * document an operation's snippets in parallel. When the attribute is absent, the
+	 * snippets are documented one after another.
+	 * @since 3.0.0
+	 */
+	public static final String ATTRIBUTE_NAME_PARALLEL_SNIPPETS = "org.springframework.restdocs.parallelSnippets";
+
+	/**
+	 * Name of the operation attribute used to hold a {@link Boolean} indicating whether
+	 * an operation's snippets should only be documented when the inputs to its
+	 * documentation have changed since it was last documented.
+	 * @since 3.0.0
+	 * @see #FINGERPRINTS_DIRECTORY_NAME
+	 */
+	public static final String ATTRIBUTE_NAME_INCREMENTAL_GENERATION = "org.springframework.restdocs.incrementalGeneration";
+
+	/**
+	 * Name of the directory, beneath the output directory, in which the fingerprints of
+	 * the inputs to the documentation of each operation are recorded when
+	 * {@link #ATTRIBUTE_NAME_INCREMENTAL_GENERATION incremental generation} is enabled.
+	 * Deleting the directory causes every operation to be documented again.
+	 * @since 3.0.0
+	 */
+	public static final String FINGERPRINTS_DIRECTORY_NAME = "operation-fingerprints";
+
 	private final String identifier;
 
 	private final OperationRequestPreprocessor requestPreprocessor;
@@ -175,7 +213,24 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 
 	/**
 	 * Handles the given {@code request} and {@code response}, producing documentation
-	 * snippets for them using the given {@code configuration}.
+	 * snippets for them using the given {@code configuration}. When the configuration
+	 * {@link #ATTRIBUTE_NAME_PARALLEL_SNIPPETS enables parallel documentation}, the
+	 * snippets are documented concurrently using the configured {@link Executor} and all
+	 * of them are documented before this method returns. Every snippet is documented even
+	 * if some fail, with the first failure being thrown and any others being added to it
+	 * as {@link Throwable#getSuppressed() suppressed} exceptions. When the configuration
+	 * contains a {@link org.springframework.restdocs.instrumentation.MeasurementListener},
+	 * it is notified of measurements of each {@link DocumentationPhase phase} of the
+	 * handling. When the configuration
+	 * {@link #ATTRIBUTE_NAME_INCREMENTAL_GENERATION enables incremental generation},
+	 * none of the snippets are documented if the preprocessed request and response, the
+	 * snippets' configuration, their templates, and the implementation of REST Docs and
+	 * of the snippets are unchanged since the operation was last documented
+	 * successfully and its snippets are
+	 * {@link WriterResolver#hasSnippets still available}. An operation has only been
+	 * documented successfully once all of its snippets have been
+	 * {@link WriterResolver#whenWritten written}. A skipped operation is still measured
+	 * and recorded as having been skipped.
 	 * @param request the request
 	 * @param response the request
 	 * @param configuration the configuration
@@ -183,12 +238,53 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 	 */
 	public void handle(REQ request, RESP response, Map<String, Object> configuration) {
 		Map<String, Object> attributes = new HashMap<>(configuration);
-		OperationRequest operationRequest = preprocessRequest(this.requestConverter.convert(request), attributes);
-		OperationResponse operationResponse = preprocessResponse(this.responseConverter.convert(response), attributes);
-		Operation operation = new StandardOperation(this.identifier, operationRequest, operationResponse, attributes);
-		try {
-			for (Snippet snippet : getSnippets(attributes)) {
-				snippet.document(operation);
+		Instrumentation instrumentation = Instrumentation.of(this.identifier, attributes);
+		OperationEvent event = FlightRecorderEvents.isEnabled() ? new OperationEvent(this.identifier) : null;
+		long start = instrumentation.start();
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open();
+				Instrumentation.Scope instrumented = instrumentation.open()) {
+			OperationRequest operationRequest = preprocessRequest(convertRequest(request, instrumentation), attributes,
+					instrumentation);
+			OperationResponse operationResponse = preprocessResponse(convertResponse(response, instrumentation),
+					attributes, instrumentation);
+			Operation operation = new StandardOperation(this.identifier, operationRequest, operationResponse,
+					attributes);
+			List<Snippet> snippets = getSnippets(attributes);
+			RestDocumentationContext context = (RestDocumentationContext) attributes
+					.get(RestDocumentationContext.class.getName());
+			WriterResolver writerResolver = (WriterResolver) attributes.get(WriterResolver.class.getName());
+			FingerprintIndex.Entry indexEntry = null;
+			String fingerprint = null;
+			if (Boolean.TRUE.equals(attributes.get(ATTRIBUTE_NAME_INCREMENTAL_GENERATION))) {
+				indexEntry = FingerprintIndex.entryFor(context, this.identifier);
+				fingerprint = (indexEntry != null) ? OperationFingerprinter.fingerprint(operation, snippets) : null;
+				if (fingerprint != null && indexEntry.matches(fingerprint) && writerResolver != null
+						&& writerResolver.hasSnippets(this.identifier, context)) {
+					instrumentation.record(DocumentationPhase.OPERATION, "skipped", start, -1);
+					if (event != null) {
+						event.complete(operationRequest.getContentLength(), operationResponse.getContentLength(), true);
+					}
+					return;
+				}
+				if (indexEntry != null) {
+					indexEntry.remove();
+				}
+			}
+			Executor snippetExecutor = (Executor) attributes.get(ATTRIBUTE_NAME_PARALLEL_SNIPPETS);
+			if (snippets.size() > 1 && snippetExecutor != null) {
+				documentInParallel(snippets, operation, scope, snippetExecutor);
+			}
+			else {
+				for (Snippet snippet : snippets) {
+					snippet.document(operation);
+				}
+			}
+			if (fingerprint != null) {
+				recordWhenWritten(indexEntry, fingerprint, context, writerResolver);
+			}
+			instrumentation.record(DocumentationPhase.OPERATION, null, start, -1);
+			if (event != null) {
+				event.complete(operationRequest.getContentLength(), operationResponse.getContentLength());
 			}
 		}
 		catch (IOException ex) {
@@ -208,6 +304,95 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 				this.requestPreprocessor, this.responsePreprocessor, snippets);
 	}
 
+	private void recordWhenWritten(FingerprintIndex.Entry indexEntry, String fingerprint,
+			RestDocumentationContext context, WriterResolver writerResolver) throws IOException {
+		CompletableFuture<Void> written = (writerResolver != null)
+				? writerResolver.whenWritten(this.identifier, context) : CompletableFuture.completedFuture(null);
+		CompletableFuture<Boolean> succeeded = written.handle((result, failure) -> failure == null);
+		if (succeeded.isDone()) {
+			if (succeeded.join()) {
+				indexEntry.record(fingerprint);
+			}
+			return;
+		}
+		context.registerTestCompletionCallback(() -> {
+			if (succeeded.join()) {
+				try {
+					indexEntry.record(fingerprint);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+		});
+	}
+
+	private void documentInParallel(List<Snippet> snippets, Operation operation, ParsedContentCache.Scope scope,
+			Executor executor) throws IOException {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		List<Future<Throwable>> documented = new ArrayList<>(snippets.size() - 1);
+		for (Snippet snippet : snippets.subList(1, snippets.size())) {
+			documented.add(CompletableFuture.supplyAsync(() -> {
+				Thread thread = Thread.currentThread();
+				ClassLoader previousClassLoader = thread.getContextClassLoader();
+				thread.setContextClassLoader(classLoader);
+				try (ParsedContentCache.Scope sharedScope = scope.share()) {
+					snippet.document(operation);
+					return null;
+				}
+				catch (Throwable ex) {
+					return ex;
+				}
+				finally {
+					thread.setContextClassLoader(previousClassLoader);
+				}
+			}, executor));
+		}
+		List<Throwable> failures = new ArrayList<>();
+		try {
+			snippets.get(0).document(operation);
+		}
+		catch (IOException | RuntimeException | Error ex) {
+			failures.add(ex);
+		}
+		for (Future<Throwable> future : documented) {
+			try {
+				Throwable failure = future.get();
+				if (failure != null) {
+					failures.add(failure);
+				}
+			}
+			catch (ExecutionException ex) {
+				failures.add(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				documented.forEach((pending) -> pending.cancel(true));
+				throw new RestDocumentationGenerationException("Interrupted while documenting snippets", ex);
+			}
+		}
+		if (!failures.isEmpty()) {
+			throwFailure(failures);
+		}
+	}
+
+	private void throwFailure(List<Throwable> failures) throws IOException {
+		Throwable failure = failures.get(0);
+		for (Throwable suppressed : failures.subList(1, failures.size())) {
+			failure.addSuppressed(suppressed);
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		throw new RestDocumentationGenerationException(failure);
+	}
+
 	@SuppressWarnings("unchecked")
 	private List<Snippet> getSnippets(Map<String, Object> configuration) {
 		List<Snippet> combinedSnippets = new ArrayList<>();
@@ -219,8 +404,35 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 		return combinedSnippets;
 	}
 
-	private OperationRequest preprocessRequest(OperationRequest request, Map<String, Object> configuration) {
-		return preprocess(getRequestPreprocessors(configuration), request, this::preprocess);
+	private OperationRequest convertRequest(REQ request, Instrumentation instrumentation) {
+		long start = instrumentation.start();
+		OperationRequest operationRequest = this.requestConverter.convert(request);
+		if (instrumentation.isEnabled()) {
+			instrumentation.record(DocumentationPhase.REQUEST_CONVERSION,
+					this.requestConverter.getClass().getSimpleName(), start, operationRequest.getContentLength());
+		}
+		return operationRequest;
+	}
+
+	private OperationResponse convertResponse(RESP response, Instrumentation instrumentation) {
+		long start = instrumentation.start();
+		OperationResponse operationResponse = this.responseConverter.convert(response);
+		if (instrumentation.isEnabled()) {
+			instrumentation.record(DocumentationPhase.RESPONSE_CONVERSION,
+					this.responseConverter.getClass().getSimpleName(), start, operationResponse.getContentLength());
+		}
+		return operationResponse;
+	}
+
+	private OperationRequest preprocessRequest(OperationRequest request, Map<String, Object> configuration,
+			Instrumentation instrumentation) {
+		long start = instrumentation.start();
+		OperationRequest preprocessed = preprocess(getRequestPreprocessors(configuration), request, this::preprocess);
+		if (instrumentation.isEnabled()) {
+			instrumentation.record(DocumentationPhase.REQUEST_PREPROCESSING, null, start,
+					preprocessed.getContentLength());
+		}
+		return preprocessed;
 	}
 
 	private OperationRequest preprocess(OperationRequestPreprocessor preprocessor, OperationRequest request) {
@@ -232,8 +444,16 @@ public final class RestDocumentationGenerator<REQ, RESP> {
 				RestDocumentationGenerator.ATTRIBUTE_NAME_DEFAULT_OPERATION_REQUEST_PREPROCESSOR, configuration);
 	}
 
-	private OperationResponse preprocessResponse(OperationResponse response, Map<String, Object> configuration) {
-		return preprocess(getResponsePreprocessors(configuration), response, this::preprocess);
+	private OperationResponse preprocessResponse(OperationResponse response, Map<String, Object> configuration,
+			Instrumentation instrumentation) {
+		long start = instrumentation.start();
+		OperationResponse preprocessed = preprocess(getResponsePreprocessors(configuration), response,
+				this::preprocess);
+		if (instrumentation.isEnabled()) {
+			instrumentation.record(DocumentationPhase.RESPONSE_PREPROCESSING, null, start,
+					preprocessed.getContentLength());
+		}
+		return preprocessed;
 	}
 
 	private OperationResponse preprocess(OperationResponsePreprocessor preprocessor, OperationResponse response) {
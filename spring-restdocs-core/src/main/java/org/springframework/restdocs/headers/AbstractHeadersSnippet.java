@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.SnippetException;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 import org.springframework.util.Assert;
@@ -133,4 +134,9 @@ public abstract class AbstractHeadersSnippet extends TemplatedSnippet {
 		return model;
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.headerDescriptors).add(this.type);
+	}
+
 }
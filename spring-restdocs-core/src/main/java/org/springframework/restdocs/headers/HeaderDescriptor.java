@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.restdocs.headers;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.restdocs.snippet.AbstractDescriptor;
+import org.springframework.restdocs.snippet.Fingerprint;
 
 /**
  * A description of a header found in a request or response.
@@ -66,4 +67,10 @@ public class HeaderDescriptor extends AbstractDescriptor<HeaderDescriptor> {
 		return this.optional;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		super.contributeTo(fingerprint);
+		fingerprint.add(this.name).add(this.optional);
+	}
+
 }
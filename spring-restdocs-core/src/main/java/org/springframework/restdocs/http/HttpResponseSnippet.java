@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import org.springframework.http.HttpStatus;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 
@@ -94,4 +95,9 @@ public class HttpResponseSnippet extends TemplatedSnippet {
 		return header;
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,23 +23,36 @@ import java.util.Map;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.operation.ParsedContentCache;
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 
 /**
  * Abstract base class for a {@link LinkExtractor} that extracts links from JSON.
  *
  * @author Andy Wilkinson
  */
-abstract class AbstractJsonLinkExtractor implements LinkExtractor {
+abstract class AbstractJsonLinkExtractor implements LinkExtractor, Fingerprintable {
 
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public Map<String, List<Link>> extractLinks(OperationResponse response) throws IOException {
-		Map<String, Object> jsonContent = this.objectMapper.readValue(response.getContent(), Map.class);
-		return extractLinks(jsonContent);
+		byte[] content = response.getContent();
+		Object jsonContent = ParsedContentCache.get(content, response.getHeaders().getContentType(), Object.class,
+				(json) -> this.objectMapper.readValue(json, Object.class));
+		if (jsonContent instanceof Map) {
+			return extractLinks((Map<String, Object>) jsonContent);
+		}
+		return extractLinks(this.objectMapper.readValue(content, Map.class));
 	}
 
 	protected abstract Map<String, List<Link>> extractLinks(Map<String, Object> json);
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import java.util.Map.Entry;
 
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 
 /**
  * {@link LinkExtractor} that delegates to other link extractors based on the response's
@@ -31,7 +33,7 @@ import org.springframework.restdocs.operation.OperationResponse;
  *
  * @author Andy Wilkinson
  */
-class ContentTypeLinkExtractor implements LinkExtractor {
+class ContentTypeLinkExtractor implements LinkExtractor, Fingerprintable {
 
 	private Map<MediaType, LinkExtractor> linkExtractors = new HashMap<>();
 
@@ -66,4 +68,9 @@ class ContentTypeLinkExtractor implements LinkExtractor {
 		return null;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		fingerprint.add(this.linkExtractors);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.util.Set;
 
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.ModelCreationException;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.restdocs.snippet.SnippetException;
@@ -252,4 +253,9 @@ public class LinksSnippet extends TemplatedSnippet {
 		return new LinksSnippet(this.linkExtractor, combinedDescriptors, getAttributes());
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.descriptorsByRel).add(this.linkExtractor).add(this.ignoreUndocumentedLinks);
+	}
+
 }
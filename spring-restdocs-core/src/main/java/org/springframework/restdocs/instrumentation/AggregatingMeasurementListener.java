@@ -0,0 +1,243 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MeasurementListener} that aggregates measurements by phase and subject, for
+ * example the time spent creating the model of each type of snippet across all of the
+ * documented operations. A summary of the aggregated measurements can be
+ * {@link #printSummary(PrintStream) printed}, either on demand or
+ * {@link #printSummaryOnShutdown() when the JVM shuts down}.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public class AggregatingMeasurementListener implements MeasurementListener {
+
+	private static final String NO_SUBJECT = "";
+
+	private final Map<DocumentationPhase, Map<String, Aggregate>> aggregates = new EnumMap<>(
+			DocumentationPhase.class);
+
+	/**
+	 * Creates a new {@code AggregatingMeasurementListener}.
+	 */
+	public AggregatingMeasurementListener() {
+		for (DocumentationPhase phase : DocumentationPhase.values()) {
+			this.aggregates.put(phase, new ConcurrentHashMap<>());
+		}
+	}
+
+	@Override
+	public void measured(Measurement measurement) {
+		String subject = (measurement.getSubject() != null) ? measurement.getSubject() : NO_SUBJECT;
+		this.aggregates.get(measurement.getPhase()).computeIfAbsent(subject, (key) -> new Aggregate())
+				.add(measurement);
+	}
+
+	/**
+	 * Returns the statistics of the measurements of the given {@code phase} with the given
+	 * {@code subject}.
+	 * @param phase the phase
+	 * @param subject the subject, may be {@code null}
+	 * @return the statistics or {@code null} if there have been no such measurements
+	 */
+	public Statistics getStatistics(DocumentationPhase phase, String subject) {
+		Aggregate aggregate = this.aggregates.get(phase).get((subject != null) ? subject : NO_SUBJECT);
+		return (aggregate != null) ? aggregate.toStatistics(phase, subject) : null;
+	}
+
+	/**
+	 * Returns the statistics of all of the measurements, ordered by phase and then by
+	 * descending total duration.
+	 * @return the statistics
+	 */
+	public List<Statistics> getStatistics() {
+		List<Statistics> statistics = new ArrayList<>();
+		for (Map.Entry<DocumentationPhase, Map<String, Aggregate>> phase : this.aggregates.entrySet()) {
+			List<Statistics> phaseStatistics = new ArrayList<>();
+			phase.getValue().forEach((subject, aggregate) -> phaseStatistics
+					.add(aggregate.toStatistics(phase.getKey(), NO_SUBJECT.equals(subject) ? null : subject)));
+			phaseStatistics.sort(Comparator.comparingLong(Statistics::getTotalNanos).reversed());
+			statistics.addAll(phaseStatistics);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Prints a summary of the aggregated measurements to the given {@code output}.
+	 * @param output the output
+	 */
+	public void printSummary(PrintStream output) {
+		output.print(getSummary());
+		output.flush();
+	}
+
+	/**
+	 * Returns a summary of the aggregated measurements as a table with one row for each
+	 * phase and subject.
+	 * @return the summary
+	 */
+	public String getSummary() {
+		StringWriter summary = new StringWriter();
+		PrintWriter writer = new PrintWriter(summary);
+		String format = "%-24s %-48s %8s %12s %12s %12s %14s%n";
+		writer.printf(format, "Phase", "Subject", "Count", "Total (ms)", "Mean (us)", "Max (us)", "Size");
+		for (Statistics statistics : getStatistics()) {
+			writer.printf(format, statistics.getPhase(),
+					(statistics.getSubject() != null) ? statistics.getSubject() : "-", statistics.getCount(),
+					TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos()),
+					TimeUnit.NANOSECONDS.toMicros(statistics.getTotalNanos() / statistics.getCount()),
+					TimeUnit.NANOSECONDS.toMicros(statistics.getMaxNanos()),
+					(statistics.getTotalSize() >= 0) ? statistics.getTotalSize() : "-");
+		}
+		writer.flush();
+		return summary.toString();
+	}
+
+	/**
+	 * Registers a shutdown hook that prints a summary of the aggregated measurements to
+	 * {@link System#out} when the JVM shuts down, typically at the end of a test run.
+	 * @return {@code this}
+	 */
+	public AggregatingMeasurementListener printSummaryOnShutdown() {
+		Runtime.getRuntime().addShutdownHook(
+				new Thread(() -> printSummary(System.out), "restdocs-measurement-summary-shutdown"));
+		return this;
+	}
+
+	/**
+	 * Statistics of the measurements of a phase with a particular subject.
+	 */
+	public static final class Statistics {
+
+		private final DocumentationPhase phase;
+
+		private final String subject;
+
+		private final long count;
+
+		private final long totalNanos;
+
+		private final long maxNanos;
+
+		private final long totalSize;
+
+		private Statistics(DocumentationPhase phase, String subject, long count, long totalNanos, long maxNanos,
+				long totalSize) {
+			this.phase = phase;
+			this.subject = subject;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.totalSize = totalSize;
+		}
+
+		/**
+		 * Returns the phase that was measured.
+		 * @return the phase
+		 */
+		public DocumentationPhase getPhase() {
+			return this.phase;
+		}
+
+		/**
+		 * Returns the subject of the phase.
+		 * @return the subject or {@code null} if the phase has no subject
+		 */
+		public String getSubject() {
+			return this.subject;
+		}
+
+		/**
+		 * Returns the number of measurements.
+		 * @return the number of measurements
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Returns the total duration of the measurements in nanoseconds.
+		 * @return the total duration
+		 */
+		public long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+		/**
+		 * Returns the longest duration of the measurements in nanoseconds.
+		 * @return the longest duration
+		 */
+		public long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		/**
+		 * Returns the total size of the measurements.
+		 * @return the total size or {@code -1} if the phase has no size
+		 * @see Measurement#getSize()
+		 */
+		public long getTotalSize() {
+			return this.totalSize;
+		}
+
+	}
+
+	private static final class Aggregate {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder totalSize = new LongAdder();
+
+		private volatile boolean sized;
+
+		private void add(Measurement measurement) {
+			this.count.increment();
+			this.totalNanos.add(measurement.getDurationNanos());
+			this.maxNanos.accumulate(measurement.getDurationNanos());
+			if (measurement.getSize() >= 0) {
+				this.totalSize.add(measurement.getSize());
+				this.sized = true;
+			}
+		}
+
+		private Statistics toStatistics(DocumentationPhase phase, String subject) {
+			return new Statistics(phase, subject, this.count.sum(), this.totalNanos.sum(), this.maxNanos.get(),
+					this.sized ? this.totalSize.sum() : -1);
+		}
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+/**
+ * The phases of documenting an operation that are {@link Measurement measured}.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public enum DocumentationPhase {
+
+	/**
+	 * Conversion of the request into an {@code OperationRequest}. The subject is the
+	 * converter and the size is that of the converted request's content.
+	 */
+	REQUEST_CONVERSION,
+
+	/**
+	 * Conversion of the response into an {@code OperationResponse}. The subject is the
+	 * converter and the size is that of the converted response's content.
+	 */
+	RESPONSE_CONVERSION,
+
+	/**
+	 * Preprocessing of the request by all of the operation's request preprocessors. The
+	 * size is that of the preprocessed request's content.
+	 */
+	REQUEST_PREPROCESSING,
+
+	/**
+	 * Preprocessing of the response by all of the operation's response preprocessors.
+	 * The size is that of the preprocessed response's content.
+	 */
+	RESPONSE_PREPROCESSING,
+
+	/**
+	 * Preprocessing of a request or response by a single preprocessor. The subject is the
+	 * preprocessor and the size is that of the preprocessed content.
+	 */
+	PREPROCESSOR,
+
+	/**
+	 * Creation of a snippet's model. The subject is the name of the snippet.
+	 */
+	MODEL_CREATION,
+
+	/**
+	 * Compilation of a snippet's template. The subject is the name of the template.
+	 */
+	TEMPLATE_COMPILATION,
+
+	/**
+	 * Rendering of a snippet's template. The subject is the name of the snippet and the
+	 * size is the number of characters that were rendered.
+	 */
+	TEMPLATE_RENDERING,
+
+	/**
+	 * Writing of a snippet. The subject is the name of the snippet and the size is the
+	 * number of characters that were written.
+	 */
+	SNIPPET_WRITE,
+
+	/**
+	 * Documentation of the operation as a whole, including all of the other phases. The
+	 * subject is {@code null} or, when incremental generation has skipped the operation
+	 * as its inputs have not changed, {@code skipped}.
+	 */
+	OPERATION
+
+}
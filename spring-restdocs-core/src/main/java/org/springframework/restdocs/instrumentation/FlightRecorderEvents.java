@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+/**
+ * Controls the Java Flight Recorder events that are emitted while documenting
+ * operations. The events span the work that they describe, allowing garbage collection
+ * and allocation to be correlated with the operations and snippets that were being
+ * documented at the time.
+ * <p>
+ * The events are only emitted when the {@value #ENABLED_PROPERTY} system property is
+ * {@code true} when this class is initialized. Otherwise, no events are created and the
+ * cost of the instrumentation is a check of a constant.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see OperationEvent
+ * @see SnippetEvent
+ * @see PayloadParsingEvent
+ * @see SnippetWriteEvent
+ */
+public final class FlightRecorderEvents {
+
+	/**
+	 * Name of the system property that enables the events.
+	 */
+	public static final String ENABLED_PROPERTY = "org.springframework.restdocs.flightRecorderEvents";
+
+	private static final boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private FlightRecorderEvents() {
+
+	}
+
+	/**
+	 * Returns whether the events are enabled.
+	 * @return {@code true} if the events are enabled, otherwise {@code false}
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+}
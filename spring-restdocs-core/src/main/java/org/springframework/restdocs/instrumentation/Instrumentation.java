@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import java.util.Map;
+
+import org.springframework.restdocs.operation.Operation;
+
+/**
+ * Takes {@link Measurement Measurements} of the documentation of an operation and passes
+ * them to the configured {@link MeasurementListener}. When no listener is configured,
+ * instrumentation is disabled and taking a measurement does not read the clock.
+ * <p>
+ * An operation's instrumentation is {@link #open() opened} on the current thread while
+ * the operation is being documented so that components that do not have access to the
+ * operation's attributes, such as preprocessors, can find it using {@link #current()}.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class Instrumentation {
+
+	private static final Instrumentation DISABLED = new Instrumentation(null, null);
+
+	private static final ThreadLocal<Instrumentation> current = new ThreadLocal<>();
+
+	private static final Scope NO_OP_SCOPE = new Scope(null);
+
+	private final String operationName;
+
+	private final MeasurementListener listener;
+
+	private Instrumentation(String operationName, MeasurementListener listener) {
+		this.operationName = operationName;
+		this.listener = listener;
+	}
+
+	/**
+	 * Returns the instrumentation of the operation with the given {@code operationName}
+	 * that uses the {@link MeasurementListener} in the given {@code attributes}.
+	 * @param operationName the name of the operation
+	 * @param attributes the operation's attributes
+	 * @return the instrumentation
+	 */
+	public static Instrumentation of(String operationName, Map<String, Object> attributes) {
+		MeasurementListener listener = (MeasurementListener) attributes.get(MeasurementListener.class.getName());
+		return (listener != null) ? new Instrumentation(operationName, listener) : DISABLED;
+	}
+
+	/**
+	 * Returns the instrumentation of the given {@code operation}.
+	 * @param operation the operation
+	 * @return the instrumentation
+	 */
+	public static Instrumentation of(Operation operation) {
+		return of(operation.getName(), operation.getAttributes());
+	}
+
+	/**
+	 * Returns the instrumentation that is open on the current thread.
+	 * @return the current instrumentation, disabled if none is open
+	 */
+	public static Instrumentation current() {
+		Instrumentation instrumentation = current.get();
+		return (instrumentation != null) ? instrumentation : DISABLED;
+	}
+
+	/**
+	 * Opens this instrumentation on the current thread. It remains open until the
+	 * returned {@link Scope} is closed.
+	 * @return the scope of the instrumentation
+	 */
+	public Scope open() {
+		if (!isEnabled()) {
+			return NO_OP_SCOPE;
+		}
+		Instrumentation previous = current.get();
+		current.set(this);
+		return new Scope(previous);
+	}
+
+	/**
+	 * Returns whether this instrumentation is enabled.
+	 * @return {@code true} if enabled, otherwise {@code false}
+	 */
+	public boolean isEnabled() {
+		return this.listener != null;
+	}
+
+	/**
+	 * Starts measuring a phase.
+	 * @return the start time to pass to {@link #record}, or {@code 0} when disabled
+	 */
+	public long start() {
+		return (this.listener != null) ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records a measurement of the given {@code phase} that started at the given
+	 * {@code start} time.
+	 * @param phase the phase
+	 * @param subject the subject of the phase, may be {@code null}
+	 * @param start the start time returned by {@link #start()}
+	 * @param size the size of the phase's output or {@code -1} if it has no size
+	 * @return the duration of the phase in nanoseconds, or {@code 0} when disabled
+	 */
+	public long record(DocumentationPhase phase, String subject, long start, long size) {
+		if (this.listener == null) {
+			return 0;
+		}
+		long duration = System.nanoTime() - start;
+		this.listener.measured(new Measurement(this.operationName, phase, subject, duration, size));
+		return duration;
+	}
+
+	/**
+	 * The scope of an open {@link Instrumentation}.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final Instrumentation previous;
+
+		private Scope(Instrumentation previous) {
+			this.previous = previous;
+		}
+
+		/**
+		 * Closes the instrumentation, restoring the instrumentation, if any, that was open
+		 * when it was opened.
+		 */
+		@Override
+		public void close() {
+			if (this == NO_OP_SCOPE) {
+				return;
+			}
+			if (this.previous != null) {
+				current.set(this.previous);
+			}
+			else {
+				current.remove();
+			}
+		}
+
+	}
+
+}
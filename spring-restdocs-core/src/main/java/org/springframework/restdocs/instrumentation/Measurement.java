@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+/**
+ * A measurement of one {@link DocumentationPhase phase} of documenting an operation.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class Measurement {
+
+	private final String operationName;
+
+	private final DocumentationPhase phase;
+
+	private final String subject;
+
+	private final long durationNanos;
+
+	private final long size;
+
+	/**
+	 * Creates a new {@code Measurement}.
+	 * @param operationName the name of the operation
+	 * @param phase the phase that was measured
+	 * @param subject the subject of the phase, may be {@code null}
+	 * @param durationNanos the duration of the phase in nanoseconds
+	 * @param size the size of the phase's output or {@code -1} if it has no size
+	 */
+	public Measurement(String operationName, DocumentationPhase phase, String subject, long durationNanos,
+			long size) {
+		this.operationName = operationName;
+		this.phase = phase;
+		this.subject = subject;
+		this.durationNanos = durationNanos;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the name of the operation that was being documented.
+	 * @return the operation name
+	 */
+	public String getOperationName() {
+		return this.operationName;
+	}
+
+	/**
+	 * Returns the phase that was measured.
+	 * @return the phase
+	 */
+	public DocumentationPhase getPhase() {
+		return this.phase;
+	}
+
+	/**
+	 * Returns the subject of the phase, such as the name of a snippet or the type of a
+	 * preprocessor. The subject of each phase is described by {@link DocumentationPhase}.
+	 * @return the subject or {@code null} if the phase has no subject
+	 */
+	public String getSubject() {
+		return this.subject;
+	}
+
+	/**
+	 * Returns the duration of the phase in nanoseconds.
+	 * @return the duration
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
+	}
+
+	/**
+	 * Returns the size of the phase's output. Content is measured in bytes and snippets
+	 * are measured in characters.
+	 * @return the size or {@code -1} if the phase has no size
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	@Override
+	public String toString() {
+		return this.operationName + " " + this.phase + ((this.subject != null) ? " " + this.subject : "") + " "
+				+ this.durationNanos + "ns" + ((this.size >= 0) ? " " + this.size : "");
+	}
+
+}
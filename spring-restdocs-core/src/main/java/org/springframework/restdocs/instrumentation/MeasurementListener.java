@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+/**
+ * A listener that is notified of the {@link Measurement Measurements} that are taken
+ * while documenting operations. When snippets are documented in parallel, a listener is
+ * notified by several threads at once and must be thread-safe.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see org.springframework.restdocs.config.SnippetConfigurer#withMeasurementListener(MeasurementListener)
+ */
+@FunctionalInterface
+public interface MeasurementListener {
+
+	/**
+	 * Called when the given {@code measurement} has been taken.
+	 * @param measurement the measurement
+	 */
+	void measured(Measurement measurement);
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event that spans the documentation of an operation.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see FlightRecorderEvents
+ */
+@Name("org.springframework.restdocs.Operation")
+@Label("REST Docs Operation")
+@Description("Documentation of an operation")
+@Category("Spring REST Docs")
+public final class OperationEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Request Size")
+	@DataAmount
+	long requestSize;
+
+	@Label("Response Size")
+	@DataAmount
+	long responseSize;
+
+	@Label("Skipped")
+	@Description("Whether the operation was skipped as its inputs had not changed")
+	boolean skipped;
+
+	/**
+	 * Creates and begins a new {@code OperationEvent} for the operation with the given
+	 * {@code operationName}.
+	 * @param operationName the name of the operation
+	 */
+	public OperationEvent(String operationName) {
+		this.operation = operationName;
+		begin();
+	}
+
+	/**
+	 * Completes the event, committing it if it is enabled.
+	 * @param requestSize the size of the request's content
+	 * @param responseSize the size of the response's content
+	 */
+	public void complete(long requestSize, long responseSize) {
+		complete(requestSize, responseSize, false);
+	}
+
+	/**
+	 * Completes the event, committing it if it is enabled.
+	 * @param requestSize the size of the request's content
+	 * @param responseSize the size of the response's content
+	 * @param skipped whether the operation was skipped as its inputs had not changed
+	 */
+	public void complete(long requestSize, long responseSize, boolean skipped) {
+		this.requestSize = requestSize;
+		this.responseSize = responseSize;
+		this.skipped = skipped;
+		commit();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event that spans the parsing of a request or response payload
+ * whose fields are being documented and the checking of its fields against their
+ * descriptors.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see FlightRecorderEvents
+ */
+@Name("org.springframework.restdocs.PayloadParsing")
+@Label("REST Docs Payload Parsing")
+@Description("Parsing of a payload whose fields are being documented")
+@Category("Spring REST Docs")
+public final class PayloadParsingEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Snippet")
+	String snippet;
+
+	@Label("Content Type")
+	String contentType;
+
+	@Label("Payload Size")
+	@DataAmount
+	long payloadSize;
+
+	/**
+	 * Creates and begins a new {@code PayloadParsingEvent} for the payload of the given
+	 * {@code payloadSize} that is being documented by the snippet with the given
+	 * {@code snippetName}.
+	 * @param operationName the name of the operation
+	 * @param snippetName the name of the snippet
+	 * @param contentType the type of the payload, may be {@code null}
+	 * @param payloadSize the size of the payload
+	 */
+	public PayloadParsingEvent(String operationName, String snippetName, String contentType, long payloadSize) {
+		this.operation = operationName;
+		this.snippet = snippetName;
+		this.contentType = contentType;
+		this.payloadSize = payloadSize;
+		begin();
+	}
+
+	/**
+	 * Completes the event, committing it if it is enabled.
+	 */
+	public void complete() {
+		commit();
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event that spans the documentation of a snippet, from the
+ * creation of its model through to it being written.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see FlightRecorderEvents
+ */
+@Name("org.springframework.restdocs.Snippet")
+@Label("REST Docs Snippet")
+@Description("Documentation of a snippet")
+@Category("Spring REST Docs")
+public final class SnippetEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Snippet")
+	String snippet;
+
+	@Label("Characters")
+	@Description("Number of characters in the snippet")
+	long characters;
+
+	/**
+	 * Creates and begins a new {@code SnippetEvent} for the snippet with the given
+	 * {@code snippetName} of the operation with the given {@code operationName}.
+	 * @param operationName the name of the operation
+	 * @param snippetName the name of the snippet
+	 */
+	public SnippetEvent(String operationName, String snippetName) {
+		this.operation = operationName;
+		this.snippet = snippetName;
+		begin();
+	}
+
+	/**
+	 * Completes the event, committing it if it is enabled.
+	 * @param characters the number of characters in the snippet
+	 */
+	public void complete(long characters) {
+		this.characters = characters;
+		commit();
+	}
+
+}
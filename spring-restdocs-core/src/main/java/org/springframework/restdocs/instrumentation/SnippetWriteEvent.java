@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event that spans the writing of a snippet to its file. Emitted
+ * by a {@link org.springframework.restdocs.snippet.StandardWriterResolver} that buffers
+ * snippets, as it does by default, once for each snippet when its writer is closed.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see FlightRecorderEvents
+ */
+@Name("org.springframework.restdocs.SnippetWrite")
+@Label("REST Docs Snippet Write")
+@Description("Writing of a snippet to its file")
+@Category("Spring REST Docs")
+public final class SnippetWriteEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Snippet")
+	String snippet;
+
+	@Label("Path")
+	String path;
+
+	@Label("Size")
+	@DataAmount
+	long size;
+
+	@Label("Written")
+	@Description("Whether the file was written rather than being left unchanged")
+	boolean written;
+
+	/**
+	 * Creates and begins a new {@code SnippetWriteEvent} for the snippet with the given
+	 * {@code snippetName} that is being written to the given {@code path}.
+	 * @param operationName the name of the operation
+	 * @param snippetName the name of the snippet
+	 * @param path the path of the snippet's file
+	 */
+	public SnippetWriteEvent(String operationName, String snippetName, String path) {
+		this.operation = operationName;
+		this.snippet = snippetName;
+		this.path = path;
+		begin();
+	}
+
+	/**
+	 * Completes the event, committing it if it is enabled.
+	 * @param size the number of bytes in the snippet
+	 * @param written whether the snippet's file was written
+	 */
+	public void complete(long size, boolean written) {
+		this.size = size;
+		this.written = written;
+		commit();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package org.springframework.restdocs.operation;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -36,7 +38,7 @@ abstract class AbstractOperationMessage implements OperationMessage {
 
 	AbstractOperationMessage(byte[] content, HttpHeaders headers) {
 		this.content = (content != null) ? content : new byte[0];
-		this.headers = headers;
+		this.headers = (headers != null) ? HttpHeaders.readOnlyHttpHeaders(headers) : null;
 	}
 
 	@Override
@@ -44,9 +46,19 @@ abstract class AbstractOperationMessage implements OperationMessage {
 		return Arrays.copyOf(this.content, this.content.length);
 	}
 
+	@Override
+	public int getContentLength() {
+		return this.content.length;
+	}
+
+	@Override
+	public ByteBuffer getContentAsByteBuffer() {
+		return ByteBuffer.wrap(this.content).asReadOnlyBuffer();
+	}
+
 	@Override
 	public HttpHeaders getHeaders() {
-		return HttpHeaders.readOnlyHttpHeaders(this.headers);
+		return this.headers;
 	}
 
 	@Override
@@ -61,6 +73,19 @@ abstract class AbstractOperationMessage implements OperationMessage {
 		return "";
 	}
 
+	/**
+	 * Returns the content of the given {@code message}, avoiding a copy when the message
+	 * is an {@code AbstractOperationMessage}. As the content may be shared, the returned
+	 * array must not be modified.
+	 * @param message the message
+	 * @param content supplies a copy of the content of a message of another type
+	 * @return the content
+	 */
+	static byte[] sharedContent(Object message, Supplier<byte[]> content) {
+		return (message instanceof AbstractOperationMessage) ? ((AbstractOperationMessage) message).content
+				: content.get();
+	}
+
 	private Charset extractCharsetFromContentTypeHeader() {
 		if (this.headers == null) {
 			return null;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,25 +19,30 @@ package org.springframework.restdocs.operation;
 import org.springframework.http.HttpHeaders;
 
 /**
- * Helper for working with {@link HttpHeaders}.
+ * Helper for working with {@link HttpHeaders}. Read-only headers are shared rather than
+ * copied until they are modified.
  *
  * @author Andy Wilkinson
  */
 class HttpHeadersHelper {
 
-	private final HttpHeaders httpHeaders;
+	private HttpHeaders httpHeaders;
+
+	private boolean shared;
 
 	HttpHeadersHelper(HttpHeaders httpHeaders) {
-		HttpHeaders headers = new HttpHeaders();
-		if (httpHeaders != null) {
-			headers.putAll(httpHeaders);
+		if (httpHeaders != null && HttpHeaders.readOnlyHttpHeaders(httpHeaders) == httpHeaders) {
+			this.httpHeaders = httpHeaders;
+			this.shared = true;
+		}
+		else {
+			this.httpHeaders = copy(httpHeaders);
 		}
-		this.httpHeaders = headers;
 	}
 
 	HttpHeadersHelper addIfAbsent(String name, String value) {
 		if (this.httpHeaders.get(name) == null) {
-			this.httpHeaders.add(name, value);
+			modifiableHeaders().add(name, value);
 		}
 		return this;
 	}
@@ -51,10 +56,12 @@ class HttpHeadersHelper {
 
 	HttpHeadersHelper setContentLengthHeader(byte[] content) {
 		if (content == null || content.length == 0) {
-			this.httpHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+			if (this.httpHeaders.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+				modifiableHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+			}
 		}
-		else {
-			this.httpHeaders.setContentLength(content.length);
+		else if (this.httpHeaders.getContentLength() != content.length) {
+			modifiableHeaders().setContentLength(content.length);
 		}
 		return this;
 	}
@@ -63,4 +70,20 @@ class HttpHeadersHelper {
 		return HttpHeaders.readOnlyHttpHeaders(this.httpHeaders);
 	}
 
+	private HttpHeaders modifiableHeaders() {
+		if (this.shared) {
+			this.httpHeaders = copy(this.httpHeaders);
+			this.shared = false;
+		}
+		return this.httpHeaders;
+	}
+
+	private static HttpHeaders copy(HttpHeaders httpHeaders) {
+		HttpHeaders headers = new HttpHeaders();
+		if (httpHeaders != null) {
+			headers.putAll(httpHeaders);
+		}
+		return headers;
+	}
+
 }
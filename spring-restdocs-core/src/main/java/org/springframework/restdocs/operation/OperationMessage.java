@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.restdocs.operation;
 
+import java.nio.ByteBuffer;
+
 import org.springframework.http.HttpHeaders;
 
 /**
@@ -27,6 +29,10 @@ interface OperationMessage {
 
 	byte[] getContent();
 
+	int getContentLength();
+
+	ByteBuffer getContentAsByteBuffer();
+
 	String getContentAsString();
 
 	HttpHeaders getHeaders();
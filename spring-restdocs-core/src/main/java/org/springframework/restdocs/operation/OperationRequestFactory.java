@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -89,7 +89,8 @@ public class OperationRequestFactory {
 	 * @return the new request with the new headers
 	 */
 	public OperationRequest createFrom(OperationRequest original, HttpHeaders newHeaders) {
-		return new StandardOperationRequest(original.getUri(), original.getMethod(), original.getContent(), newHeaders,
+		return new StandardOperationRequest(original.getUri(), original.getMethod(),
+				AbstractOperationMessage.sharedContent(original, original::getContent), newHeaders,
 				original.getParameters(), original.getParts(), original.getCookies());
 	}
 
@@ -104,7 +105,8 @@ public class OperationRequestFactory {
 	public OperationRequest createFrom(OperationRequest original, Parameters newParameters) {
 		URI uri = (original.getMethod() == HttpMethod.GET) ? updateQueryString(original.getUri(), newParameters)
 				: original.getUri();
-		return new StandardOperationRequest(uri, original.getMethod(), original.getContent(), original.getHeaders(),
+		return new StandardOperationRequest(uri, original.getMethod(),
+				AbstractOperationMessage.sharedContent(original, original::getContent), original.getHeaders(),
 				newParameters, original.getParts(), original.getCookies());
 	}
 
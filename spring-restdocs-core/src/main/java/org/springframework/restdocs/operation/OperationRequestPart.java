@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.restdocs.operation;
 
+import java.nio.ByteBuffer;
+
 import org.springframework.http.HttpHeaders;
 
 /**
@@ -44,6 +46,26 @@ public interface OperationRequestPart {
 	 */
 	byte[] getContent();
 
+	/**
+	 * Returns the length of the content of the part. Equivalent to, but cheaper than,
+	 * {@code getContent().length}.
+	 * @return the length of the content
+	 * @since 3.0.0
+	 */
+	default int getContentLength() {
+		return getContent().length;
+	}
+
+	/**
+	 * Returns a read-only view of the content of the part. Unlike {@link #getContent()},
+	 * the content is not copied. If the part has no content an empty buffer is returned.
+	 * @return a read-only view of the content, never {@code null}
+	 * @since 3.0.0
+	 */
+	default ByteBuffer getContentAsByteBuffer() {
+		return ByteBuffer.wrap(getContent()).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Returns the content of the part as a {@link String}. If the part has no content an
 	 * empty string is returned. If the part has a {@code Content-Type} header that
@@ -81,8 +81,8 @@ public class OperationResponseFactory {
 	 * @return the new response with the new headers
 	 */
 	public OperationResponse createFrom(OperationResponse original, HttpHeaders newHeaders) {
-		return new StandardOperationResponse(original.getStatusCode(), newHeaders, original.getContent(),
-				original.getCookies());
+		return new StandardOperationResponse(original.getStatusCode(), newHeaders,
+				AbstractOperationMessage.sharedContent(original, original::getContent), original.getCookies());
 	}
 
 	private HttpHeaders augmentHeaders(HttpHeaders originalHeaders, byte[] content) {
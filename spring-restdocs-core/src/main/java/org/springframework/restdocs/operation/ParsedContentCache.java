@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.operation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A cache of parsed request and response content that is scoped to the documentation of
+ * a single operation. It allows content that is consumed by several preprocessors,
+ * snippets, and link extractors to be parsed once, with the parsed form then being
+ * shared. Entries are keyed by the content, its media type, and the type of its parsed
+ * form.
+ * <p>
+ * A cache is {@link #open() opened} for the current thread while an operation is being
+ * documented and can be {@link Scope#share() shared} with other threads that are
+ * documenting the same operation. When no cache is open, content is parsed every time
+ * that it is requested.
+ * Parsed content that is obtained from the cache is shared and must not be modified.
+ * Each content array is hashed at most once while a cache is open so it, too, must not
+ * be modified.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class ParsedContentCache {
+
+	private static final ThreadLocal<ParsedContentCache> current = new ThreadLocal<>();
+
+	private static final Object NULL = new Object();
+
+	private final Map<Key, Object> entries = new ConcurrentHashMap<>();
+
+	private final Map<byte[], Integer> contentHashes = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	private ParsedContentCache() {
+
+	}
+
+	/**
+	 * Opens a new cache for the current thread. The cache remains open until the returned
+	 * {@link Scope} is closed.
+	 * @return the scope of the new cache
+	 */
+	public static Scope open() {
+		return new ParsedContentCache().openOnCurrentThread();
+	}
+
+	private Scope openOnCurrentThread() {
+		ParsedContentCache previous = current.get();
+		current.set(this);
+		return new Scope(this, previous);
+	}
+
+	/**
+	 * Returns the parsed form of the given {@code content}. If the current thread's cache
+	 * already contains the content, with the same media type, parsed into the given
+	 * {@code type}, the cached form is returned. Otherwise, the content is parsed using
+	 * the given {@code parser} and the result is cached.
+	 * @param <T> the type of the parsed form
+	 * @param content the content
+	 * @param contentType the type of the content, may be {@code null}
+	 * @param type the type of the parsed form
+	 * @param parser the parser used when the content is not already cached
+	 * @return the parsed form of the content
+	 * @throws IOException if the content cannot be parsed
+	 */
+	public static <T> T get(byte[] content, MediaType contentType, Class<T> type, ContentParser<T> parser)
+			throws IOException {
+		ParsedContentCache cache = current.get();
+		if (cache == null) {
+			return parser.parse(content);
+		}
+		Key key = cache.key(content, contentType, type);
+		Object parsed = cache.entries.get(key);
+		if (parsed == null) {
+			parsed = parser.parse(content);
+			cache.entries.put(key, (parsed != null) ? parsed : NULL);
+		}
+		return (parsed != NULL) ? type.cast(parsed) : null;
+	}
+
+	/**
+	 * Adds the given {@code parsed} form of the given {@code content} to the current
+	 * thread's cache. Typically used by a component that produces new content from an
+	 * existing parsed form, such as when pretty printing. Has no effect when no cache is
+	 * open.
+	 * @param <T> the type of the parsed form
+	 * @param content the content
+	 * @param contentType the type of the content, may be {@code null}
+	 * @param type the type of the parsed form
+	 * @param parsed the parsed form of the content
+	 */
+	public static <T> void put(byte[] content, MediaType contentType, Class<T> type, T parsed) {
+		ParsedContentCache cache = current.get();
+		if (cache != null) {
+			cache.entries.put(cache.key(content, contentType, type), (parsed != null) ? parsed : NULL);
+		}
+	}
+
+	private Key key(byte[] content, MediaType contentType, Class<?> type) {
+		int contentHash = this.contentHashes.computeIfAbsent(content, Arrays::hashCode);
+		return new Key(content, contentHash, contentType, type);
+	}
+
+	/**
+	 * A parser of content.
+	 *
+	 * @param <T> the type of the parsed form
+	 */
+	@FunctionalInterface
+	public interface ContentParser<T> {
+
+		/**
+		 * Parses the given {@code content}.
+		 * @param content the content
+		 * @return the parsed form of the content
+		 * @throws IOException if the content cannot be parsed
+		 */
+		T parse(byte[] content) throws IOException;
+
+	}
+
+	/**
+	 * The scope of an open {@link ParsedContentCache}.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final ParsedContentCache cache;
+
+		private final ParsedContentCache previous;
+
+		private Scope(ParsedContentCache cache, ParsedContentCache previous) {
+			this.cache = cache;
+			this.previous = previous;
+		}
+
+		/**
+		 * Opens this scope's cache for the current thread, allowing a thread other than the
+		 * one that opened the cache to share its entries. The cache remains open on the
+		 * current thread until the returned {@link Scope} is closed.
+		 * @return the scope of the shared cache on the current thread
+		 */
+		public Scope share() {
+			return this.cache.openOnCurrentThread();
+		}
+
+		/**
+		 * Closes the cache, restoring the cache, if any, that was open when it was opened.
+		 */
+		@Override
+		public void close() {
+			if (this.previous != null) {
+				current.set(this.previous);
+			}
+			else {
+				current.remove();
+			}
+		}
+
+	}
+
+	private static final class Key {
+
+		private final byte[] content;
+
+		private final MediaType contentType;
+
+		private final Class<?> type;
+
+		private final int hashCode;
+
+		private Key(byte[] content, int contentHash, MediaType contentType, Class<?> type) {
+			this.content = content;
+			this.contentType = contentType;
+			this.type = type;
+			this.hashCode = Objects.hash(contentHash, contentType, type);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return this.type == other.type && Objects.equals(this.contentType, other.contentType)
+					&& (this.content == other.content || (this.content.length == other.content.length
+							&& Arrays.equals(this.content, other.content)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+}
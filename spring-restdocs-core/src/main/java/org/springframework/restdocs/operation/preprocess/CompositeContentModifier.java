@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.restdocs.operation.preprocess;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A {@link ContentModifier} that applies several content modifiers in turn. The content
+ * is decoded once for each run of adjacent {@link TextContentModifier
+ * TextContentModifiers} that use the same charset, with each modifier in the run then
+ * modifying the decoded text, rather than each of them decoding and encoding the
+ * content.
+ *
+ * @author Andy Wilkinson
+ */
+class CompositeContentModifier implements ContentModifier {
+
+	private final List<ContentModifier> delegates;
+
+	CompositeContentModifier(List<ContentModifier> delegates) {
+		this.delegates = delegates;
+	}
+
+	List<ContentModifier> getDelegates() {
+		return this.delegates;
+	}
+
+	@Override
+	public byte[] modifyContent(byte[] originalContent, MediaType contentType) {
+		byte[] content = originalContent;
+		int index = 0;
+		while (index < this.delegates.size()) {
+			ContentModifier delegate = this.delegates.get(index++);
+			if (delegate instanceof TextContentModifier) {
+				TextContentModifier textModifier = (TextContentModifier) delegate;
+				Charset charset = textModifier.getCharset(contentType);
+				CharSequence text = textModifier.modifyText(new String(content, charset));
+				while (index < this.delegates.size() && usesCharset(this.delegates.get(index), contentType, charset)) {
+					text = ((TextContentModifier) this.delegates.get(index++)).modifyText(text);
+				}
+				content = text.toString().getBytes(charset);
+			}
+			else {
+				content = delegate.modifyContent(content, contentType);
+			}
+		}
+		return content;
+	}
+
+	private boolean usesCharset(ContentModifier modifier, MediaType contentType, Charset charset) {
+		return modifier instanceof TextContentModifier
+				&& charset.equals(((TextContentModifier) modifier).getCharset(contentType));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.restdocs.operation.preprocess;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationRequestFactory;
 import org.springframework.restdocs.operation.OperationResponse;
@@ -58,4 +61,76 @@ public class ContentModifyingOperationPreprocessor implements OperationPreproces
 		return this.responseFactory.createFrom(response, modifiedContent);
 	}
 
+	/**
+	 * Combines each run of adjacent {@code ContentModifyingOperationPreprocessors} in the
+	 * given {@code preprocessors} into a single preprocessor that applies all of their
+	 * content modifiers. This allows the content to be modified in a single pass with the
+	 * request or response then being recreated once rather than once per preprocessor.
+	 * Subclasses are not combined.
+	 * @param preprocessors the preprocessors
+	 * @return the combined preprocessors
+	 */
+	static List<OperationPreprocessor> combineAdjacent(List<OperationPreprocessor> preprocessors) {
+		List<OperationPreprocessor> combined = new ArrayList<>(preprocessors.size());
+		List<ContentModifyingOperationPreprocessor> run = new ArrayList<>();
+		for (OperationPreprocessor preprocessor : preprocessors) {
+			if (preprocessor != null && preprocessor.getClass() == ContentModifyingOperationPreprocessor.class) {
+				run.add((ContentModifyingOperationPreprocessor) preprocessor);
+			}
+			else {
+				addCombined(run, combined);
+				combined.add(preprocessor);
+			}
+		}
+		addCombined(run, combined);
+		return combined;
+	}
+
+	/**
+	 * Describes each of the given {@code preprocessors} for use as the subject of its
+	 * measurements. A content modifying preprocessor is described by its content
+	 * modifier and any other preprocessor by its type.
+	 * @param preprocessors the preprocessors
+	 * @return the descriptions
+	 */
+	static List<String> describe(List<OperationPreprocessor> preprocessors) {
+		List<String> descriptions = new ArrayList<>(preprocessors.size());
+		for (OperationPreprocessor preprocessor : preprocessors) {
+			descriptions.add((preprocessor instanceof ContentModifyingOperationPreprocessor)
+					? describe(((ContentModifyingOperationPreprocessor) preprocessor).contentModifier)
+					: describe(preprocessor));
+		}
+		return descriptions;
+	}
+
+	private static String describe(Object component) {
+		if (component instanceof CompositeContentModifier) {
+			List<String> descriptions = new ArrayList<>();
+			for (ContentModifier delegate : ((CompositeContentModifier) component).getDelegates()) {
+				descriptions.add(describe(delegate));
+			}
+			return String.join("+", descriptions);
+		}
+		if (component == null) {
+			return "null";
+		}
+		String name = component.getClass().getSimpleName();
+		return name.isEmpty() ? component.getClass().getName() : name;
+	}
+
+	private static void addCombined(List<ContentModifyingOperationPreprocessor> run,
+			List<OperationPreprocessor> combined) {
+		if (run.size() == 1) {
+			combined.add(run.get(0));
+		}
+		else if (run.size() > 1) {
+			List<ContentModifier> contentModifiers = new ArrayList<>(run.size());
+			for (ContentModifyingOperationPreprocessor preprocessor : run) {
+				contentModifiers.add(preprocessor.contentModifier);
+			}
+			combined.add(new ContentModifyingOperationPreprocessor(new CompositeContentModifier(contentModifiers)));
+		}
+		run.clear();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.restdocs.operation.preprocess;
 
 import java.util.List;
 
+import org.springframework.restdocs.instrumentation.DocumentationPhase;
+import org.springframework.restdocs.instrumentation.Instrumentation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.util.Assert;
 
@@ -33,6 +35,8 @@ class DelegatingOperationRequestPreprocessor implements OperationRequestPreproce
 
 	private final List<OperationPreprocessor> delegates;
 
+	private final List<String> descriptions;
+
 	/**
 	 * Creates a new {@code DelegatingOperationRequestPreprocessor} that will delegate to
 	 * the given {@code delegates} by calling
@@ -41,14 +45,21 @@ class DelegatingOperationRequestPreprocessor implements OperationRequestPreproce
 	 */
 	DelegatingOperationRequestPreprocessor(List<OperationPreprocessor> delegates) {
 		Assert.notNull(delegates, "delegates must be non-null");
-		this.delegates = delegates;
+		this.delegates = ContentModifyingOperationPreprocessor.combineAdjacent(delegates);
+		this.descriptions = ContentModifyingOperationPreprocessor.describe(this.delegates);
 	}
 
 	@Override
 	public OperationRequest preprocess(OperationRequest operationRequest) {
 		OperationRequest preprocessedRequest = operationRequest;
-		for (OperationPreprocessor delegate : this.delegates) {
-			preprocessedRequest = delegate.preprocess(preprocessedRequest);
+		Instrumentation instrumentation = Instrumentation.current();
+		for (int i = 0; i < this.delegates.size(); i++) {
+			long start = instrumentation.start();
+			preprocessedRequest = this.delegates.get(i).preprocess(preprocessedRequest);
+			if (instrumentation.isEnabled()) {
+				instrumentation.record(DocumentationPhase.PREPROCESSOR, this.descriptions.get(i), start,
+						preprocessedRequest.getContentLength());
+			}
 		}
 		return preprocessedRequest;
 	}
@@ -18,7 +18,11 @@ package org.springframework.restdocs.operation.preprocess;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,10 +32,16 @@ import org.springframework.restdocs.operation.OperationRequestFactory;
 import org.springframework.restdocs.operation.OperationResponse;
 import org.springframework.restdocs.operation.OperationResponseFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
 
 /**
  * An {@link OperationPreprocessor} that modifies a request or response by adding,
  * setting, or removing headers.
+ * <p>
+ * The modified headers are an overlay on the original headers. Individual headers are
+ * looked up by applying the modifications to the original's values for that header
+ * alone. The complete set of modified headers is only created when the headers are
+ * iterated.
  *
  * @author Jihoon Cha
  * @author Andy Wilkinson
@@ -56,12 +66,10 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 	}
 
 	private HttpHeaders preprocess(HttpHeaders headers) {
-		HttpHeaders modifiedHeaders = new HttpHeaders();
-		modifiedHeaders.putAll(headers);
-		for (Modification modification : this.modifications) {
-			modification.applyTo(modifiedHeaders);
+		if (this.modifications.isEmpty()) {
+			return headers;
 		}
-		return modifiedHeaders;
+		return new HttpHeaders(new ModifiedHeaders(headers, new ArrayList<>(this.modifications)));
 	}
 
 	/**
@@ -125,7 +133,23 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 
 	}
 
-	private static final class AddHeaderModification implements Modification {
+	/**
+	 * A {@link Modification} that can be applied to a header by name alone.
+	 */
+	private interface NameSpecificModification extends Modification {
+
+		/**
+		 * Applies the modification to the given {@code values} of the header with the
+		 * given {@code name}.
+		 * @param name the name of the header
+		 * @param values the values of the header, or {@code null} if it is not present
+		 * @return the modified values, or {@code null} if the header is not present
+		 */
+		List<String> applyTo(String name, List<String> values);
+
+	}
+
+	private static final class AddHeaderModification implements NameSpecificModification {
 
 		private final String name;
 
@@ -141,9 +165,19 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 			headers.add(this.name, this.value);
 		}
 
+		@Override
+		public List<String> applyTo(String name, List<String> values) {
+			if (!this.name.equalsIgnoreCase(name)) {
+				return values;
+			}
+			List<String> modified = (values != null) ? new ArrayList<>(values) : new ArrayList<>(1);
+			modified.add(this.value);
+			return modified;
+		}
+
 	}
 
-	private static final class SetHeaderModification implements Modification {
+	private static final class SetHeaderModification implements NameSpecificModification {
 
 		private final String name;
 
@@ -156,12 +190,17 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 
 		@Override
 		public void applyTo(HttpHeaders headers) {
-			headers.put(this.name, this.values);
+			headers.put(this.name, new ArrayList<>(this.values));
+		}
+
+		@Override
+		public List<String> applyTo(String name, List<String> values) {
+			return this.name.equalsIgnoreCase(name) ? this.values : values;
 		}
 
 	}
 
-	private static final class RemoveHeaderModification implements Modification {
+	private static final class RemoveHeaderModification implements NameSpecificModification {
 
 		private final String name;
 
@@ -174,9 +213,14 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 			headers.remove(this.name);
 		}
 
+		@Override
+		public List<String> applyTo(String name, List<String> values) {
+			return this.name.equalsIgnoreCase(name) ? null : values;
+		}
+
 	}
 
-	private static final class RemoveValueHeaderModification implements Modification {
+	private static final class RemoveValueHeaderModification implements NameSpecificModification {
 
 		private final String name;
 
@@ -198,6 +242,16 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 			}
 		}
 
+		@Override
+		public List<String> applyTo(String name, List<String> values) {
+			if (values == null || !this.name.equalsIgnoreCase(name)) {
+				return values;
+			}
+			List<String> modified = new ArrayList<>(values);
+			modified.remove(this.value);
+			return (!modified.isEmpty()) ? modified : null;
+		}
+
 	}
 
 	private static final class RemoveHeadersByNamePatternModification implements Modification {
@@ -215,4 +269,173 @@ public class HeadersModifyingOperationPreprocessor implements OperationPreproces
 
 	}
 
+	/**
+	 * Read-only headers that are the result of applying modifications to some original
+	 * headers.
+	 */
+	private static final class ModifiedHeaders implements MultiValueMap<String, String> {
+
+		private final HttpHeaders original;
+
+		private final List<Modification> modifications;
+
+		private final List<NameSpecificModification> nameSpecificModifications;
+
+		private volatile HttpHeaders materialized;
+
+		private ModifiedHeaders(HttpHeaders original, List<Modification> modifications) {
+			this.original = original;
+			this.modifications = modifications;
+			this.nameSpecificModifications = getNameSpecificModifications(modifications);
+		}
+
+		private static List<NameSpecificModification> getNameSpecificModifications(List<Modification> modifications) {
+			List<NameSpecificModification> nameSpecificModifications = new ArrayList<>(modifications.size());
+			for (Modification modification : modifications) {
+				if (!(modification instanceof NameSpecificModification)) {
+					return null;
+				}
+				nameSpecificModifications.add((NameSpecificModification) modification);
+			}
+			return nameSpecificModifications;
+		}
+
+		@Override
+		public List<String> get(Object key) {
+			if (this.nameSpecificModifications == null) {
+				return materialize().get(key);
+			}
+			if (!(key instanceof String)) {
+				return null;
+			}
+			String name = (String) key;
+			List<String> values = this.original.get(name);
+			for (NameSpecificModification modification : this.nameSpecificModifications) {
+				values = modification.applyTo(name, values);
+			}
+			return values;
+		}
+
+		@Override
+		public String getFirst(String key) {
+			List<String> values = get(key);
+			return (values != null && !values.isEmpty()) ? values.get(0) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return materialize().size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return materialize().isEmpty();
+		}
+
+		@Override
+		public boolean containsValue(Object value) {
+			return materialize().containsValue(value);
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return Collections.unmodifiableSet(materialize().keySet());
+		}
+
+		@Override
+		public Collection<List<String>> values() {
+			return Collections.unmodifiableCollection(materialize().values());
+		}
+
+		@Override
+		public Set<Entry<String, List<String>>> entrySet() {
+			return Collections.unmodifiableSet(materialize().entrySet());
+		}
+
+		@Override
+		public Map<String, String> toSingleValueMap() {
+			return materialize().toSingleValueMap();
+		}
+
+		@Override
+		public void add(String key, String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addAll(String key, List<? extends String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addAll(MultiValueMap<String, String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void set(String key, String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setAll(Map<String, String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<String> put(String key, List<String> value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<String> remove(Object key) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void putAll(Map<? extends String, ? extends List<String>> map) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return this == obj || (obj instanceof Map && entrySet().equals(((Map<?, ?>) obj).entrySet()));
+		}
+
+		@Override
+		public int hashCode() {
+			return materialize().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return materialize().toString();
+		}
+
+		private HttpHeaders materialize() {
+			HttpHeaders materialized = this.materialized;
+			if (materialized == null) {
+				HttpHeaders headers = new HttpHeaders();
+				this.original.forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+				for (Modification modification : this.modifications) {
+					modification.applyTo(headers);
+				}
+				materialized = headers;
+				this.materialized = materialized;
+			}
+			return materialized;
+		}
+
+	}
+
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.restdocs.operation.preprocess;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ContentModifier} that modifies the content by replacing occurrences of any of
+ * several regular expression {@link Pattern Patterns}. The patterns are combined into a
+ * single pattern so that the content is scanned once, irrespective of the number of
+ * patterns.
+ * <p>
+ * At each position in the content, the first of the patterns that matches is replaced.
+ * As with {@link PatternReplacingContentModifier}, when a pattern has one or more
+ * groups, only the first group is replaced. Content that has been replaced is not
+ * matched again. The patterns must not use numbered back references.
+ *
+ * @author Andy Wilkinson
+ */
+class MultiPatternReplacingContentModifier implements TextContentModifier {
+
+	private final Pattern pattern;
+
+	private final int[] groups;
+
+	private final boolean[] replaceFirstGroup;
+
+	private final String[] replacements;
+
+	private final Charset fallbackCharset;
+
+	/**
+	 * Creates a new {@link MultiPatternReplacingContentModifier} that will replace
+	 * occurrences of each of the given patterns with its replacement. The content is
+	 * handled using the charset from its content type. When no content type is specified
+	 * the JVM's {@link Charset#defaultCharset() default charset is used}.
+	 * @param replacements the replacements, keyed by pattern, in the order in which the
+	 * patterns should be tried
+	 */
+	MultiPatternReplacingContentModifier(Map<Pattern, String> replacements) {
+		this(replacements, Charset.defaultCharset());
+	}
+
+	/**
+	 * Creates a new {@link MultiPatternReplacingContentModifier} that will replace
+	 * occurrences of each of the given patterns with its replacement. The content is
+	 * handled using the charset from its content type. When no content type is specified
+	 * the given {@code fallbackCharset} is used.
+	 * @param replacements the replacements, keyed by pattern, in the order in which the
+	 * patterns should be tried
+	 * @param fallbackCharset the charset to use as a fallback
+	 */
+	MultiPatternReplacingContentModifier(Map<Pattern, String> replacements, Charset fallbackCharset) {
+		Assert.notEmpty(replacements, "At least one replacement must be provided");
+		this.groups = new int[replacements.size()];
+		this.replaceFirstGroup = new boolean[replacements.size()];
+		this.replacements = new String[replacements.size()];
+		List<String> alternatives = new ArrayList<>(replacements.size());
+		int index = 0;
+		int group = 1;
+		for (Map.Entry<Pattern, String> replacement : replacements.entrySet()) {
+			Pattern pattern = replacement.getKey();
+			int groupCount = pattern.matcher("").groupCount();
+			this.groups[index] = group;
+			this.replaceFirstGroup[index] = groupCount > 0;
+			this.replacements[index] = replacement.getValue();
+			alternatives.add("(" + inlineFlags(pattern) + ")");
+			group += groupCount + 1;
+			index++;
+		}
+		this.pattern = Pattern.compile(String.join("|", alternatives));
+		this.fallbackCharset = fallbackCharset;
+	}
+
+	private static String inlineFlags(Pattern pattern) {
+		int flags = pattern.flags();
+		Assert.isTrue((flags & Pattern.CANON_EQ) == 0,
+				() -> "Pattern '" + pattern + "' uses the unsupported CANON_EQ flag");
+		if ((flags & Pattern.LITERAL) != 0) {
+			return Pattern.quote(pattern.pattern());
+		}
+		StringBuilder inline = new StringBuilder();
+		appendFlag(inline, flags, Pattern.CASE_INSENSITIVE, 'i');
+		appendFlag(inline, flags, Pattern.MULTILINE, 'm');
+		appendFlag(inline, flags, Pattern.DOTALL, 's');
+		appendFlag(inline, flags, Pattern.UNICODE_CASE, 'u');
+		appendFlag(inline, flags, Pattern.COMMENTS, 'x');
+		appendFlag(inline, flags, Pattern.UNIX_LINES, 'd');
+		appendFlag(inline, flags, Pattern.UNICODE_CHARACTER_CLASS, 'U');
+		if (inline.length() == 0) {
+			return pattern.pattern();
+		}
+		// With COMMENTS, a trailing comment would otherwise swallow the closing parenthesis
+		String end = ((flags & Pattern.COMMENTS) != 0) ? "\n)" : ")";
+		return "(?" + inline + ":" + pattern.pattern() + end;
+	}
+
+	private static void appendFlag(StringBuilder inline, int flags, int flag, char character) {
+		if ((flags & flag) != 0) {
+			inline.append(character);
+		}
+	}
+
+	@Override
+	public Charset getCharset(MediaType contentType) {
+		return (contentType != null && contentType.getCharset() != null) ? contentType.getCharset()
+				: this.fallbackCharset;
+	}
+
+	@Override
+	public CharSequence modifyText(CharSequence original) {
+		Matcher matcher = this.pattern.matcher(original);
+		if (!matcher.find()) {
+			return original;
+		}
+		StringBuilder builder = new StringBuilder(original.length());
+		int previous = 0;
+		do {
+			int index = matchingIndex(matcher);
+			int group = this.replaceFirstGroup[index] ? this.groups[index] + 1 : this.groups[index];
+			if (matcher.start(group) >= 0) {
+				builder.append(original, previous, matcher.start(group));
+				builder.append(this.replacements[index]);
+				previous = matcher.end(group);
+			}
+		}
+		while (matcher.find());
+		if (previous < original.length()) {
+			builder.append(original, previous, original.length());
+		}
+		return builder;
+	}
+
+	private int matchingIndex(Matcher matcher) {
+		for (int i = 0; i < this.groups.length - 1; i++) {
+			if (matcher.start(this.groups[i]) >= 0) {
+				return i;
+			}
+		}
+		return this.groups.length - 1;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,7 +29,7 @@ import org.springframework.http.MediaType;
  * @author Andy Wilkinson
  * @author Dewet Diener
  */
-class PatternReplacingContentModifier implements ContentModifier {
+class PatternReplacingContentModifier implements TextContentModifier {
 
 	private final Pattern pattern;
 
@@ -65,30 +65,35 @@ class PatternReplacingContentModifier implements ContentModifier {
 	}
 
 	@Override
-	public byte[] modifyContent(byte[] content, MediaType contentType) {
-		Charset charset = (contentType != null && contentType.getCharset() != null) ? contentType.getCharset()
+	public Charset getCharset(MediaType contentType) {
+		return (contentType != null && contentType.getCharset() != null) ? contentType.getCharset()
 				: this.fallbackCharset;
-		String original = new String(content, charset);
+	}
+
+	@Override
+	public CharSequence modifyText(CharSequence original) {
 		Matcher matcher = this.pattern.matcher(original);
-		StringBuilder builder = new StringBuilder();
+		if (!matcher.find()) {
+			return original;
+		}
+		StringBuilder builder = new StringBuilder(original.length());
 		int previous = 0;
-		while (matcher.find()) {
-			String prefix;
+		do {
 			if (matcher.groupCount() > 0) {
-				prefix = original.substring(previous, matcher.start(1));
+				builder.append(original, previous, matcher.start(1));
 				previous = matcher.end(1);
 			}
 			else {
-				prefix = original.substring(previous, matcher.start());
+				builder.append(original, previous, matcher.start());
 				previous = matcher.end();
 			}
-			builder.append(prefix);
 			builder.append(this.replacement);
 		}
+		while (matcher.find());
 		if (previous < original.length()) {
-			builder.append(original.substring(previous));
+			builder.append(original, previous, original.length());
 		}
-		return builder.toString().getBytes(charset);
+		return builder;
 	}
 
 }
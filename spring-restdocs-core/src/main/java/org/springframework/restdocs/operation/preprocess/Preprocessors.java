@@ -17,11 +17,14 @@
 package org.springframework.restdocs.operation.preprocess;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.util.Assert;
 
 /**
  * Static factory methods for creating {@link OperationPreprocessor
@@ -137,6 +140,29 @@ public final class Preprocessors {
 		return new ContentModifyingOperationPreprocessor(new PatternReplacingContentModifier(pattern, replacement));
 	}
 
+	/**
+	 * Returns an {@code OperationPreprocessor} that will modify the content of the
+	 * request or response by replacing occurrences of each of the given patterns with its
+	 * replacement. Unlike applying {@link #replacePattern(Pattern, String)} once for each
+	 * pattern, the content is scanned once with the first pattern that matches at each
+	 * position being replaced. Replaced content is not matched again. The patterns must
+	 * not use numbered back references.
+	 * <p>
+	 * The patterns are tried in the iteration order of the given map, which is copied when
+	 * this method is called. A map with a predictable iteration order, such as a
+	 * {@link LinkedHashMap}, should be used when more than one pattern may match at the
+	 * same position.
+	 * @param replacements the replacements, keyed by pattern, in the order in which the
+	 * patterns should be tried
+	 * @return the preprocessor
+	 * @since 3.0.0
+	 */
+	public static OperationPreprocessor replacePatterns(Map<Pattern, String> replacements) {
+		Assert.notEmpty(replacements, "At least one replacement must be provided");
+		return new ContentModifyingOperationPreprocessor(
+				new MultiPatternReplacingContentModifier(new LinkedHashMap<>(replacements)));
+	}
+
 	/**
 	 * Returns a {@code ParametersModifyingOperationPreprocessor} that can then be
 	 * configured to modify the parameters of the request.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXSource;
@@ -44,23 +45,33 @@ import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
 
 import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.ParsedContentCache;
 
 /**
- * A {@link ContentModifier} that modifies the content by pretty printing it.
+ * A {@link ContentModifier} that modifies the content by pretty printing it. JSON and XML
+ * content are supported. The format of the content is identified from its type or,
+ * failing that, from its first character.
  *
  * @author Andy Wilkinson
  */
 public class PrettyPrintingContentModifier implements ContentModifier {
 
-	private static final List<PrettyPrinter> PRETTY_PRINTERS = Collections
-			.unmodifiableList(Arrays.asList(new JsonPrettyPrinter(), new XmlPrettyPrinter()));
+	private static final PrettyPrinter JSON_PRETTY_PRINTER = new JsonPrettyPrinter();
+
+	private static final PrettyPrinter XML_PRETTY_PRINTER = new XmlPrettyPrinter();
+
+	private static final List<PrettyPrinter> JSON_FIRST = Collections
+			.unmodifiableList(Arrays.asList(JSON_PRETTY_PRINTER, XML_PRETTY_PRINTER));
+
+	private static final List<PrettyPrinter> XML_FIRST = Collections
+			.unmodifiableList(Arrays.asList(XML_PRETTY_PRINTER, JSON_PRETTY_PRINTER));
 
 	@Override
 	public byte[] modifyContent(byte[] originalContent, MediaType contentType) {
 		if (originalContent.length > 0) {
-			for (PrettyPrinter prettyPrinter : PRETTY_PRINTERS) {
+			for (PrettyPrinter prettyPrinter : getPrettyPrinters(originalContent, contentType)) {
 				try {
-					return prettyPrinter.prettyPrint(originalContent);
+					return prettyPrinter.prettyPrint(originalContent, contentType);
 				}
 				catch (Exception ex) {
 					// Continue
@@ -70,30 +81,104 @@ public class PrettyPrintingContentModifier implements ContentModifier {
 		return originalContent;
 	}
 
+	private List<PrettyPrinter> getPrettyPrinters(byte[] content, MediaType contentType) {
+		if (hasSubtypeOrSuffix(contentType, "json")) {
+			return JSON_FIRST;
+		}
+		if (hasSubtypeOrSuffix(contentType, "xml")) {
+			return XML_FIRST;
+		}
+		int firstCharacter = getFirstCharacter(content);
+		if (firstCharacter == '<') {
+			return Collections.singletonList(XML_PRETTY_PRINTER);
+		}
+		return (firstCharacter != -1) ? Collections.singletonList(JSON_PRETTY_PRINTER) : JSON_FIRST;
+	}
+
+	private boolean hasSubtypeOrSuffix(MediaType contentType, String subtype) {
+		return contentType != null
+				&& (subtype.equals(contentType.getSubtype()) || subtype.equals(contentType.getSubtypeSuffix()));
+	}
+
+	private int getFirstCharacter(byte[] content) {
+		int index = hasUtf8ByteOrderMark(content) ? 3 : 0;
+		while (index < content.length) {
+			byte b = content[index++];
+			if (b == 0 || b == (byte) 0xFE || b == (byte) 0xFF) {
+				// UTF-16 or UTF-32 encoded content
+				return -1;
+			}
+			if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+				return b;
+			}
+		}
+		return -1;
+	}
+
+	private boolean hasUtf8ByteOrderMark(byte[] content) {
+		return content.length >= 3 && content[0] == (byte) 0xEF && content[1] == (byte) 0xBB
+				&& content[2] == (byte) 0xBF;
+	}
+
 	private interface PrettyPrinter {
 
-		byte[] prettyPrint(byte[] content) throws Exception;
+		byte[] prettyPrint(byte[] content, MediaType contentType) throws Exception;
 
 	}
 
 	private static final class XmlPrettyPrinter implements PrettyPrinter {
 
+		private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+		private final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+
+		private final ThreadLocal<Transformer> transformer = new ThreadLocal<>();
+
+		private final ThreadLocal<SAXParser> parser = new ThreadLocal<>();
+
 		@Override
-		public byte[] prettyPrint(byte[] original) throws Exception {
-			Transformer transformer = TransformerFactory.newInstance().newTransformer();
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-			transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-			transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, "yes");
-			ByteArrayOutputStream transformed = new ByteArrayOutputStream();
-			transformer.setErrorListener(new SilentErrorListener());
-			transformer.transform(createSaxSource(original), new StreamResult(transformed));
-
-			return transformed.toByteArray();
+		public byte[] prettyPrint(byte[] original, MediaType contentType) throws Exception {
+			Transformer transformer = getTransformer();
+			SAXParser parser = getParser();
+			try {
+				transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+				transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+				transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, "yes");
+				ByteArrayOutputStream transformed = new ByteArrayOutputStream();
+				transformer.setErrorListener(new SilentErrorListener());
+				transformer.transform(createSaxSource(parser, original), new StreamResult(transformed));
+
+				return transformed.toByteArray();
+			}
+			finally {
+				transformer.reset();
+				parser.reset();
+			}
+		}
+
+		private Transformer getTransformer() throws TransformerConfigurationException {
+			Transformer transformer = this.transformer.get();
+			if (transformer == null) {
+				synchronized (this.transformerFactory) {
+					transformer = this.transformerFactory.newTransformer();
+				}
+				this.transformer.set(transformer);
+			}
+			return transformer;
+		}
+
+		private SAXParser getParser() throws ParserConfigurationException, SAXException {
+			SAXParser parser = this.parser.get();
+			if (parser == null) {
+				synchronized (this.parserFactory) {
+					parser = this.parserFactory.newSAXParser();
+				}
+				this.parser.set(parser);
+			}
+			return parser;
 		}
 
-		private SAXSource createSaxSource(byte[] original) throws ParserConfigurationException, SAXException {
-			SAXParserFactory parserFactory = SAXParserFactory.newInstance();
-			SAXParser parser = parserFactory.newSAXParser();
+		private SAXSource createSaxSource(SAXParser parser, byte[] original) throws SAXException {
 			XMLReader xmlReader = parser.getXMLReader();
 			xmlReader.setErrorHandler(new SilentErrorHandler());
 			return new SAXSource(xmlReader, new InputSource(new ByteArrayInputStream(original)));
@@ -145,8 +230,11 @@ public class PrettyPrintingContentModifier implements ContentModifier {
 				.configure(DeserializationFeature.FAIL_ON_TRAILING_TOKENS, true);
 
 		@Override
-		public byte[] prettyPrint(byte[] original) throws IOException {
-			return this.objectMapper.writeValueAsBytes(this.objectMapper.readTree(original));
+		public byte[] prettyPrint(byte[] original, MediaType contentType) throws IOException {
+			Object content = this.objectMapper.readValue(original, Object.class);
+			byte[] prettyPrinted = this.objectMapper.writeValueAsBytes(content);
+			ParsedContentCache.put(prettyPrinted, contentType, Object.class, content);
+			return prettyPrinted;
 		}
 
 	}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.restdocs.operation.preprocess;
+
+import java.nio.charset.Charset;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A {@link ContentModifier} that modifies content as text. Adjacent text content
+ * modifiers that use the same charset can share a single decoding and encoding of the
+ * content.
+ *
+ * @author Andy Wilkinson
+ * @see CompositeContentModifier
+ */
+interface TextContentModifier extends ContentModifier {
+
+	/**
+	 * Returns the charset used to decode and encode content of the given
+	 * {@code contentType}.
+	 * @param contentType the type of the content, may be {@code null}
+	 * @return the charset
+	 */
+	Charset getCharset(MediaType contentType);
+
+	/**
+	 * Returns modified text based on the given {@code text}.
+	 * @param text the text
+	 * @return the modified text
+	 */
+	CharSequence modifyText(CharSequence text);
+
+	@Override
+	default byte[] modifyContent(byte[] originalContent, MediaType contentType) {
+		Charset charset = getCharset(contentType);
+		return modifyText(new String(originalContent, charset)).toString().getBytes(charset);
+	}
+
+}
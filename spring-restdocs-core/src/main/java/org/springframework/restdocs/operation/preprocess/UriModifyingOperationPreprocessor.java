@@ -131,12 +131,14 @@ public class UriModifyingOperationPreprocessor implements OperationPreprocessor
 			}
 		}
 		URI modifiedUri = uriBuilder.build(true).toUri();
-		HttpHeaders modifiedHeaders = modify(request.getHeaders());
+		HttpHeaders modifiedHeaders = new HttpHeaders();
+		modify(request.getHeaders(), modifiedHeaders);
 		modifiedHeaders.set(HttpHeaders.HOST,
 				modifiedUri.getHost() + ((modifiedUri.getPort() != -1) ? ":" + modifiedUri.getPort() : ""));
 		return this.contentModifyingDelegate.preprocess(new OperationRequestFactory().create(
-				uriBuilder.build(true).toUri(), request.getMethod(), request.getContent(), modifiedHeaders,
-				request.getParameters(), modify(request.getParts()), request.getCookies()));
+				uriBuilder.build(true).toUri(), request.getMethod(), request.getContent(),
+				HttpHeaders.readOnlyHttpHeaders(modifiedHeaders), request.getParameters(),
+				modify(request.getParts()), request.getCookies()));
 	}
 
 	@Override
@@ -147,12 +149,19 @@ public class UriModifyingOperationPreprocessor implements OperationPreprocessor
 
 	private HttpHeaders modify(HttpHeaders headers) {
 		HttpHeaders modified = new HttpHeaders();
+		return modify(headers, modified) ? modified : headers;
+	}
+
+	private boolean modify(HttpHeaders headers, HttpHeaders modified) {
+		boolean changed = false;
 		for (Entry<String, List<String>> header : headers.entrySet()) {
 			for (String value : header.getValue()) {
-				modified.add(header.getKey(), this.contentModifier.modify(value));
+				String modifiedValue = this.contentModifier.modify(value);
+				changed = changed || !modifiedValue.equals(value);
+				modified.add(header.getKey(), modifiedValue);
 			}
 		}
-		return modified;
+		return changed;
 	}
 
 	private Collection<OperationRequestPart> modify(Collection<OperationRequestPart> parts) {
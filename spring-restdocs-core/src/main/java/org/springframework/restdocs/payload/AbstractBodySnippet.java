@@ -17,12 +17,14 @@
 package org.springframework.restdocs.payload;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.ModelCreationException;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 
@@ -75,12 +77,16 @@ public abstract class AbstractBodySnippet extends TemplatedSnippet {
 		try {
 			MediaType contentType = getContentType(operation);
 			String language = determineLanguage(contentType);
-			byte[] content = getContent(operation);
+			Charset charset = extractCharset(contentType);
+			String body;
 			if (this.subsectionExtractor != null) {
-				content = this.subsectionExtractor.extractSubsection(content, contentType);
+				byte[] content = this.subsectionExtractor.extractSubsection(getContent(operation), contentType);
+				body = (charset != null) ? new String(content, charset) : new String(content);
+			}
+			else {
+				body = ((charset != null) ? charset : Charset.defaultCharset())
+						.decode(getContentAsByteBuffer(operation)).toString();
 			}
-			Charset charset = extractCharset(contentType);
-			String body = (charset != null) ? new String(content, charset) : new String(content);
 			Map<String, Object> model = new HashMap<>();
 			model.put("language", language);
 			model.put("body", body);
@@ -114,6 +120,21 @@ public abstract class AbstractBodySnippet extends TemplatedSnippet {
 	 */
 	protected abstract byte[] getContent(Operation operation) throws IOException;
 
+	/**
+	 * Returns a read-only view of the content of the request or response extracted from
+	 * the given {@code operation}. Used in preference to {@link #getContent(Operation)}
+	 * when the whole of the content is documented. The default implementation wraps the
+	 * result of {@link #getContent(Operation)}. Subclasses should override it when the
+	 * content can be accessed without being copied.
+	 * @param operation the operation
+	 * @return the content
+	 * @throws IOException if the content cannot be extracted
+	 * @since 3.0.0
+	 */
+	protected ByteBuffer getContentAsByteBuffer(Operation operation) throws IOException {
+		return ByteBuffer.wrap(getContent(operation));
+	}
+
 	/**
 	 * Returns the content type of the request or response extracted from the given
 	 * {@code operation}.
@@ -122,4 +143,9 @@ public abstract class AbstractBodySnippet extends TemplatedSnippet {
 	 */
 	protected abstract MediaType getContentType(Operation operation);
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.subsectionExtractor);
+	}
+
 }
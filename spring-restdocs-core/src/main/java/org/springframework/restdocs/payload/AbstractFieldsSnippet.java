@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,14 +18,18 @@ package org.springframework.restdocs.payload;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.MediaType;
+import org.springframework.restdocs.instrumentation.FlightRecorderEvents;
+import org.springframework.restdocs.instrumentation.PayloadParsingEvent;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.snippet.Attributes;
 import org.springframework.restdocs.snippet.Attributes.Attribute;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.ModelCreationException;
 import org.springframework.restdocs.snippet.SnippetException;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
@@ -42,6 +46,28 @@ import org.springframework.util.StringUtils;
  */
 public abstract class AbstractFieldsSnippet extends TemplatedSnippet {
 
+	/**
+	 * Name of the operation attribute used to hold the size, in bytes, above which JSON
+	 * content is processed as a stream of tokens rather than being read into memory.
+	 * @since 3.0.0
+	 */
+	public static final String ATTRIBUTE_NAME_STREAMING_THRESHOLD = "org.springframework.restdocs.payload.streamingThreshold";
+
+	/**
+	 * The default size, in bytes, above which JSON content is processed as a stream of
+	 * tokens rather than being read into memory.
+	 * @since 3.0.0
+	 */
+	public static final long DEFAULT_STREAMING_THRESHOLD = 16 * 1024 * 1024;
+
+	/**
+	 * Name of the operation attribute used to hold the {@link ContentHandlerFactory
+	 * ContentHandlerFactories} that are consulted before content is handled as JSON or
+	 * XML.
+	 * @since 3.0.0
+	 */
+	public static final String ATTRIBUTE_NAME_CONTENT_HANDLER_FACTORIES = "org.springframework.restdocs.payload.contentHandlerFactories";
+
 	private final List<FieldDescriptor> fieldDescriptors;
 
 	private final boolean ignoreUndocumentedFields;
@@ -154,10 +180,15 @@ public abstract class AbstractFieldsSnippet extends TemplatedSnippet {
 			content = verifyContent(
 					this.subsectionExtractor.extractSubsection(content, contentType, this.fieldDescriptors));
 		}
+		PayloadParsingEvent event = FlightRecorderEvents.isEnabled() ? new PayloadParsingEvent(operation.getName(),
+				getSnippetName(), (contentType != null) ? contentType.toString() : null, content.length) : null;
 		ContentHandler contentHandler = ContentHandler.forContentWithDescriptors(content, contentType,
-				this.fieldDescriptors);
+				this.fieldDescriptors, getStreamingThreshold(operation), getContentHandlerFactories(operation));
 
 		validateFieldDocumentation(contentHandler);
+		if (event != null) {
+			event.complete();
+		}
 
 		List<FieldDescriptor> descriptorsToDocument = new ArrayList<>();
 		for (FieldDescriptor descriptor : this.fieldDescriptors) {
@@ -186,6 +217,18 @@ public abstract class AbstractFieldsSnippet extends TemplatedSnippet {
 		return model;
 	}
 
+	private long getStreamingThreshold(Operation operation) {
+		Object streamingThreshold = operation.getAttributes().get(ATTRIBUTE_NAME_STREAMING_THRESHOLD);
+		return (streamingThreshold instanceof Number) ? ((Number) streamingThreshold).longValue()
+				: DEFAULT_STREAMING_THRESHOLD;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ContentHandlerFactory> getContentHandlerFactories(Operation operation) {
+		Object factories = operation.getAttributes().get(ATTRIBUTE_NAME_CONTENT_HANDLER_FACTORIES);
+		return (factories instanceof List) ? (List<ContentHandlerFactory>) factories : Collections.emptyList();
+	}
+
 	private byte[] verifyContent(byte[] content) {
 		if (content.length == 0) {
 			throw new SnippetException(
@@ -298,4 +341,10 @@ public abstract class AbstractFieldsSnippet extends TemplatedSnippet {
 		return attributes.toArray(new Attribute[attributes.size()]);
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.add(this.fieldDescriptors).add(this.ignoreUndocumentedFields).add(this.type)
+				.add(this.subsectionExtractor);
+	}
+
 }
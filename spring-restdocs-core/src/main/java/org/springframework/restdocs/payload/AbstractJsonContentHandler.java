@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Abstract base class for {@link ContentHandler ContentHandlers} that handle JSON
+ * payloads, independent of how the payload is read.
+ *
+ * @author Andy Wilkinson
+ * @author Mathias Düsterhöft
+ */
+abstract class AbstractJsonContentHandler implements ContentHandler {
+
+	private final Collection<FieldDescriptor> fieldDescriptors;
+
+	AbstractJsonContentHandler(Collection<FieldDescriptor> fieldDescriptors) {
+		this.fieldDescriptors = fieldDescriptors;
+	}
+
+	@Override
+	public List<FieldDescriptor> findMissingFields() {
+		List<FieldDescriptor> missingFields = new ArrayList<>();
+		for (FieldDescriptor fieldDescriptor : this.fieldDescriptors) {
+			if (isMissing(fieldDescriptor)) {
+				missingFields.add(fieldDescriptor);
+			}
+		}
+
+		return missingFields;
+	}
+
+	boolean isMissing(FieldDescriptor descriptor) {
+		return !descriptor.isOptional() && !hasField(descriptor.getPath())
+				&& !isNestedBeneathMissingOptionalField(descriptor);
+	}
+
+	private boolean isNestedBeneathMissingOptionalField(FieldDescriptor descriptor) {
+		List<FieldDescriptor> candidates = new ArrayList<>(this.fieldDescriptors);
+		candidates.remove(descriptor);
+		for (FieldDescriptor candidate : candidates) {
+			if (candidate.isOptional() && descriptor.getPath().startsWith(candidate.getPath())
+					&& isMissingCandidate(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isMissingCandidate(FieldDescriptor candidate) {
+		return !hasField(candidate.getPath()) || isNullOrEmpty(candidate.getPath());
+	}
+
+	@Override
+	public Object resolveFieldType(FieldDescriptor fieldDescriptor) {
+		if (fieldDescriptor.getType() == null) {
+			return discoverFieldTypes(fieldDescriptor.getPath()).coalesce(fieldDescriptor.isOptional());
+		}
+		if (!(fieldDescriptor.getType() instanceof JsonFieldType)) {
+			return fieldDescriptor.getType();
+		}
+		JsonFieldType descriptorFieldType = (JsonFieldType) fieldDescriptor.getType();
+		try {
+			JsonFieldType actualFieldType = discoverFieldTypes(fieldDescriptor.getPath())
+					.coalesce(fieldDescriptor.isOptional());
+			if (descriptorFieldType == JsonFieldType.VARIES || descriptorFieldType == actualFieldType
+					|| (fieldDescriptor.isOptional() && actualFieldType == JsonFieldType.NULL)
+					|| (isNestedBeneathMissingOptionalField(fieldDescriptor)
+							&& actualFieldType == JsonFieldType.VARIES)) {
+				return descriptorFieldType;
+			}
+			throw new FieldTypesDoNotMatchException(fieldDescriptor, actualFieldType);
+		}
+		catch (FieldDoesNotExistException ex) {
+			return fieldDescriptor.getType();
+		}
+	}
+
+	/**
+	 * Returns the descriptors of the fields in the payload.
+	 * @return the field descriptors
+	 */
+	protected final Collection<FieldDescriptor> getFieldDescriptors() {
+		return this.fieldDescriptors;
+	}
+
+	/**
+	 * Returns whether the payload contains the field with the given {@code path}.
+	 * @param path the path of the field
+	 * @return {@code true} if the field is present, otherwise {@code false}
+	 */
+	protected abstract boolean hasField(String path);
+
+	/**
+	 * Returns whether the value of the field with the given {@code path}, that is known
+	 * to be present in the payload, is {@code null} or a collection that, recursively,
+	 * contains only empty collections.
+	 * @param path the path of the field
+	 * @return {@code true} if the value is null or empty, otherwise {@code false}
+	 */
+	protected abstract boolean isNullOrEmpty(String path);
+
+	/**
+	 * Discovers the types of the field with the given {@code path}.
+	 * @param path the path of the field
+	 * @return the discovered types
+	 * @throws FieldDoesNotExistException if the field is not present in the payload
+	 */
+	protected abstract JsonFieldTypes discoverFieldTypes(String path);
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The formats of content that can be handled without further configuration, and the
+ * identification of the format of some content from its type and its first character.
+ *
+ * @author Andy Wilkinson
+ */
+enum ContentFormat {
+
+	/**
+	 * JSON content.
+	 */
+	JSON,
+
+	/**
+	 * XML content.
+	 */
+	XML;
+
+	private static final List<ContentFormat> JSON_FIRST = Collections.unmodifiableList(Arrays.asList(JSON, XML));
+
+	private static final List<ContentFormat> XML_FIRST = Collections.unmodifiableList(Arrays.asList(XML, JSON));
+
+	/**
+	 * Returns the formats that should be tried, in order, when handling the given
+	 * {@code content}. The format is identified from the {@code contentType} where
+	 * possible, with the other format being tried should the content fail to parse.
+	 * Otherwise, the format is identified from the first character of the content. As
+	 * JSON content cannot begin with {@code <} and XML content must do so, only one
+	 * format is returned in that case. If neither identifies the format, both are
+	 * returned.
+	 * @param content the content
+	 * @param contentType the type of the content, may be {@code null}
+	 * @return the formats to try
+	 */
+	static List<ContentFormat> candidatesFor(byte[] content, MediaType contentType) {
+		if (isJson(contentType)) {
+			return JSON_FIRST;
+		}
+		if (isXml(contentType)) {
+			return XML_FIRST;
+		}
+		ContentFormat sniffed = sniff(content);
+		return (sniffed != null) ? Collections.singletonList(sniffed) : JSON_FIRST;
+	}
+
+	private static boolean isJson(MediaType contentType) {
+		return contentType != null && ("json".equals(contentType.getSubtype())
+				|| "json".equals(contentType.getSubtypeSuffix()));
+	}
+
+	private static boolean isXml(MediaType contentType) {
+		return contentType != null && ("xml".equals(contentType.getSubtype())
+				|| "xml".equals(contentType.getSubtypeSuffix()));
+	}
+
+	private static ContentFormat sniff(byte[] content) {
+		int index = hasUtf8ByteOrderMark(content) ? 3 : 0;
+		while (index < content.length) {
+			byte b = content[index++];
+			if (b == '<') {
+				return XML;
+			}
+			if (b == 0 || b == (byte) 0xFE || b == (byte) 0xFF) {
+				// UTF-16 or UTF-32 encoded content
+				return null;
+			}
+			if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+				return JSON;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasUtf8ByteOrderMark(byte[] content) {
+		return content.length >= 3 && content[0] == (byte) 0xEF && content[1] == (byte) 0xBB
+				&& content[2] == (byte) 0xBF;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.restdocs.payload;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.http.MediaType;
@@ -25,8 +26,10 @@ import org.springframework.http.MediaType;
  *
  * @author Andy Wilkinson
  * @author Mathias Düsterhöft
+ * @since 3.0.0
+ * @see ContentHandlerFactory
  */
-interface ContentHandler extends FieldTypeResolver {
+public interface ContentHandler extends FieldTypeResolver {
 
 	/**
 	 * Finds the fields that are missing from the handler's payload. A field is missing if
@@ -58,18 +61,76 @@ interface ContentHandler extends FieldTypeResolver {
 	 */
 	static ContentHandler forContentWithDescriptors(byte[] content, MediaType contentType,
 			List<FieldDescriptor> descriptors) {
-		try {
-			return new JsonContentHandler(content, descriptors);
+		return forContentWithDescriptors(content, contentType, descriptors,
+				AbstractFieldsSnippet.DEFAULT_STREAMING_THRESHOLD);
+	}
+
+	/**
+	 * Create a {@link ContentHandler} for the given content type and payload, described
+	 * by the given descriptors. JSON content that is larger than the given
+	 * {@code streamingThreshold} is handled as a stream of tokens rather than being read
+	 * into memory.
+	 * @param content the payload
+	 * @param contentType the content type
+	 * @param descriptors descriptors of the content
+	 * @param streamingThreshold the size, in bytes, above which JSON content is streamed
+	 * @return the ContentHandler
+	 * @throws PayloadHandlingException if no known ContentHandler can handle the content
+	 */
+	static ContentHandler forContentWithDescriptors(byte[] content, MediaType contentType,
+			List<FieldDescriptor> descriptors, long streamingThreshold) {
+		return forContentWithDescriptors(content, contentType, descriptors, streamingThreshold,
+				Collections.emptyList());
+	}
+
+	/**
+	 * Create a {@link ContentHandler} for the given content type and payload, described
+	 * by the given descriptors. The first of the given {@code factories} that supports
+	 * the content type is used to create the handler. Otherwise, the content is handled
+	 * as JSON or XML, with the format being identified from the content type or, failing
+	 * that, from the content itself. JSON content that is larger than the given
+	 * {@code streamingThreshold} is handled as a stream of tokens rather than being read
+	 * into memory.
+	 * @param content the payload
+	 * @param contentType the content type
+	 * @param descriptors descriptors of the content
+	 * @param streamingThreshold the size, in bytes, above which JSON content is streamed
+	 * @param factories the factories to consult before the built-in handlers
+	 * @return the ContentHandler
+	 * @throws PayloadHandlingException if no known ContentHandler can handle the content
+	 */
+	static ContentHandler forContentWithDescriptors(byte[] content, MediaType contentType,
+			List<FieldDescriptor> descriptors, long streamingThreshold, List<ContentHandlerFactory> factories) {
+		for (ContentHandlerFactory factory : factories) {
+			if (factory.supports(contentType)) {
+				return factory.createContentHandler(content, contentType, descriptors);
+			}
 		}
-		catch (Exception je) {
+		for (ContentFormat format : ContentFormat.candidatesFor(content, contentType)) {
+			try {
+				return (format == ContentFormat.JSON)
+						? createJsonContentHandler(content, contentType, descriptors, streamingThreshold)
+						: new XmlContentHandler(content, descriptors);
+			}
+			catch (Exception ex) {
+				// Try the next format
+			}
+		}
+		throw new PayloadHandlingException(
+				"Cannot handle " + contentType + " content as it could not be parsed as JSON or XML");
+	}
+
+	private static ContentHandler createJsonContentHandler(byte[] content, MediaType contentType,
+			List<FieldDescriptor> descriptors, long streamingThreshold) {
+		if (content.length > streamingThreshold) {
 			try {
-				return new XmlContentHandler(content, descriptors);
+				return new StreamingJsonContentHandler(content, descriptors);
 			}
-			catch (Exception xe) {
-				throw new PayloadHandlingException(
-						"Cannot handle " + contentType + " content as it could not be parsed as JSON or XML");
+			catch (StreamingJsonContentHandler.StreamingNotSupportedException ex) {
+				// Fall back to reading the content into memory
 			}
 		}
+		return new JsonContentHandler(content, contentType, descriptors);
 	}
 
 }
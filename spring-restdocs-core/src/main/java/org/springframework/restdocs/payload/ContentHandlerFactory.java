@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A factory for {@link ContentHandler ContentHandlers} that handle content in a format
+ * other than JSON or XML, or that handle JSON or XML content differently. Factories are
+ * consulted in the order in which they are configured and the first that supports the
+ * content's type is used in preference to the built-in JSON and XML handling.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see org.springframework.restdocs.config.SnippetConfigurer#withContentHandlerFactories(ContentHandlerFactory...)
+ */
+public interface ContentHandlerFactory {
+
+	/**
+	 * Returns whether this factory can create a {@link ContentHandler} for content of the
+	 * given {@code contentType}.
+	 * @param contentType the content type, may be {@code null}
+	 * @return {@code true} if the content type is supported, otherwise {@code false}
+	 */
+	boolean supports(MediaType contentType);
+
+	/**
+	 * Creates a {@link ContentHandler} for the given {@code content}, described by the
+	 * given {@code descriptors}.
+	 * @param content the content
+	 * @param contentType the type of the content
+	 * @param descriptors the descriptors of the content
+	 * @return the content handler
+	 * @throws PayloadHandlingException if the content cannot be handled
+	 */
+	ContentHandler createContentHandler(byte[] content, MediaType contentType, List<FieldDescriptor> descriptors);
+
+}
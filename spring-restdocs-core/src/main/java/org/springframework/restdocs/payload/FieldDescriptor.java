@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.restdocs.payload;
 
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.IgnorableDescriptor;
 
 /**
@@ -87,4 +88,10 @@ public class FieldDescriptor extends IgnorableDescriptor<FieldDescriptor> {
 		return this.optional;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		super.contributeTo(fingerprint);
+		fingerprint.add(this.path).add(this.type).add(this.optional);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,7 +28,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.ParsedContentCache;
 import org.springframework.restdocs.payload.JsonFieldProcessor.ExtractedField;
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 
 /**
  * A {@link PayloadSubsectionExtractor} that extracts the subsection of the JSON payload
@@ -39,7 +42,7 @@ import org.springframework.restdocs.payload.JsonFieldProcessor.ExtractedField;
  * @see PayloadDocumentation#beneathPath(String)
  */
 public class FieldPathPayloadSubsectionExtractor
-		implements PayloadSubsectionExtractor<FieldPathPayloadSubsectionExtractor> {
+		implements PayloadSubsectionExtractor<FieldPathPayloadSubsectionExtractor>, Fingerprintable {
 
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -80,8 +83,9 @@ public class FieldPathPayloadSubsectionExtractor
 	@Override
 	public byte[] extractSubsection(byte[] payload, MediaType contentType, List<FieldDescriptor> descriptors) {
 		try {
-			ExtractedField extractedField = new JsonFieldProcessor().extract(this.fieldPath,
-					objectMapper.readValue(payload, Object.class));
+			Object content = ParsedContentCache.get(payload, contentType, Object.class,
+					(json) -> objectMapper.readValue(json, Object.class));
+			ExtractedField extractedField = new JsonFieldProcessor().extract(this.fieldPath, content);
 			Object value = extractedField.getValue();
 			if (value == ExtractedField.ABSENT) {
 				throw new PayloadHandlingException(this.fieldPath + " does not identify a section of the payload");
@@ -95,7 +99,8 @@ public class FieldPathPayloadSubsectionExtractor
 				if (extractedList.isEmpty()) {
 					throw new PayloadHandlingException(this.fieldPath + " identifies an empty section of the payload");
 				}
-				JsonContentHandler contentHandler = new JsonContentHandler(payload, descriptorsByPath.values());
+				JsonContentHandler contentHandler = new JsonContentHandler(payload, contentType,
+						descriptorsByPath.values());
 				Set<JsonFieldPath> uncommonPaths = JsonFieldPaths.from(extractedList).getUncommon().stream()
 						.map((path) -> JsonFieldPath
 								.compile((path.equals("")) ? this.fieldPath : this.fieldPath + "." + path))
@@ -116,7 +121,9 @@ public class FieldPathPayloadSubsectionExtractor
 					throw new PayloadHandlingException(message);
 				}
 			}
-			return getObjectMapper(payload).writeValueAsBytes(value);
+			byte[] subsection = getObjectMapper(payload).writeValueAsBytes(value);
+			ParsedContentCache.put(subsection, contentType, Object.class, value);
+			return subsection;
 		}
 		catch (IOException ex) {
 			throw new PayloadHandlingException(ex);
@@ -165,4 +172,9 @@ public class FieldPathPayloadSubsectionExtractor
 		return false;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		fingerprint.add(this.fieldPath).add(this.subsectionId);
+	}
+
 }
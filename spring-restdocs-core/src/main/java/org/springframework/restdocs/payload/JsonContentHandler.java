@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.restdocs.payload;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,7 +27,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
-import org.springframework.restdocs.payload.JsonFieldProcessor.ExtractedField;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.ParsedContentCache;
+import org.springframework.restdocs.payload.JsonFieldProcessor.Evaluation;
 
 /**
  * A {@link ContentHandler} for JSON content.
@@ -34,7 +37,9 @@ import org.springframework.restdocs.payload.JsonFieldProcessor.ExtractedField;
  * @author Andy Wilkinson
  * @author Mathias Düsterhöft
  */
-class JsonContentHandler implements ContentHandler {
+class JsonContentHandler extends AbstractJsonContentHandler {
+
+	private static final ObjectMapper readingObjectMapper = new ObjectMapper();
 
 	private final JsonFieldProcessor fieldProcessor = new JsonFieldProcessor();
 
@@ -42,52 +47,29 @@ class JsonContentHandler implements ContentHandler {
 
 	private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
 
-	private final byte[] rawContent;
+	private final Object content;
 
-	private final Collection<FieldDescriptor> fieldDescriptors;
+	private final Evaluation evaluation;
 
 	JsonContentHandler(byte[] content, Collection<FieldDescriptor> fieldDescriptors) {
-		this.rawContent = content;
-		this.fieldDescriptors = fieldDescriptors;
-		readContent();
-	}
-
-	@Override
-	public List<FieldDescriptor> findMissingFields() {
-		List<FieldDescriptor> missingFields = new ArrayList<>();
-		for (FieldDescriptor fieldDescriptor : this.fieldDescriptors) {
-			if (isMissing(fieldDescriptor)) {
-				missingFields.add(fieldDescriptor);
-			}
-		}
-
-		return missingFields;
+		this(content, null, fieldDescriptors);
 	}
 
-	boolean isMissing(FieldDescriptor descriptor) {
-		Object payload = readContent();
-		return !descriptor.isOptional() && !this.fieldProcessor.hasField(descriptor.getPath(), payload)
-				&& !isNestedBeneathMissingOptionalField(descriptor, payload);
+	JsonContentHandler(byte[] content, MediaType contentType, Collection<FieldDescriptor> fieldDescriptors) {
+		super(fieldDescriptors);
+		this.content = readContent(content, contentType);
+		this.evaluation = evaluate(this.content);
 	}
 
-	private boolean isNestedBeneathMissingOptionalField(FieldDescriptor descriptor, Object payload) {
-		List<FieldDescriptor> candidates = new ArrayList<>(this.fieldDescriptors);
-		candidates.remove(descriptor);
-		for (FieldDescriptor candidate : candidates) {
-			if (candidate.isOptional() && descriptor.getPath().startsWith(candidate.getPath())
-					&& isMissing(candidate, payload)) {
-				return true;
-			}
-		}
-		return false;
+	@Override
+	protected boolean hasField(String path) {
+		return this.evaluation.hasField(path);
 	}
 
-	private boolean isMissing(FieldDescriptor candidate, Object payload) {
-		if (!this.fieldProcessor.hasField(candidate.getPath(), payload)) {
-			return true;
-		}
-		ExtractedField extracted = this.fieldProcessor.extract(candidate.getPath(), payload);
-		return extracted.getValue() == null || isEmptyCollection(extracted.getValue());
+	@Override
+	protected boolean isNullOrEmpty(String path) {
+		Object value = this.evaluation.extract(path).getValue();
+		return value == null || isEmptyCollection(value);
 	}
 
 	private boolean isEmptyCollection(Object value) {
@@ -105,13 +87,14 @@ class JsonContentHandler implements ContentHandler {
 
 	@Override
 	public String getUndocumentedContent() {
-		Object content = readContent();
-		for (FieldDescriptor fieldDescriptor : this.fieldDescriptors) {
+		Object content = copy(this.content);
+		Evaluation evaluation = evaluate(content);
+		for (FieldDescriptor fieldDescriptor : getFieldDescriptors()) {
 			if (describesSubsection(fieldDescriptor)) {
-				this.fieldProcessor.removeSubsection(fieldDescriptor.getPath(), content);
+				evaluation.removeSubsection(fieldDescriptor.getPath());
 			}
 			else {
-				this.fieldProcessor.remove(fieldDescriptor.getPath(), content);
+				evaluation.remove(fieldDescriptor.getPath());
 			}
 		}
 		if (!isEmpty(content)) {
@@ -129,15 +112,44 @@ class JsonContentHandler implements ContentHandler {
 		return fieldDescriptor instanceof SubsectionDescriptor;
 	}
 
-	private Object readContent() {
+	private Evaluation evaluate(Object content) {
+		List<String> paths = new ArrayList<>();
+		for (FieldDescriptor fieldDescriptor : getFieldDescriptors()) {
+			paths.add(fieldDescriptor.getPath());
+		}
+		return this.fieldProcessor.evaluate(paths, content);
+	}
+
+	private Object readContent(byte[] rawContent, MediaType contentType) {
 		try {
-			return new ObjectMapper().readValue(this.rawContent, Object.class);
+			return ParsedContentCache.get(rawContent, contentType, Object.class,
+					(content) -> readingObjectMapper.readValue(content, Object.class));
 		}
 		catch (IOException ex) {
 			throw new PayloadHandlingException(ex);
 		}
 	}
 
+	private Object copy(Object value) {
+		if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				copy.put(entry.getKey(), copy(entry.getValue()));
+			}
+			return copy;
+		}
+		if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			List<Object> copy = new ArrayList<>(list.size());
+			for (Object item : list) {
+				copy.add(copy(item));
+			}
+			return copy;
+		}
+		return value;
+	}
+
 	private boolean isEmpty(Object object) {
 		if (object instanceof Map) {
 			return ((Map<?, ?>) object).isEmpty();
@@ -146,30 +158,8 @@ class JsonContentHandler implements ContentHandler {
 	}
 
 	@Override
-	public Object resolveFieldType(FieldDescriptor fieldDescriptor) {
-		if (fieldDescriptor.getType() == null) {
-			return this.fieldTypesDiscoverer.discoverFieldTypes(fieldDescriptor.getPath(), readContent())
-					.coalesce(fieldDescriptor.isOptional());
-		}
-		if (!(fieldDescriptor.getType() instanceof JsonFieldType)) {
-			return fieldDescriptor.getType();
-		}
-		JsonFieldType descriptorFieldType = (JsonFieldType) fieldDescriptor.getType();
-		try {
-			JsonFieldType actualFieldType = this.fieldTypesDiscoverer
-					.discoverFieldTypes(fieldDescriptor.getPath(), readContent())
-					.coalesce(fieldDescriptor.isOptional());
-			if (descriptorFieldType == JsonFieldType.VARIES || descriptorFieldType == actualFieldType
-					|| (fieldDescriptor.isOptional() && actualFieldType == JsonFieldType.NULL)
-					|| (isNestedBeneathMissingOptionalField(fieldDescriptor, readContent())
-							&& actualFieldType == JsonFieldType.VARIES)) {
-				return descriptorFieldType;
-			}
-			throw new FieldTypesDoNotMatchException(fieldDescriptor, actualFieldType);
-		}
-		catch (FieldDoesNotExistException ex) {
-			return fieldDescriptor.getType();
-		}
+	protected JsonFieldTypes discoverFieldTypes(String path) {
+		return this.fieldTypesDiscoverer.determineFieldTypes(path, this.evaluation.extract(path));
 	}
 
 }
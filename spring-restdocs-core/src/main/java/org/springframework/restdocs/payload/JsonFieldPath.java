@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,18 @@
 package org.springframework.restdocs.payload;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.util.ConcurrentLruCache;
+
 /**
- * A path that identifies a field in a JSON payload.
+ * A path that identifies a field in a JSON payload. Compiled paths are cached and the
+ * {@link Segment segments} of a compiled path are classified up front so that they can
+ * be used to traverse a payload without further parsing.
  *
  * @author Andy Wilkinson
  * @author Jeremy Rickard
@@ -35,15 +40,23 @@ final class JsonFieldPath {
 
 	private static final Pattern ARRAY_INDEX_PATTERN = Pattern.compile("\\[([0-9]+|\\*){0,1}\\]");
 
+	private static final int CACHE_SIZE_LIMIT = 1024;
+
+	private static final ConcurrentLruCache<String, JsonFieldPath> compiledPaths = new ConcurrentLruCache<>(
+			CACHE_SIZE_LIMIT, JsonFieldPath::doCompile);
+
 	private final String rawPath;
 
 	private final List<String> segments;
 
+	private final List<Segment> compiledSegments;
+
 	private final PathType type;
 
-	private JsonFieldPath(String rawPath, List<String> segments, PathType type) {
+	private JsonFieldPath(String rawPath, List<String> segments, List<Segment> compiledSegments, PathType type) {
 		this.rawPath = rawPath;
 		this.segments = segments;
+		this.compiledSegments = compiledSegments;
 		this.type = type;
 	}
 
@@ -55,6 +68,10 @@ final class JsonFieldPath {
 		return this.segments;
 	}
 
+	List<Segment> getCompiledSegments() {
+		return this.compiledSegments;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
@@ -81,29 +98,35 @@ final class JsonFieldPath {
 	}
 
 	static JsonFieldPath compile(String path) {
+		return compiledPaths.get(path);
+	}
+
+	private static JsonFieldPath doCompile(String path) {
 		List<String> segments = extractSegments(path);
-		return new JsonFieldPath(path, segments, matchesSingleValue(segments) ? PathType.SINGLE : PathType.MULTI);
+		List<Segment> compiledSegments = new ArrayList<>(segments.size());
+		for (String segment : segments) {
+			compiledSegments.add(Segment.of(segment));
+		}
+		return new JsonFieldPath(path, Collections.unmodifiableList(segments),
+				Collections.unmodifiableList(compiledSegments),
+				matchesSingleValue(compiledSegments) ? PathType.SINGLE : PathType.MULTI);
 	}
 
-	static boolean isArraySegment(String segment) {
+	private static boolean isArraySegment(String segment) {
 		return ARRAY_INDEX_PATTERN.matcher(segment).matches();
 	}
 
-	static boolean matchesSingleValue(List<String> segments) {
-		Iterator<String> iterator = segments.iterator();
+	private static boolean matchesSingleValue(List<Segment> segments) {
+		Iterator<Segment> iterator = segments.iterator();
 		while (iterator.hasNext()) {
-			String segment = iterator.next();
-			if ((isArraySegment(segment) && iterator.hasNext()) || isWildcardSegment(segment)) {
+			Segment segment = iterator.next();
+			if ((segment.isArray() && iterator.hasNext()) || segment.isMapWildcard()) {
 				return false;
 			}
 		}
 		return true;
 	}
 
-	private static boolean isWildcardSegment(String segment) {
-		return "*".equals(segment);
-	}
-
 	private static List<String> extractSegments(String path) {
 		Matcher matcher = BRACKETS_AND_ARRAY_PATTERN.matcher(path);
 
@@ -140,6 +163,87 @@ final class JsonFieldPath {
 		return segments;
 	}
 
+	/**
+	 * A segment of a compiled path.
+	 */
+	static final class Segment {
+
+		private static final Segment ARRAY = new Segment("[]", SegmentType.ARRAY_WILDCARD);
+
+		private static final Segment WILDCARD = new Segment("*", SegmentType.MAP_WILDCARD);
+
+		private final String name;
+
+		private final SegmentType type;
+
+		private Segment(String name, SegmentType type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+		SegmentType getType() {
+			return this.type;
+		}
+
+		boolean isArray() {
+			return this.type == SegmentType.ARRAY_INDEX || this.type == SegmentType.ARRAY_WILDCARD;
+		}
+
+		boolean isMapWildcard() {
+			return this.type == SegmentType.MAP_WILDCARD;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+
+		private static Segment of(String name) {
+			if (ARRAY.name.equals(name)) {
+				return ARRAY;
+			}
+			if (WILDCARD.name.equals(name)) {
+				return WILDCARD;
+			}
+			if (isArraySegment(name)) {
+				return new Segment(name, "[*]".equals(name) ? SegmentType.ARRAY_WILDCARD : SegmentType.ARRAY_INDEX);
+			}
+			return new Segment(name, SegmentType.KEY);
+		}
+
+	}
+
+	/**
+	 * The type of a segment of a field path.
+	 */
+	enum SegmentType {
+
+		/**
+		 * The segment identifies an entry in a map by its key.
+		 */
+		KEY,
+
+		/**
+		 * The segment, such as {@code [0]}, identifies an item in an array by its index.
+		 */
+		ARRAY_INDEX,
+
+		/**
+		 * The segment, {@code []} or {@code [*]}, identifies every item in an array.
+		 */
+		ARRAY_WILDCARD,
+
+		/**
+		 * The segment, {@code *}, identifies every entry in a map.
+		 */
+		MAP_WILDCARD;
+
+	}
+
 	/**
 	 * The type of a field path.
 	 */
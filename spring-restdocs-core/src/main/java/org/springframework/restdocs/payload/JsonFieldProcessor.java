@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,15 +18,20 @@ package org.springframework.restdocs.payload;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.restdocs.payload.JsonFieldPath.PathType;
+import org.springframework.restdocs.payload.JsonFieldPath.Segment;
 
 /**
  * A {@code JsonFieldProcessor} processes a payload's fields, allowing them to be
- * extracted and removed.
+ * extracted and removed. Fields can be processed one path at a time or
+ * {@link #evaluate(Collection, Object) evaluated} for many paths in a single traversal
+ * of the payload.
  *
  * @author Andy Wilkinson
  *
@@ -41,25 +46,9 @@ final class JsonFieldProcessor {
 
 	ExtractedField extract(String path, Object payload) {
 		JsonFieldPath compiledPath = JsonFieldPath.compile(path);
-		final List<Object> values = new ArrayList<>();
-		traverse(new ProcessingContext(payload, compiledPath), new MatchCallback() {
-
-			@Override
-			public void foundMatch(Match match) {
-				values.add(match.getValue());
-			}
-
-			@Override
-			public void absent() {
-				values.add(ExtractedField.ABSENT);
-			}
-
-		});
-		if (values.isEmpty()) {
-			values.add(ExtractedField.ABSENT);
-		}
-		return new ExtractedField((compiledPath.getType() != PathType.SINGLE) ? values : values.get(0),
-				compiledPath.getType());
+		ExtractingMatchCallback callback = new ExtractingMatchCallback();
+		traverse(new ProcessingContext(payload, compiledPath), callback);
+		return callback.extractedField(compiledPath.getType());
 	}
 
 	void remove(String path, Object payload) {
@@ -84,9 +73,80 @@ final class JsonFieldProcessor {
 		});
 	}
 
+	Evaluation evaluate(Collection<String> paths, Object payload) {
+		PathNode root = new PathNode(null);
+		Map<String, PathNode> nodesByPath = new HashMap<>();
+		for (String path : paths) {
+			JsonFieldPath compiledPath = JsonFieldPath.compile(path);
+			if (!compiledPath.getCompiledSegments().isEmpty()) {
+				PathNode node = root;
+				for (Segment segment : compiledPath.getCompiledSegments()) {
+					node = node.child(segment);
+				}
+				node.terminate(compiledPath.getType());
+				nodesByPath.put(path, node);
+			}
+		}
+		root.collectTerminals();
+		traverse(payload, root, null);
+		return new Evaluation(this, payload, nodesByPath);
+	}
+
+	private void traverse(Object payload, PathNode node, Match parent) {
+		for (PathNode child : node.children.values()) {
+			if (child.segment.isArray()) {
+				if (payload instanceof Collection) {
+					handleCollectionPayload((Collection<?>) payload, child, parent);
+				}
+			}
+			else if (payload instanceof Map) {
+				handleMapPayload((Map<?, ?>) payload, child, parent);
+			}
+		}
+	}
+
+	private void handleCollectionPayload(Collection<?> collection, PathNode node, Match parent) {
+		if (node.isTerminal()) {
+			node.foundMatch(new LeafCollectionMatch(collection, parent));
+		}
+		if (node.hasChildren()) {
+			for (Object item : collection) {
+				traverse(item, node, new CollectionMatch(collection, item, parent));
+			}
+		}
+	}
+
+	private void handleMapPayload(Map<?, ?> map, PathNode node, Match parent) {
+		String key = node.segment.getName();
+		if (map.containsKey(key)) {
+			Object item = map.get(key);
+			MapMatch mapMatch = new MapMatch(item, map, key, parent);
+			if (node.isTerminal()) {
+				node.foundMatch(mapMatch);
+			}
+			if (node.hasChildren()) {
+				traverse(item, node, mapMatch);
+			}
+		}
+		else if (node.segment.isMapWildcard()) {
+			Collection<?> values = map.values();
+			for (Object item : values) {
+				CollectionMatch collectionMatch = new CollectionMatch(values, item, parent);
+				if (node.isTerminal()) {
+					node.foundMatch(collectionMatch);
+				}
+				if (node.hasChildren()) {
+					traverse(item, node, collectionMatch);
+				}
+			}
+		}
+		else {
+			node.absent();
+		}
+	}
+
 	private void traverse(ProcessingContext context, MatchCallback matchCallback) {
-		String segment = context.getSegment();
-		if (JsonFieldPath.isArraySegment(segment)) {
+		if (context.getSegment().isArray()) {
 			if (context.getPayload() instanceof Collection) {
 				handleCollectionPayload(context, matchCallback);
 			}
@@ -135,9 +195,10 @@ final class JsonFieldProcessor {
 
 	private void handleMapPayload(ProcessingContext context, MatchCallback matchCallback) {
 		Map<?, ?> map = context.getPayload();
-		if (map.containsKey(context.getSegment())) {
-			Object item = map.get(context.getSegment());
-			MapMatch mapMatch = new MapMatch(item, map, context.getSegment(), context.getParentMatch());
+		String key = context.getSegment().getName();
+		if (map.containsKey(key)) {
+			Object item = map.get(key);
+			MapMatch mapMatch = new MapMatch(item, map, key, context.getParentMatch());
 			if (context.isLeaf()) {
 				matchCallback.foundMatch(mapMatch);
 			}
@@ -145,7 +206,7 @@ final class JsonFieldProcessor {
 				traverse(context.descend(item, mapMatch), matchCallback);
 			}
 		}
-		else if ("*".equals(context.getSegment())) {
+		else if (context.getSegment().isMapWildcard()) {
 			handleWildcardPayload(map.values(), matchCallback, context);
 		}
 		else {
@@ -153,6 +214,32 @@ final class JsonFieldProcessor {
 		}
 	}
 
+	/**
+	 * {@link MatchCallback} used to extract the values of a particular field.
+	 */
+	private static final class ExtractingMatchCallback implements MatchCallback {
+
+		private final List<Object> values = new ArrayList<>();
+
+		@Override
+		public void foundMatch(Match match) {
+			this.values.add(match.getValue());
+		}
+
+		@Override
+		public void absent() {
+			this.values.add(ExtractedField.ABSENT);
+		}
+
+		ExtractedField extractedField(PathType type) {
+			if (this.values.isEmpty()) {
+				this.values.add(ExtractedField.ABSENT);
+			}
+			return new ExtractedField((type != PathType.SINGLE) ? this.values : this.values.get(0), type);
+		}
+
+	}
+
 	/**
 	 * {@link MatchCallback} use to determine whether a payload has a particular field.
 	 */
@@ -267,6 +354,10 @@ final class JsonFieldProcessor {
 			this.parent = parent;
 		}
 
+		private CollectionMatch(Collection<?> collection, Object item, Match parent) {
+			this(null, collection, item, parent);
+		}
+
 		@Override
 		public Object getValue() {
 			return this.item;
@@ -277,7 +368,7 @@ final class JsonFieldProcessor {
 			if (!itemIsEmpty()) {
 				return;
 			}
-			this.items.remove();
+			removeItem();
 			if (this.collection.isEmpty() && this.parent != null) {
 				this.parent.remove();
 			}
@@ -285,12 +376,26 @@ final class JsonFieldProcessor {
 
 		@Override
 		public void removeSubsection() {
-			this.items.remove();
+			removeItem();
 			if (this.collection.isEmpty() && this.parent != null) {
 				this.parent.removeSubsection();
 			}
 		}
 
+		private void removeItem() {
+			if (this.items != null) {
+				this.items.remove();
+				return;
+			}
+			Iterator<?> iterator = this.collection.iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() == this.item) {
+					iterator.remove();
+					return;
+				}
+			}
+		}
+
 		private boolean itemIsEmpty() {
 			return !isMapWithEntries(this.item) && !isCollectionWithEntries(this.item);
 		}
@@ -369,11 +474,100 @@ final class JsonFieldProcessor {
 
 	}
 
+	/**
+	 * {@link MatchCallback} that records matches so that they can be replayed once a
+	 * traversal is complete. A {@code null} entry records an absent match.
+	 */
+	private static final class RecordingMatchCallback implements MatchCallback {
+
+		private final List<Match> matches = new ArrayList<>();
+
+		@Override
+		public void foundMatch(Match match) {
+			this.matches.add(match);
+		}
+
+		@Override
+		public void absent() {
+			this.matches.add(null);
+		}
+
+		void replay(MatchCallback callback) {
+			for (Match match : this.matches) {
+				if (match != null) {
+					callback.foundMatch(match);
+				}
+				else {
+					callback.absent();
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * A node in a trie of the paths that are being evaluated.
+	 */
+	private static final class PathNode {
+
+		private final Segment segment;
+
+		private final Map<String, PathNode> children = new LinkedHashMap<>();
+
+		private final List<PathNode> terminals = new ArrayList<>();
+
+		private RecordingMatchCallback matches;
+
+		private PathType type;
+
+		private PathNode(Segment segment) {
+			this.segment = segment;
+		}
+
+		private PathNode child(Segment segment) {
+			return this.children.computeIfAbsent(segment.getName(), (name) -> new PathNode(segment));
+		}
+
+		private void terminate(PathType type) {
+			this.type = type;
+			this.matches = new RecordingMatchCallback();
+		}
+
+		private List<PathNode> collectTerminals() {
+			if (isTerminal()) {
+				this.terminals.add(this);
+			}
+			for (PathNode child : this.children.values()) {
+				this.terminals.addAll(child.collectTerminals());
+			}
+			return this.terminals;
+		}
+
+		private boolean isTerminal() {
+			return this.matches != null;
+		}
+
+		private boolean hasChildren() {
+			return !this.children.isEmpty();
+		}
+
+		private void foundMatch(Match match) {
+			this.matches.foundMatch(match);
+		}
+
+		private void absent() {
+			for (PathNode terminal : this.terminals) {
+				terminal.matches.absent();
+			}
+		}
+
+	}
+
 	private static final class ProcessingContext {
 
 		private final Object payload;
 
-		private final List<String> segments;
+		private final List<Segment> segments;
 
 		private final Match parent;
 
@@ -383,14 +577,14 @@ final class JsonFieldProcessor {
 			this(payload, path, null, null);
 		}
 
-		private ProcessingContext(Object payload, JsonFieldPath path, List<String> segments, Match parent) {
+		private ProcessingContext(Object payload, JsonFieldPath path, List<Segment> segments, Match parent) {
 			this.payload = payload;
 			this.path = path;
-			this.segments = (segments != null) ? segments : path.getSegments();
+			this.segments = (segments != null) ? segments : path.getCompiledSegments();
 			this.parent = parent;
 		}
 
-		private String getSegment() {
+		private Segment getSegment() {
 			return this.segments.get(0);
 		}
 
@@ -413,6 +607,66 @@ final class JsonFieldProcessor {
 
 	}
 
+	/**
+	 * The result of evaluating multiple paths against a payload in a single traversal.
+	 * Paths that were not part of the evaluation are processed individually.
+	 */
+	static final class Evaluation {
+
+		private final JsonFieldProcessor fieldProcessor;
+
+		private final Object payload;
+
+		private final Map<String, PathNode> nodesByPath;
+
+		private Evaluation(JsonFieldProcessor fieldProcessor, Object payload, Map<String, PathNode> nodesByPath) {
+			this.fieldProcessor = fieldProcessor;
+			this.payload = payload;
+			this.nodesByPath = nodesByPath;
+		}
+
+		boolean hasField(String path) {
+			PathNode node = this.nodesByPath.get(path);
+			if (node == null) {
+				return this.fieldProcessor.hasField(path, this.payload);
+			}
+			HasFieldMatchCallback callback = new HasFieldMatchCallback();
+			node.matches.replay(callback);
+			return callback.fieldFound();
+		}
+
+		ExtractedField extract(String path) {
+			PathNode node = this.nodesByPath.get(path);
+			if (node == null) {
+				return this.fieldProcessor.extract(path, this.payload);
+			}
+			ExtractingMatchCallback callback = new ExtractingMatchCallback();
+			node.matches.replay(callback);
+			return callback.extractedField(node.type);
+		}
+
+		void remove(String path) {
+			PathNode node = this.nodesByPath.get(path);
+			if (node == null) {
+				this.fieldProcessor.remove(path, this.payload);
+			}
+			else {
+				node.matches.replay(Match::remove);
+			}
+		}
+
+		void removeSubsection(String path) {
+			PathNode node = this.nodesByPath.get(path);
+			if (node == null) {
+				this.fieldProcessor.removeSubsection(path, this.payload);
+			}
+			else {
+				node.matches.replay(Match::removeSubsection);
+			}
+		}
+
+	}
+
 	/**
 	 * A field that has been extracted from a JSON payload.
 	 */
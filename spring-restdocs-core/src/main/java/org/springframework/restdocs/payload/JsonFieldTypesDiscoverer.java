@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2018 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,7 +35,10 @@ class JsonFieldTypesDiscoverer {
 	private final JsonFieldProcessor fieldProcessor = new JsonFieldProcessor();
 
 	JsonFieldTypes discoverFieldTypes(String path, Object payload) {
-		ExtractedField extractedField = this.fieldProcessor.extract(path, payload);
+		return determineFieldTypes(path, this.fieldProcessor.extract(path, payload));
+	}
+
+	JsonFieldTypes determineFieldTypes(String path, ExtractedField extractedField) {
 		Object value = extractedField.getValue();
 		if (value instanceof Collection && extractedField.getType() == PathType.MULTI) {
 			Collection<?> values = (Collection<?>) value;
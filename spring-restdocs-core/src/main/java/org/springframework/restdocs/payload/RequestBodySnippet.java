@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.restdocs.payload;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import org.springframework.http.MediaType;
@@ -72,6 +73,11 @@ public class RequestBodySnippet extends AbstractBodySnippet {
 		return operation.getRequest().getContent();
 	}
 
+	@Override
+	protected ByteBuffer getContentAsByteBuffer(Operation operation) {
+		return operation.getRequest().getContentAsByteBuffer();
+	}
+
 	@Override
 	protected MediaType getContentType(Operation operation) {
 		return operation.getRequest().getHeaders().getContentType();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,13 @@
 package org.springframework.restdocs.payload;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequestPart;
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.restdocs.snippet.SnippetException;
 
@@ -86,6 +88,11 @@ public class RequestPartBodySnippet extends AbstractBodySnippet {
 		return findPart(operation).getContent();
 	}
 
+	@Override
+	protected ByteBuffer getContentAsByteBuffer(Operation operation) {
+		return findPart(operation).getContentAsByteBuffer();
+	}
+
 	@Override
 	protected MediaType getContentType(Operation operation) {
 		return findPart(operation).getHeaders().getContentType();
@@ -100,4 +107,10 @@ public class RequestPartBodySnippet extends AbstractBodySnippet {
 		throw new SnippetException("A request part named '" + this.partName + "' was not found in the request");
 	}
 
+	@Override
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		super.contributeConfigurationTo(fingerprint);
+		fingerprint.add(this.partName);
+	}
+
 }
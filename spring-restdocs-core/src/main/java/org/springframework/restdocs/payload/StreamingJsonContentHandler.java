@@ -0,0 +1,499 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.restdocs.payload.JsonFieldPath.PathType;
+import org.springframework.restdocs.payload.JsonFieldPath.Segment;
+
+/**
+ * A {@link ContentHandler} for JSON content that reads the content as a stream of tokens
+ * rather than as a tree of maps and lists. Missing fields, field types, and whether or
+ * not the content is completely documented are determined in a single pass over the
+ * content using memory that is proportional to its depth rather than its size. Any
+ * undocumented content is only materialized when it is retrieved.
+ * <p>
+ * Content that cannot be handled in this manner, such as a scalar value or an object with
+ * a {@code *} key that would be matched by a wildcard, results in a
+ * {@link StreamingNotSupportedException} being thrown during construction so that the
+ * caller can fall back to a {@link JsonContentHandler}.
+ *
+ * @author Andy Wilkinson
+ * @see JsonContentHandler
+ */
+class StreamingJsonContentHandler extends AbstractJsonContentHandler {
+
+	private static final ObjectMapper readingObjectMapper = new ObjectMapper();
+
+	private static final int NEVER = Integer.MAX_VALUE;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+	private final byte[] content;
+
+	private final boolean[] subsections;
+
+	private final PathNode root = new PathNode(null);
+
+	private final Map<String, PathNode> fields = new HashMap<>();
+
+	private final boolean documented;
+
+	StreamingJsonContentHandler(byte[] content, Collection<FieldDescriptor> fieldDescriptors) {
+		super(fieldDescriptors);
+		this.content = content;
+		this.subsections = new boolean[fieldDescriptors.size()];
+		int index = 0;
+		for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+			this.subsections[index] = fieldDescriptor instanceof SubsectionDescriptor;
+			add(index++, fieldDescriptor.getPath());
+		}
+		this.root.collectTerminals();
+		Value root = new Traversal(false).traverse();
+		this.documented = root.removedAt != NEVER || root.entries == 0;
+	}
+
+	private void add(int index, String path) {
+		JsonFieldPath compiledPath = JsonFieldPath.compile(path);
+		if (compiledPath.getCompiledSegments().isEmpty()) {
+			throw new StreamingNotSupportedException("Path '" + path + "' has no segments");
+		}
+		PathNode node = this.root;
+		for (Segment segment : compiledPath.getCompiledSegments()) {
+			node = node.child(segment);
+		}
+		node.type = compiledPath.getType();
+		node.descriptors.add(index);
+		this.fields.put(path, node);
+	}
+
+	@Override
+	protected boolean hasField(String path) {
+		return this.fields.get(path).hasField();
+	}
+
+	@Override
+	protected boolean isNullOrEmpty(String path) {
+		return this.fields.get(path).isNullOrEmpty();
+	}
+
+	@Override
+	protected JsonFieldTypes discoverFieldTypes(String path) {
+		PathNode node = this.fields.get(path);
+		if (!node.nullValue && !node.nonNullValue) {
+			throw new FieldDoesNotExistException(path);
+		}
+		return new JsonFieldTypes(node.types);
+	}
+
+	@Override
+	public String getUndocumentedContent() {
+		if (this.documented) {
+			return null;
+		}
+		try {
+			return this.objectMapper.writeValueAsString(new Traversal(true).traverse().retained);
+		}
+		catch (JsonProcessingException ex) {
+			throw new PayloadHandlingException(ex);
+		}
+	}
+
+	/**
+	 * A single pass over the content. Each value in the content is removed, as it would
+	 * be by {@link JsonContentHandler#getUndocumentedContent()}, by the first descriptor
+	 * that matches it once the entries that prevent its removal have themselves been
+	 * removed, or once all of its entries have been removed. Rather than modifying the
+	 * content, the index of that descriptor is calculated as each value ends, allowing
+	 * the values that would survive to be identified without reading the whole content
+	 * into memory.
+	 */
+	private final class Traversal {
+
+		private final boolean retain;
+
+		private JsonParser parser;
+
+		private Traversal(boolean retain) {
+			this.retain = retain;
+		}
+
+		private Value traverse() {
+			try (JsonParser parser = readingObjectMapper.createParser(StreamingJsonContentHandler.this.content)) {
+				this.parser = parser;
+				JsonToken token = parser.nextToken();
+				if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+					throw new StreamingNotSupportedException("Content is not a JSON object or array");
+				}
+				return read(token, Collections.singletonList(StreamingJsonContentHandler.this.root),
+						Collections.emptyList());
+			}
+			catch (IOException ex) {
+				throw new PayloadHandlingException(ex);
+			}
+		}
+
+		private Value read(JsonToken token, List<PathNode> nodes, List<PathNode> matches) throws IOException {
+			if (nodes.isEmpty() && matches.isEmpty()) {
+				return skip(token);
+			}
+			Value value;
+			if (token == JsonToken.START_OBJECT) {
+				value = readObject(nodes);
+			}
+			else if (token == JsonToken.START_ARRAY) {
+				List<PathNode> itemNodes = new ArrayList<>();
+				List<PathNode> arrayMatches = new ArrayList<>(matches);
+				for (PathNode node : nodes) {
+					for (PathNode element : node.elements) {
+						addEntry(element, itemNodes, arrayMatches);
+					}
+				}
+				matches = arrayMatches;
+				value = readArray(itemNodes);
+			}
+			else {
+				value = new Value(typeOf(token));
+			}
+			for (PathNode match : matches) {
+				if (!this.retain) {
+					match.found(value);
+				}
+				for (int descriptor : match.descriptors) {
+					if (descriptor < value.removedAt && isRemovable(value, match, descriptor)) {
+						value.removedAt = descriptor;
+					}
+				}
+			}
+			if (this.retain && !value.isContainer() && value.removedAt == NEVER) {
+				value.retained = this.parser.readValueAs(Object.class);
+			}
+			return value;
+		}
+
+		private Value readObject(List<PathNode> nodes) throws IOException {
+			Value value = new Value(JsonFieldType.OBJECT);
+			Map<String, Object> retained = this.retain ? new LinkedHashMap<>() : null;
+			Set<PathNode> present = new HashSet<>();
+			while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = this.parser.currentName();
+				List<PathNode> entryNodes = new ArrayList<>();
+				List<PathNode> entryMatches = new ArrayList<>();
+				for (PathNode node : nodes) {
+					PathNode key = node.keys.get(name);
+					if (key != null) {
+						present.add(key);
+						addEntry(key, entryNodes, entryMatches);
+					}
+					if (node.wildcard != null) {
+						if (node.wildcard.segment.getName().equals(name)) {
+							throw new StreamingNotSupportedException("Key '" + name + "' is ambiguous");
+						}
+						addEntry(node.wildcard, entryNodes, entryMatches);
+					}
+				}
+				Value entry = read(this.parser.nextToken(), entryNodes, entryMatches);
+				value.add(entry);
+				if (retained != null && entry.removedAt == NEVER) {
+					retained.put(name, entry.retained);
+				}
+			}
+			if (!this.retain) {
+				for (PathNode node : nodes) {
+					for (PathNode key : node.keys.values()) {
+						if (!present.contains(key)) {
+							key.absent();
+						}
+					}
+				}
+			}
+			value.removedAt = value.emptiedAt();
+			value.retained = retained;
+			return value;
+		}
+
+		private Value readArray(List<PathNode> itemNodes) throws IOException {
+			Value value = new Value(JsonFieldType.ARRAY);
+			List<Object> retained = this.retain ? new ArrayList<>() : null;
+			JsonToken token;
+			while ((token = this.parser.nextToken()) != JsonToken.END_ARRAY) {
+				Value item = read(token, itemNodes, Collections.emptyList());
+				value.add(item);
+				value.emptyCollection = value.emptyCollection && item.emptyCollection;
+				if (retained != null && item.removedAt == NEVER) {
+					retained.add(item.retained);
+				}
+			}
+			value.removedAt = value.emptiedAt();
+			value.retained = retained;
+			return value;
+		}
+
+		private void addEntry(PathNode node, List<PathNode> nodes, List<PathNode> matches) {
+			if (node.isTerminal()) {
+				matches.add(node);
+			}
+			if (node.hasChildren()) {
+				nodes.add(node);
+			}
+		}
+
+		private Value skip(JsonToken token) throws IOException {
+			Value value = new Value(typeOf(token));
+			if (this.retain) {
+				value.retained = this.parser.readValueAs(Object.class);
+			}
+			else if (token == JsonToken.START_ARRAY) {
+				value.emptyCollection = skipArray();
+			}
+			else {
+				this.parser.skipChildren();
+			}
+			return value;
+		}
+
+		private boolean skipArray() throws IOException {
+			boolean empty = true;
+			JsonToken token;
+			while ((token = this.parser.nextToken()) != JsonToken.END_ARRAY) {
+				if (token == JsonToken.START_ARRAY) {
+					boolean emptyItem = skipArray();
+					empty = empty && emptyItem;
+				}
+				else {
+					empty = false;
+					this.parser.skipChildren();
+				}
+			}
+			return empty;
+		}
+
+		private boolean isRemovable(Value value, PathNode match, int descriptor) {
+			if (StreamingJsonContentHandler.this.subsections[descriptor]) {
+				return true;
+			}
+			if (match.segment.isArray()) {
+				return value.nonScalarEntriesRemovedAt < descriptor;
+			}
+			if (value.type == JsonFieldType.OBJECT
+					|| (value.type == JsonFieldType.ARRAY && match.segment.isMapWildcard())) {
+				return value.entriesRemovedAt < descriptor;
+			}
+			if (value.type == JsonFieldType.ARRAY) {
+				return value.nonScalarEntriesRemovedAt < descriptor;
+			}
+			return true;
+		}
+
+		private JsonFieldType typeOf(JsonToken token) {
+			switch (token) {
+				case START_OBJECT:
+					return JsonFieldType.OBJECT;
+				case START_ARRAY:
+					return JsonFieldType.ARRAY;
+				case VALUE_STRING:
+					return JsonFieldType.STRING;
+				case VALUE_TRUE:
+				case VALUE_FALSE:
+					return JsonFieldType.BOOLEAN;
+				case VALUE_NULL:
+					return JsonFieldType.NULL;
+				default:
+					return JsonFieldType.NUMBER;
+			}
+		}
+
+	}
+
+	/**
+	 * A value in the content, described once all of its tokens have been read.
+	 */
+	private static final class Value {
+
+		private final JsonFieldType type;
+
+		private int removedAt = NEVER;
+
+		private int entries;
+
+		private int entriesRemovedAt = -1;
+
+		private int nonScalarEntriesRemovedAt = -1;
+
+		private boolean emptyCollection;
+
+		private Object retained;
+
+		private Value(JsonFieldType type) {
+			this.type = type;
+			this.emptyCollection = type == JsonFieldType.ARRAY;
+		}
+
+		private boolean isContainer() {
+			return this.type == JsonFieldType.OBJECT || this.type == JsonFieldType.ARRAY;
+		}
+
+		private void add(Value entry) {
+			this.entries++;
+			this.entriesRemovedAt = Math.max(this.entriesRemovedAt, entry.removedAt);
+			if (entry.isContainer()) {
+				this.nonScalarEntriesRemovedAt = Math.max(this.nonScalarEntriesRemovedAt, entry.removedAt);
+			}
+		}
+
+		private int emptiedAt() {
+			return (this.entries > 0) ? this.entriesRemovedAt : NEVER;
+		}
+
+	}
+
+	/**
+	 * A node in the tree of the descriptors' paths, accumulating what is known about the
+	 * field that it identifies as the content is read.
+	 */
+	private static final class PathNode {
+
+		private final Segment segment;
+
+		private final Map<String, PathNode> keys = new LinkedHashMap<>();
+
+		private final List<PathNode> elements = new ArrayList<>();
+
+		private final List<PathNode> terminals = new ArrayList<>();
+
+		private final List<Integer> descriptors = new ArrayList<>();
+
+		private final Set<JsonFieldType> types = EnumSet.noneOf(JsonFieldType.class);
+
+		private PathNode wildcard;
+
+		private PathType type;
+
+		private boolean absent;
+
+		private boolean nullValue;
+
+		private boolean nonNullValue;
+
+		private boolean emptyCollections = true;
+
+		private PathNode(Segment segment) {
+			this.segment = segment;
+		}
+
+		private PathNode child(Segment segment) {
+			if (segment.isMapWildcard()) {
+				if (this.wildcard == null) {
+					this.wildcard = new PathNode(segment);
+				}
+				return this.wildcard;
+			}
+			if (segment.isArray()) {
+				for (PathNode element : this.elements) {
+					if (element.segment.getName().equals(segment.getName())) {
+						return element;
+					}
+				}
+				PathNode element = new PathNode(segment);
+				this.elements.add(element);
+				return element;
+			}
+			return this.keys.computeIfAbsent(segment.getName(), (name) -> new PathNode(segment));
+		}
+
+		private boolean isTerminal() {
+			return !this.descriptors.isEmpty();
+		}
+
+		private boolean hasChildren() {
+			return !this.keys.isEmpty() || this.wildcard != null || !this.elements.isEmpty();
+		}
+
+		private List<PathNode> collectTerminals() {
+			if (isTerminal()) {
+				this.terminals.add(this);
+			}
+			for (PathNode key : this.keys.values()) {
+				this.terminals.addAll(key.collectTerminals());
+			}
+			if (this.wildcard != null) {
+				this.terminals.addAll(this.wildcard.collectTerminals());
+			}
+			for (PathNode element : this.elements) {
+				this.terminals.addAll(element.collectTerminals());
+			}
+			return this.terminals;
+		}
+
+		private void found(Value value) {
+			if (value.type == JsonFieldType.NULL) {
+				this.nullValue = true;
+			}
+			else {
+				this.nonNullValue = true;
+			}
+			this.types.add(value.type);
+			this.emptyCollections = this.emptyCollections && value.emptyCollection;
+		}
+
+		private void absent() {
+			for (PathNode terminal : this.terminals) {
+				terminal.absent = true;
+				terminal.types.add(JsonFieldType.NULL);
+				terminal.emptyCollections = false;
+			}
+		}
+
+		private boolean hasField() {
+			return !this.absent && this.nullValue != this.nonNullValue;
+		}
+
+		private boolean isNullOrEmpty() {
+			return (this.type == PathType.SINGLE && this.nullValue) || this.emptyCollections;
+		}
+
+	}
+
+	/**
+	 * Thrown when content cannot be handled by a {@code StreamingJsonContentHandler}.
+	 */
+	static final class StreamingNotSupportedException extends RuntimeException {
+
+		private StreamingNotSupportedException(String message) {
+			super(message, null, false, false);
+		}
+
+	}
+
+}
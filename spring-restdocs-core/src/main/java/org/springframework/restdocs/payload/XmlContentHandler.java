@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,16 +20,20 @@ import java.io.ByteArrayInputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
@@ -44,36 +48,74 @@ import org.xml.sax.InputSource;
 
 /**
  * A {@link ContentHandler} for XML content.
+ * <p>
+ * The JAXP factories are created once and the document builders, transformers, and
+ * compiled XPath expressions that are created from them are reused by each thread.
  *
  * @author Andy Wilkinson
  */
 class XmlContentHandler implements ContentHandler {
 
-	private final DocumentBuilder documentBuilder;
+	private static final int MAX_CACHED_XPATH_EXPRESSIONS = 256;
 
-	private final byte[] rawContent;
+	private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+
+	private static final TransformerFactory transformerFactory = createTransformerFactory();
+
+	private static final XPathFactory xPathFactory = XPathFactory.newInstance();
+
+	private static final ThreadLocal<DocumentBuilder> documentBuilder = ThreadLocal
+			.withInitial(XmlContentHandler::createDocumentBuilder);
+
+	private static final ThreadLocal<Transformer> transformer = ThreadLocal
+			.withInitial(XmlContentHandler::createTransformer);
+
+	private static final ThreadLocal<XPathExpressions> xPathExpressions = ThreadLocal
+			.withInitial(XPathExpressions::new);
+
+	private final Document payload;
 
 	private final List<FieldDescriptor> fieldDescriptors;
 
 	XmlContentHandler(byte[] rawContent, List<FieldDescriptor> fieldDescriptors) {
+		this.fieldDescriptors = fieldDescriptors;
+		this.payload = readPayload(rawContent);
+	}
+
+	private static TransformerFactory createTransformerFactory() {
+		TransformerFactory transformerFactory = TransformerFactory.newInstance();
+		transformerFactory.setAttribute("indent-number", 4);
+		return transformerFactory;
+	}
+
+	private static DocumentBuilder createDocumentBuilder() {
 		try {
-			this.documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			synchronized (documentBuilderFactory) {
+				return documentBuilderFactory.newDocumentBuilder();
+			}
 		}
 		catch (ParserConfigurationException ex) {
 			throw new IllegalStateException("Failed to create document builder", ex);
 		}
-		this.rawContent = rawContent;
-		this.fieldDescriptors = fieldDescriptors;
-		readPayload();
+	}
+
+	private static Transformer createTransformer() {
+		try {
+			synchronized (transformerFactory) {
+				return transformerFactory.newTransformer();
+			}
+		}
+		catch (TransformerConfigurationException ex) {
+			throw new IllegalStateException("Failed to create transformer", ex);
+		}
 	}
 
 	@Override
 	public List<FieldDescriptor> findMissingFields() {
 		List<FieldDescriptor> missingFields = new ArrayList<>();
-		Document payload = readPayload();
 		for (FieldDescriptor fieldDescriptor : this.fieldDescriptors) {
 			if (!fieldDescriptor.isOptional()) {
-				NodeList matchingNodes = findMatchingNodes(fieldDescriptor, payload);
+				NodeList matchingNodes = findMatchingNodes(fieldDescriptor, this.payload);
 				if (matchingNodes.getLength() == 0) {
 					missingFields.add(fieldDescriptor);
 				}
@@ -92,22 +134,26 @@ class XmlContentHandler implements ContentHandler {
 		}
 	}
 
-	private Document readPayload() {
+	private Document readPayload(byte[] rawContent) {
+		DocumentBuilder documentBuilder = XmlContentHandler.documentBuilder.get();
 		try {
-			return this.documentBuilder.parse(new InputSource(new ByteArrayInputStream(this.rawContent)));
+			return documentBuilder.parse(new InputSource(new ByteArrayInputStream(rawContent)));
 		}
 		catch (Exception ex) {
 			throw new PayloadHandlingException(ex);
 		}
+		finally {
+			documentBuilder.reset();
+		}
 	}
 
 	private XPathExpression createXPath(String fieldPath) throws XPathExpressionException {
-		return XPathFactory.newInstance().newXPath().compile(fieldPath);
+		return xPathExpressions.get().get(fieldPath);
 	}
 
 	@Override
 	public String getUndocumentedContent() {
-		Document payload = readPayload();
+		Document payload = (Document) this.payload.cloneNode(true);
 		List<Node> matchedButNotRemoved = new ArrayList<>();
 		for (FieldDescriptor fieldDescriptor : this.fieldDescriptors) {
 			NodeList matchingNodes;
@@ -169,12 +215,10 @@ class XmlContentHandler implements ContentHandler {
 	}
 
 	private String prettyPrint(Document document) {
+		Transformer transformer = XmlContentHandler.transformer.get();
 		try {
 			StringWriter stringWriter = new StringWriter();
 			StreamResult xmlOutput = new StreamResult(stringWriter);
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			transformerFactory.setAttribute("indent-number", 4);
-			Transformer transformer = transformerFactory.newTransformer();
 			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
 			transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
 			transformer.transform(new DOMSource(document), xmlOutput);
@@ -183,6 +227,9 @@ class XmlContentHandler implements ContentHandler {
 		catch (Exception ex) {
 			throw new PayloadHandlingException(ex);
 		}
+		finally {
+			transformer.reset();
+		}
 	}
 
 	@Override
@@ -197,4 +244,37 @@ class XmlContentHandler implements ContentHandler {
 		}
 	}
 
+	/**
+	 * A thread's compiled {@link XPathExpression XPathExpressions}, keyed by field path.
+	 */
+	private static final class XPathExpressions {
+
+		private final XPath xPath;
+
+		private final Map<String, XPathExpression> expressions = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+				return size() > MAX_CACHED_XPATH_EXPRESSIONS;
+			}
+
+		};
+
+		private XPathExpressions() {
+			synchronized (xPathFactory) {
+				this.xPath = xPathFactory.newXPath();
+			}
+		}
+
+		private XPathExpression get(String fieldPath) throws XPathExpressionException {
+			XPathExpression expression = this.expressions.get(fieldPath);
+			if (expression == null) {
+				expression = this.xPath.compile(fieldPath);
+				this.expressions.put(fieldPath, expression);
+			}
+			return expression;
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.restdocs.request;
 
+import org.springframework.restdocs.snippet.Fingerprint;
 import org.springframework.restdocs.snippet.IgnorableDescriptor;
 
 /**
@@ -67,4 +68,10 @@ public class RequestPartDescriptor extends IgnorableDescriptor<RequestPartDescri
 		return this.optional;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		super.contributeTo(fingerprint);
+		fingerprint.add(this.name).add(this.optional);
+	}
+
 }
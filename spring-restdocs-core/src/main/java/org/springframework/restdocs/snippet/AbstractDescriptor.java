@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,7 +28,7 @@ import org.springframework.restdocs.snippet.Attributes.Attribute;
  * @param <T> the type of the descriptor
  * @author Andy Wilkinson
  */
-public abstract class AbstractDescriptor<T extends AbstractDescriptor<T>> {
+public abstract class AbstractDescriptor<T extends AbstractDescriptor<T>> implements Fingerprintable {
 
 	private Map<String, Object> attributes = new HashMap<>();
 
@@ -74,4 +74,9 @@ public abstract class AbstractDescriptor<T extends AbstractDescriptor<T>> {
 		return this.attributes;
 	}
 
+	@Override
+	public void contributeTo(Fingerprint fingerprint) {
+		fingerprint.add(this.description).add(this.attributes);
+	}
+
 }
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link WriterResolver} that writes snippets asynchronously. A writer resolved by an
+ * {@code AsyncWriterResolver} holds the snippet in memory. When the writer is closed,
+ * the snippet is handed to a bounded queue of pending writes that is processed by a
+ * small pool of background threads, each of which writes snippets using a writer from
+ * the delegate {@link WriterResolver}.
+ * <p>
+ * When the queue is full, closing a writer blocks until a pending write has completed.
+ * Pending writes for a test are awaited when the test completes, with any failure
+ * being propagated to the test, and are also completed before the JVM shuts down. The
+ * pending writes of an operation can be observed using
+ * {@link #whenWritten(String, RestDocumentationContext)}. If
+ * the {@link RestDocumentationContext} does not support
+ * {@link RestDocumentationContext#registerTestCompletionCallback completion callbacks},
+ * snippets are written synchronously.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class AsyncWriterResolver implements WriterResolver {
+
+	/**
+	 * The default maximum number of snippets that may be waiting to be written.
+	 */
+	public static final int DEFAULT_MAX_PENDING_WRITES = 256;
+
+	private final WriterResolver delegate;
+
+	private final WriteQueue queue;
+
+	private final Map<RestDocumentationContext, Map<String, CompletableFuture<Void>>> pendingWrites;
+
+	/**
+	 * Creates a new {@code AsyncWriterResolver} that will write snippets asynchronously
+	 * using writers resolved by the given {@code delegate}. Writes are performed by a
+	 * pool of background threads that is shared with other {@code AsyncWriterResolvers}
+	 * and that allows up to {@link #DEFAULT_MAX_PENDING_WRITES} pending writes.
+	 * @param delegate the delegate writer resolver
+	 */
+	public AsyncWriterResolver(WriterResolver delegate) {
+		this(delegate, Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_MAX_PENDING_WRITES);
+	}
+
+	/**
+	 * Creates a new {@code AsyncWriterResolver} that will write snippets asynchronously
+	 * using writers resolved by the given {@code delegate}. Writes are performed by a
+	 * pool of {@code threads} background threads that allows up to
+	 * {@code maxPendingWrites} pending writes. The pool is shared with other
+	 * {@code AsyncWriterResolvers} that are created with the same settings.
+	 * @param delegate the delegate writer resolver
+	 * @param threads the number of background threads
+	 * @param maxPendingWrites the maximum number of pending writes
+	 */
+	public AsyncWriterResolver(WriterResolver delegate, int threads, int maxPendingWrites) {
+		this(delegate, SharedWriteQueues.get(threads, maxPendingWrites));
+	}
+
+	private AsyncWriterResolver(WriterResolver delegate, WriteQueue queue) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		this.delegate = delegate;
+		this.queue = queue;
+		this.pendingWrites = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public Writer resolve(String operationName, String snippetName, RestDocumentationContext context)
+			throws IOException {
+		return new AsyncSnippetWriter(this.delegate.resolve(operationName, snippetName, context), operationName,
+				context);
+	}
+
+	@Override
+	public CompletableFuture<Void> whenWritten(String operationName, RestDocumentationContext context) {
+		CompletableFuture<Void> written = this.delegate.whenWritten(operationName, context);
+		Map<String, CompletableFuture<Void>> operations = this.pendingWrites.get(context);
+		CompletableFuture<Void> pending = (operations != null) ? operations.get(operationName) : null;
+		return (pending != null) ? CompletableFuture.allOf(pending, written) : written;
+	}
+
+	@Override
+	public boolean hasSnippets(String operationName, RestDocumentationContext context) throws IOException {
+		return this.delegate.hasSnippets(operationName, context);
+	}
+
+	private static void writeSnippet(Writer writer, CharSequence content) throws IOException {
+		try (writer) {
+			writer.append(content);
+		}
+	}
+
+	/**
+	 * A {@link Writer} that holds a snippet in memory and queues it to be written when it
+	 * is closed.
+	 */
+	private final class AsyncSnippetWriter extends Writer {
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		private final Writer target;
+
+		private final String operationName;
+
+		private final RestDocumentationContext context;
+
+		private boolean closed;
+
+		private AsyncSnippetWriter(Writer target, String operationName, RestDocumentationContext context) {
+			this.target = target;
+			this.operationName = operationName;
+			this.context = context;
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(String string, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(string, offset, offset + length);
+		}
+
+		@Override
+		public Writer append(CharSequence sequence) throws IOException {
+			assertOpen();
+			this.buffer.append(sequence);
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			assertOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			CompletableFuture<Void> pendingWrite = new CompletableFuture<>();
+			if (!this.context.registerTestCompletionCallback(() -> awaitWrite(pendingWrite))) {
+				writeSnippet(this.target, this.buffer);
+				return;
+			}
+			AsyncWriterResolver.this.pendingWrites.computeIfAbsent(this.context, (key) -> new ConcurrentHashMap<>())
+					.merge(this.operationName, pendingWrite, CompletableFuture::allOf);
+			AsyncWriterResolver.this.queue.submit(() -> {
+				try {
+					writeSnippet(this.target, this.buffer);
+					pendingWrite.complete(null);
+				}
+				catch (Throwable ex) {
+					pendingWrite.completeExceptionally(ex);
+				}
+			});
+		}
+
+		private void assertOpen() throws IOException {
+			if (this.closed) {
+				throw new IOException("Writer has been closed");
+			}
+		}
+
+		private void awaitWrite(CompletableFuture<Void> pendingWrite) {
+			try {
+				pendingWrite.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for snippet to be written", ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw new UncheckedIOException("Failed to write snippet", (IOException) cause);
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException("Failed to write snippet", cause);
+			}
+			finally {
+				AsyncWriterResolver.this.pendingWrites.remove(this.context);
+			}
+		}
+
+	}
+
+	/**
+	 * A bounded queue of pending writes that is processed by a pool of daemon threads.
+	 */
+	private static final class WriteQueue {
+
+		private static final AtomicInteger threadCount = new AtomicInteger();
+
+		private final ExecutorService executor;
+
+		private final Semaphore permits;
+
+		private WriteQueue(int threads, int maxPendingWrites) {
+			Assert.isTrue(threads > 0, "Threads must be greater than zero");
+			Assert.isTrue(maxPendingWrites > 0, "Max pending writes must be greater than zero");
+			ThreadFactory threadFactory = (runnable) -> {
+				Thread thread = new Thread(runnable, "restdocs-snippet-writer-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+			this.permits = new Semaphore(maxPendingWrites);
+		}
+
+		private void submit(Runnable write) {
+			this.permits.acquireUninterruptibly();
+			try {
+				this.executor.execute(() -> {
+					try {
+						write.run();
+					}
+					finally {
+						this.permits.release();
+					}
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				this.permits.release();
+				write.run();
+			}
+		}
+
+		private void shutdown() {
+			this.executor.shutdown();
+			try {
+				this.executor.awaitTermination(1, TimeUnit.MINUTES);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+	/**
+	 * The {@link WriteQueue WriteQueues} that are shared by {@code AsyncWriterResolvers},
+	 * one for each combination of threads and maximum pending writes. Each queue is
+	 * shut down, completing its pending writes, before the JVM shuts down.
+	 */
+	private static final class SharedWriteQueues {
+
+		private static final Map<String, WriteQueue> queues = new ConcurrentHashMap<>();
+
+		static {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> queues.values().forEach(WriteQueue::shutdown),
+					"restdocs-snippet-writer-shutdown"));
+		}
+
+		private static WriteQueue get(int threads, int maxPendingWrites) {
+			return queues.computeIfAbsent(threads + ":" + maxPendingWrites,
+					(key) -> new WriteQueue(threads, maxPendingWrites));
+		}
+
+	}
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.lang.reflect.Array;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.MimeType;
+
+/**
+ * A SHA-256 fingerprint of the inputs to the documentation of an operation. Two
+ * fingerprints with the same {@link #toHexString() value} were produced from the same
+ * inputs, allowing documentation that has already been produced from those inputs to be
+ * reused.
+ * <p>
+ * Values of well-known types, such as strings, numbers, collections and maps of them, and
+ * {@link Fingerprintable} objects, can be {@link #add(Object) added}. Adding a value of
+ * any other type {@link #markUnstable() marks the fingerprint as unstable} as the
+ * value's state cannot be captured.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class Fingerprint {
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte LONG = 2;
+
+	private static final byte BOOLEAN = 3;
+
+	private static final byte BYTES = 4;
+
+	private static final byte COLLECTION = 5;
+
+	private static final byte MAP = 6;
+
+	private static final byte OBJECT = 7;
+
+	private final MessageDigest digest;
+
+	private boolean stable = true;
+
+	/**
+	 * Creates a new, empty {@code Fingerprint}.
+	 */
+	public Fingerprint() {
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Adds the given {@code value} to the fingerprint.
+	 * @param value the value, may be {@code null}
+	 * @return {@code this}
+	 */
+	public Fingerprint add(String value) {
+		if (value == null) {
+			this.digest.update(NULL);
+		}
+		else {
+			this.digest.update(STRING);
+			updateWithLength(value.getBytes(StandardCharsets.UTF_8));
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the given {@code value} to the fingerprint.
+	 * @param value the value
+	 * @return {@code this}
+	 */
+	public Fingerprint add(long value) {
+		this.digest.update(LONG);
+		updateWithLong(value);
+		return this;
+	}
+
+	/**
+	 * Adds the given {@code value} to the fingerprint.
+	 * @param value the value
+	 * @return {@code this}
+	 */
+	public Fingerprint add(boolean value) {
+		this.digest.update(BOOLEAN);
+		this.digest.update(value ? (byte) 1 : (byte) 0);
+		return this;
+	}
+
+	/**
+	 * Adds the given {@code bytes} to the fingerprint.
+	 * @param bytes the bytes, may be {@code null}
+	 * @return {@code this}
+	 */
+	public Fingerprint add(byte[] bytes) {
+		if (bytes == null) {
+			this.digest.update(NULL);
+		}
+		else {
+			this.digest.update(BYTES);
+			updateWithLength(bytes);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the given {@code value} to the fingerprint. Strings, numbers, booleans,
+	 * characters, enums, classes, URIs, MIME types, HTTP methods, byte
+	 * arrays, {@link Fingerprintable} objects, and arrays, collections, and maps of them
+	 * are supported. Adding a value of any other type marks the fingerprint as unstable.
+	 * @param value the value, may be {@code null}
+	 * @return {@code this}
+	 * @see #isSupported(Object)
+	 */
+	public Fingerprint add(Object value) {
+		if (value == null) {
+			this.digest.update(NULL);
+		}
+		else if (value instanceof byte[]) {
+			add((byte[]) value);
+		}
+		else if (value instanceof Fingerprintable) {
+			this.digest.update(OBJECT);
+			add(value.getClass().getName());
+			((Fingerprintable) value).contributeTo(this);
+		}
+		else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			this.digest.update(MAP);
+			updateWithLong(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				add(entry.getKey());
+				add(entry.getValue());
+			}
+		}
+		else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			this.digest.update(COLLECTION);
+			updateWithLong(collection.size());
+			for (Object element : collection) {
+				add(element);
+			}
+		}
+		else if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			this.digest.update(COLLECTION);
+			updateWithLong(length);
+			for (int i = 0; i < length; i++) {
+				add(Array.get(value, i));
+			}
+		}
+		else if (isSimple(value)) {
+			this.digest.update(OBJECT);
+			add(value.getClass().getName());
+			add(value.toString());
+		}
+		else {
+			markUnstable();
+		}
+		return this;
+	}
+
+	/**
+	 * Marks this fingerprint as unstable. An unstable fingerprint does not capture all of
+	 * the inputs to the documentation of an operation and must not be used to decide
+	 * whether documentation can be reused.
+	 */
+	public void markUnstable() {
+		this.stable = false;
+	}
+
+	/**
+	 * Returns whether this fingerprint is stable, having captured all of the inputs that
+	 * were added to it.
+	 * @return {@code true} if stable, otherwise {@code false}
+	 */
+	public boolean isStable() {
+		return this.stable;
+	}
+
+	/**
+	 * Returns the value of this fingerprint as a hexadecimal string. No further values
+	 * should be added once the value has been returned.
+	 * @return the value of the fingerprint
+	 */
+	public String toHexString() {
+		return HexFormat.of().formatHex(this.digest.digest());
+	}
+
+	/**
+	 * Returns whether the given {@code value} is of a type that can be
+	 * {@link #add(Object) added} without marking the fingerprint as unstable. The
+	 * elements of arrays and collections and the keys and values of maps are also
+	 * checked.
+	 * @param value the value
+	 * @return {@code true} if the value is supported, otherwise {@code false}
+	 */
+	public static boolean isSupported(Object value) {
+		if (value == null || value instanceof byte[] || value instanceof Fingerprintable || isSimple(value)) {
+			return true;
+		}
+		if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!isSupported(entry.getKey()) || !isSupported(entry.getValue())) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (!isSupported(element)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (value.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(value); i++) {
+				if (!isSupported(Array.get(value, i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isSimple(Object value) {
+		return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum || value instanceof Class
+				|| value instanceof URI || value instanceof MimeType || value instanceof HttpMethod;
+	}
+
+	private void updateWithLength(byte[] bytes) {
+		updateWithLong(bytes.length);
+		this.digest.update(bytes);
+	}
+
+	private void updateWithLong(long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			this.digest.update((byte) (value >>> shift));
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+/**
+ * An object, such as a {@link Snippet} or a descriptor, that can contribute the state
+ * that affects the documentation that it produces to a {@link Fingerprint}.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public interface Fingerprintable {
+
+	/**
+	 * Contributes this object's state to the given {@code fingerprint}. An implementation
+	 * that cannot describe all of its state should {@link Fingerprint#markUnstable() mark
+	 * the fingerprint as unstable}.
+	 * @param fingerprint the fingerprint
+	 */
+	void contributeTo(Fingerprint fingerprint);
+
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.snippet.StandardWriterResolver.WriteMode;
+import org.springframework.restdocs.templates.TemplateFormat;
+import org.springframework.util.PropertyPlaceholderHelper;
+import org.springframework.util.PropertyPlaceholderHelper.PlaceholderResolver;
+
+/**
+ * A {@link WriterResolver} that appends snippets to an archive rather than writing each
+ * of them to a file of its own. The snippets of each test class are appended to an
+ * archive in the configured output directory that is named after the class. An archive
+ * is made up of two files:
+ * <ul>
+ * <li>a data file, with the suffix {@value #DATA_FILE_SUFFIX}, to which the encoded
+ * content of each snippet is appended</li>
+ * <li>an index file, with the suffix {@value #INDEX_FILE_SUFFIX}, with a first line of
+ * the form {@code snippet-archive 1 <encoding>}, followed by a line of the form
+ * {@code <offset> <length> <path>} for each snippet, where {@code offset} and
+ * {@code length} locate the snippet's content in the data file and {@code path} is the
+ * path, relative to the output directory, of the file to which the snippet would
+ * otherwise have been written</li>
+ * </ul>
+ * Content is appended to the data file before the snippet is added to the index, and a
+ * snippet that is written more than once is superseded by its last entry. The first
+ * time that an archive is used by a JVM, it is compacted so that it only contains the
+ * latest entry for each snippet. As with a {@link StandardWriterResolver}, snippets that
+ * are no longer written, such as those of a test that has been removed, are not removed
+ * from an archive. Cleaning the output directory removes them.
+ * <p>
+ * Snippets of operations whose names resolve to an absolute path, or that are
+ * documented without an output directory, are written in the same way as they would be
+ * by a {@link StandardWriterResolver}.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ */
+public final class SnippetArchiveWriterResolver implements WriterResolver {
+
+	/**
+	 * The suffix of the name of an archive's data file.
+	 */
+	public static final String DATA_FILE_SUFFIX = ".snippets";
+
+	/**
+	 * The suffix of the name of an archive's index file.
+	 */
+	public static final String INDEX_FILE_SUFFIX = ".snippets.index";
+
+	private static final String INDEX_HEADER_PREFIX = "snippet-archive 1 ";
+
+	private static final String DEFAULT_ARCHIVE_NAME = "snippets";
+
+	private static final ConcurrentMap<Path, SnippetArchive> archives = new ConcurrentHashMap<>();
+
+	private final PlaceholderResolverFactory placeholderResolverFactory;
+
+	private final PropertyPlaceholderHelper propertyPlaceholderHelper = new PropertyPlaceholderHelper("{", "}");
+
+	private final Charset charset;
+
+	private final TemplateFormat templateFormat;
+
+	private final StandardWriterResolver fileWriterResolver;
+
+	/**
+	 * Creates a new {@code SnippetArchiveWriterResolver} that will use a
+	 * {@link PlaceholderResolver} created from the given
+	 * {@code placeholderResolverFactory} to resolve any placeholders in the
+	 * {@code operationName}. Snippets will be encoded using the given {@code encoding}
+	 * and archived using a path appropriate for content generated from templates in the
+	 * given {@code templateFormat}.
+	 * @param placeholderResolverFactory the placeholder resolver factory
+	 * @param encoding the encoding
+	 * @param templateFormat the snippet format
+	 */
+	public SnippetArchiveWriterResolver(PlaceholderResolverFactory placeholderResolverFactory, String encoding,
+			TemplateFormat templateFormat) {
+		this.placeholderResolverFactory = placeholderResolverFactory;
+		this.charset = Charset.forName(encoding);
+		this.templateFormat = templateFormat;
+		this.fileWriterResolver = new StandardWriterResolver(placeholderResolverFactory, encoding, templateFormat,
+				WriteMode.BUFFERED);
+	}
+
+	@Override
+	public Writer resolve(String operationName, String snippetName, RestDocumentationContext context)
+			throws IOException {
+		File outputDirectory = context.getOutputDirectory();
+		PlaceholderResolver placeholderResolver = this.placeholderResolverFactory.create(context);
+		File operationDirectory = new File(replacePlaceholders(placeholderResolver, operationName));
+		if (outputDirectory == null || operationDirectory.isAbsolute()) {
+			return this.fileWriterResolver.resolve(operationName, snippetName, context);
+		}
+		String fileName = replacePlaceholders(placeholderResolver, snippetName) + "."
+				+ this.templateFormat.getFileExtension();
+		return new ArchivedSnippetWriter(getArchive(outputDirectory, context),
+				toArchivePath(new File(operationDirectory, fileName)), context);
+	}
+
+	/**
+	 * Returns whether the archive of the current test class contains any snippets of the
+	 * operation with the given {@code operationName}.
+	 * @param operationName the name of the operation
+	 * @param context the current documentation context
+	 * @return {@code true} if the archive contains snippets of the operation, otherwise
+	 * {@code false}
+	 * @throws IOException if the archive's index cannot be read
+	 */
+	@Override
+	public boolean hasSnippets(String operationName, RestDocumentationContext context) throws IOException {
+		File outputDirectory = context.getOutputDirectory();
+		File operationDirectory = new File(
+				replacePlaceholders(this.placeholderResolverFactory.create(context), operationName));
+		if (outputDirectory == null || operationDirectory.isAbsolute()) {
+			return this.fileWriterResolver.hasSnippets(operationName, context);
+		}
+		return getArchive(outputDirectory, context).contains(toArchivePath(operationDirectory) + "/", this.charset);
+	}
+
+	private SnippetArchive getArchive(File outputDirectory, RestDocumentationContext context) {
+		Class<?> testClass = context.getTestClass();
+		String archiveName = (testClass != null) ? testClass.getName() : DEFAULT_ARCHIVE_NAME;
+		return archives.computeIfAbsent(
+				outputDirectory.toPath().toAbsolutePath().resolve(archiveName + DATA_FILE_SUFFIX),
+				SnippetArchive::new);
+	}
+
+	private String toArchivePath(File file) {
+		return file.toPath().normalize().toString().replace(File.separatorChar, '/');
+	}
+
+	private String replacePlaceholders(PlaceholderResolver resolver, String input) {
+		return this.propertyPlaceholderHelper.replacePlaceholders(input, resolver);
+	}
+
+	/**
+	 * A {@link Writer} that holds a snippet in memory and appends it to an archive when
+	 * it is closed.
+	 */
+	private final class ArchivedSnippetWriter extends Writer {
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		private final SnippetArchive archive;
+
+		private final String path;
+
+		private final RestDocumentationContext context;
+
+		private boolean closed;
+
+		private ArchivedSnippetWriter(SnippetArchive archive, String path, RestDocumentationContext context) {
+			this.archive = archive;
+			this.path = path;
+			this.context = context;
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(String string, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(string, offset, offset + length);
+		}
+
+		@Override
+		public Writer append(CharSequence sequence) throws IOException {
+			assertOpen();
+			this.buffer.append(sequence);
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			assertOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			ByteBuffer content = SnippetArchiveWriterResolver.this.charset.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE)
+					.encode(CharBuffer.wrap(this.buffer));
+			this.archive.append(this.path, content, SnippetArchiveWriterResolver.this.charset, this.context);
+		}
+
+		private void assertOpen() throws IOException {
+			if (this.closed) {
+				throw new IOException("Writer has been closed");
+			}
+		}
+
+	}
+
+	/**
+	 * An archive's data and index files. The files are opened when a snippet is appended
+	 * and remain open until the test that is being documented has completed.
+	 */
+	private static final class SnippetArchive {
+
+		private final Path dataFile;
+
+		private final Path indexFile;
+
+		private boolean compacted;
+
+		private Set<String> paths;
+
+		private FileChannel data;
+
+		private FileChannel index;
+
+		private SnippetArchive(Path dataFile) {
+			this.dataFile = dataFile;
+			String dataFileName = dataFile.getFileName().toString();
+			this.indexFile = dataFile.resolveSibling(
+					dataFileName.substring(0, dataFileName.length() - DATA_FILE_SUFFIX.length()) + INDEX_FILE_SUFFIX);
+		}
+
+		private synchronized void append(String path, ByteBuffer content, Charset charset,
+				RestDocumentationContext context) throws IOException {
+			if (this.data == null) {
+				open(charset);
+				if (!context.registerTestCompletionCallback(this::close)) {
+					try {
+						write(path, content);
+					}
+					finally {
+						close();
+					}
+					return;
+				}
+			}
+			write(path, content);
+		}
+
+		private void write(String path, ByteBuffer content) throws IOException {
+			long offset = this.data.size();
+			int length = content.remaining();
+			writeFully(this.data, content);
+			writeFully(this.index, StandardCharsets.UTF_8.encode(offset + " " + length + " " + path + "\n"));
+			if (this.paths != null) {
+				this.paths.add(path);
+			}
+		}
+
+		private synchronized boolean contains(String pathPrefix, Charset charset) throws IOException {
+			if (this.paths == null) {
+				this.paths = new HashSet<>(readEntries(charset).keySet());
+			}
+			for (String path : this.paths) {
+				if (path.startsWith(pathPrefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void open(Charset charset) throws IOException {
+			Files.createDirectories(this.dataFile.getParent());
+			if (!this.compacted) {
+				compact(charset);
+				this.compacted = true;
+			}
+			this.data = FileChannel.open(this.dataFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			this.index = FileChannel.open(this.indexFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+
+		private void compact(Charset charset) throws IOException {
+			Map<String, long[]> entries = readEntries(charset);
+			Path compactedData = Files.createTempFile(this.dataFile.getParent(), "compacting-", DATA_FILE_SUFFIX);
+			Path compactedIndex = Files.createTempFile(this.dataFile.getParent(), "compacting-", INDEX_FILE_SUFFIX);
+			try {
+				try (FileChannel source = entries.isEmpty() ? null : FileChannel.open(this.dataFile);
+						FileChannel data = FileChannel.open(compactedData, StandardOpenOption.WRITE);
+						FileChannel index = FileChannel.open(compactedIndex, StandardOpenOption.WRITE)) {
+					writeFully(index, StandardCharsets.UTF_8.encode(INDEX_HEADER_PREFIX + charset.name() + "\n"));
+					for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+						long offset = data.size();
+						long length = entry.getValue()[1];
+						long transferred = 0;
+						while (transferred < length) {
+							transferred += source.transferTo(entry.getValue()[0] + transferred,
+									length - transferred, data);
+						}
+						writeFully(index,
+								StandardCharsets.UTF_8.encode(offset + " " + length + " " + entry.getKey() + "\n"));
+					}
+				}
+				Files.move(compactedData, this.dataFile, StandardCopyOption.REPLACE_EXISTING);
+				Files.move(compactedIndex, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(compactedData);
+				Files.deleteIfExists(compactedIndex);
+			}
+		}
+
+		private Map<String, long[]> readEntries(Charset charset) throws IOException {
+			Map<String, long[]> entries = new LinkedHashMap<>();
+			if (!Files.isRegularFile(this.indexFile) || !Files.isRegularFile(this.dataFile)) {
+				return entries;
+			}
+			long dataLength = Files.size(this.dataFile);
+			try (BufferedReader reader = Files.newBufferedReader(this.indexFile, StandardCharsets.UTF_8)) {
+				String header = reader.readLine();
+				if (header == null || !header.equals(INDEX_HEADER_PREFIX + charset.name())) {
+					return entries;
+				}
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] components = line.split(" ", 3);
+					if (components.length == 3) {
+						long offset = Long.parseLong(components[0]);
+						long length = Long.parseLong(components[1]);
+						if (offset + length <= dataLength) {
+							entries.remove(components[2]);
+							entries.put(components[2], new long[] { offset, length });
+						}
+					}
+				}
+			}
+			catch (NumberFormatException ex) {
+				// Truncated or corrupt entry. Keep those that have been read.
+			}
+			return entries;
+		}
+
+		private synchronized void close() {
+			try (FileChannel data = this.data; FileChannel index = this.index) {
+				this.data = null;
+				this.index = null;
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to close snippet archive '" + this.dataFile + "'", ex);
+			}
+		}
+
+		private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+
+	}
+
+}
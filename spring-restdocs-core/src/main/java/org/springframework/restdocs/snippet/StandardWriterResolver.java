@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,28 +17,81 @@
 package org.springframework.restdocs.snippet;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.instrumentation.FlightRecorderEvents;
+import org.springframework.restdocs.instrumentation.SnippetWriteEvent;
 import org.springframework.restdocs.templates.TemplateFormat;
 import org.springframework.util.PropertyPlaceholderHelper;
 import org.springframework.util.PropertyPlaceholderHelper.PlaceholderResolver;
 
 /**
  * Standard implementation of {@link WriterResolver}.
+ * <p>
+ * How snippets are written to their files is controlled by the {@link WriteMode}.
+ * Regardless of the mode, the existence of each output directory is only checked once.
  *
  * @author Andy Wilkinson
  */
 public final class StandardWriterResolver implements WriterResolver {
 
+	/**
+	 * The name of the file, in the configured output directory, to which the paths of
+	 * snippets that have changed are written when using
+	 * {@link WriteMode#SKIP_UNCHANGED}.
+	 */
+	public static final String CHANGED_SNIPPETS_FILE_NAME = "changed-snippets.txt";
+
+	/**
+	 * The name of the system property that identifies the test run of the current build
+	 * when using {@link WriteMode#SKIP_UNCHANGED}. JVMs that share a run id record their
+	 * changed snippets in the same list. When the property is not set, each JVM is a run
+	 * of its own.
+	 */
+	public static final String RUN_ID_PROPERTY = "org.springframework.restdocs.runId";
+
+	private static final String RUN_HEADER_PREFIX = "# run ";
+
+	private static final String JVM_RUN_ID = UUID.randomUUID().toString();
+
+	private static final Object changedSnippetsMonitor = new Object();
+
+	private static final Set<Path> startedChangedSnippetsFiles = ConcurrentHashMap.newKeySet();
+
+	private static final int SNIPPET_BUFFER_SIZE = 4 * 1024;
+
+	private static final ThreadLocal<CharsetEncoder> encoders = new ThreadLocal<>();
+
 	private final PlaceholderResolverFactory placeholderResolverFactory;
 
 	private final PropertyPlaceholderHelper propertyPlaceholderHelper = new PropertyPlaceholderHelper("{", "}");
 
-	private String encoding = "UTF-8";
+	private final Set<File> knownDirectories = ConcurrentHashMap.newKeySet();
+
+	private final Charset charset;
+
+	private final WriteMode writeMode;
 
 	private TemplateFormat templateFormat;
 
@@ -55,9 +108,29 @@ public final class StandardWriterResolver implements WriterResolver {
 	 */
 	public StandardWriterResolver(PlaceholderResolverFactory placeholderResolverFactory, String encoding,
 			TemplateFormat templateFormat) {
+		this(placeholderResolverFactory, encoding, templateFormat, WriteMode.DIRECT);
+	}
+
+	/**
+	 * Creates a new {@code StandardWriterResolver} that will use a
+	 * {@link PlaceholderResolver} created from the given
+	 * {@code placeholderResolverFactory} to resolve any placeholders in the
+	 * {@code operationName}. Writers will use the given {@code encoding} and, when
+	 * writing to a file, will use a filename appropriate for content generated from
+	 * templates in the given {@code templateFormat}. Snippets will be written to files
+	 * using the given {@code writeMode}.
+	 * @param placeholderResolverFactory the placeholder resolver factory
+	 * @param encoding the encoding
+	 * @param templateFormat the snippet format
+	 * @param writeMode the mode used to write snippets to files
+	 * @since 3.0.0
+	 */
+	public StandardWriterResolver(PlaceholderResolverFactory placeholderResolverFactory, String encoding,
+			TemplateFormat templateFormat, WriteMode writeMode) {
 		this.placeholderResolverFactory = placeholderResolverFactory;
-		this.encoding = encoding;
 		this.templateFormat = templateFormat;
+		this.charset = Charset.forName(encoding);
+		this.writeMode = writeMode;
 	}
 
 	@Override
@@ -69,12 +142,40 @@ public final class StandardWriterResolver implements WriterResolver {
 				+ this.templateFormat.getFileExtension();
 		File outputFile = resolveFile(outputDirectory, fileName, context);
 		if (outputFile != null) {
-			createDirectoriesIfNecessary(outputFile);
-			return new OutputStreamWriter(new FileOutputStream(outputFile), this.encoding);
+			if (this.writeMode == WriteMode.SKIP_UNCHANGED && context.getOutputDirectory() != null) {
+				startChangedSnippets(context.getOutputDirectory());
+			}
+			if (this.writeMode != WriteMode.DIRECT) {
+				createDirectoriesIfNecessary(outputFile);
+				return new BufferedSnippetWriter(operationName, snippetName, outputFile, this.charset,
+						this.writeMode == WriteMode.SKIP_UNCHANGED, context.getOutputDirectory());
+			}
+			return new OutputStreamWriter(openOutputStream(outputFile), this.charset);
 		}
 		else {
-			return new OutputStreamWriter(System.out, this.encoding);
+			return new OutputStreamWriter(System.out, this.charset);
+		}
+	}
+
+	/**
+	 * Returns whether the directory of the operation with the given
+	 * {@code operationName} contains any snippets.
+	 * @param operationName the name of the operation
+	 * @param context the current documentation context
+	 * @return {@code true} if the operation's directory contains snippets, otherwise
+	 * {@code false}
+	 */
+	@Override
+	public boolean hasSnippets(String operationName, RestDocumentationContext context) {
+		String operationDirectory = replacePlaceholders(this.placeholderResolverFactory.create(context),
+				operationName);
+		File snippet = resolveFile(operationDirectory, "snippet", context);
+		if (snippet == null) {
+			return false;
 		}
+		String suffix = "." + this.templateFormat.getFileExtension();
+		String[] snippets = snippet.getParentFile().list((directory, name) -> name.endsWith(suffix));
+		return snippets != null && snippets.length > 0;
 	}
 
 	private String replacePlaceholders(PlaceholderResolver resolver, String input) {
@@ -97,11 +198,271 @@ public final class StandardWriterResolver implements WriterResolver {
 		return null;
 	}
 
+	private OutputStream openOutputStream(File outputFile) throws FileNotFoundException {
+		createDirectoriesIfNecessary(outputFile);
+		try {
+			return new FileOutputStream(outputFile);
+		}
+		catch (FileNotFoundException ex) {
+			if (!this.knownDirectories.remove(outputFile.getParentFile())) {
+				throw ex;
+			}
+			createDirectoriesIfNecessary(outputFile);
+			return new FileOutputStream(outputFile);
+		}
+	}
+
 	private void createDirectoriesIfNecessary(File outputFile) {
 		File parent = outputFile.getParentFile();
-		if (!parent.isDirectory() && !parent.mkdirs()) {
+		if (this.knownDirectories.contains(parent)) {
+			return;
+		}
+		if (!parent.mkdirs() && !parent.isDirectory()) {
 			throw new IllegalStateException("Failed to create directory '" + parent + "'");
 		}
+		this.knownDirectories.add(parent);
+	}
+
+	private static ByteBuffer encode(CharSequence content, Charset charset) throws CharacterCodingException {
+		CharsetEncoder encoder = encoders.get();
+		if (encoder == null || !encoder.charset().equals(charset)) {
+			encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			encoders.set(encoder);
+		}
+		return encoder.encode(CharBuffer.wrap(content));
+	}
+
+	private static boolean hasContent(File file, ByteBuffer content) throws IOException {
+		if (!file.isFile() || file.length() != content.remaining()) {
+			return false;
+		}
+		return ByteBuffer.wrap(Files.readAllBytes(file.toPath())).equals(content);
+	}
+
+	private static void startChangedSnippets(File outputDirectory) throws IOException {
+		Path changedSnippets = outputDirectory.toPath().toAbsolutePath().resolve(CHANGED_SNIPPETS_FILE_NAME);
+		if (startedChangedSnippetsFiles.contains(changedSnippets)) {
+			return;
+		}
+		synchronized (changedSnippetsMonitor) {
+			if (startedChangedSnippetsFiles.contains(changedSnippets)) {
+				return;
+			}
+			Files.createDirectories(changedSnippets.getParent());
+			try (FileChannel channel = FileChannel.open(changedSnippets, StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+				String runId = System.getProperty(RUN_ID_PROPERTY, "");
+				ByteBuffer header = StandardCharsets.UTF_8.encode(RUN_HEADER_PREFIX
+						+ (runId.isEmpty() ? JVM_RUN_ID : runId) + System.lineSeparator());
+				ByteBuffer existing = ByteBuffer.allocate(header.remaining());
+				channel.read(existing, 0);
+				if (!existing.flip().equals(header)) {
+					channel.truncate(0);
+					channel.position(0);
+					while (header.hasRemaining()) {
+						channel.write(header);
+					}
+				}
+			}
+			startedChangedSnippetsFiles.add(changedSnippets);
+		}
+	}
+
+	private static void recordChangedSnippet(File outputDirectory, File snippet) throws IOException {
+		Path outputPath = outputDirectory.toPath().toAbsolutePath();
+		Path snippetPath = snippet.toPath().toAbsolutePath();
+		String entry = (snippetPath.startsWith(outputPath) ? outputPath.relativize(snippetPath) : snippetPath)
+				.toString().replace(File.separatorChar, '/') + System.lineSeparator();
+		Path changedSnippets = outputPath.resolve(CHANGED_SNIPPETS_FILE_NAME);
+		synchronized (changedSnippetsMonitor) {
+			try (FileChannel channel = FileChannel.open(changedSnippets, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+				channel.position(channel.size());
+				ByteBuffer bytes = ByteBuffer.wrap(entry.getBytes(StandardCharsets.UTF_8));
+				while (bytes.hasRemaining()) {
+					channel.write(bytes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Modes for writing snippets to files.
+	 *
+	 * @since 3.0.0
+	 */
+	public enum WriteMode {
+
+		/**
+		 * Snippets are written directly to their files as they are produced.
+		 */
+		DIRECT,
+
+		/**
+		 * Snippets are held in memory and then encoded, using an encoder that is reused by
+		 * the current thread, and written to their files in a single write when the
+		 * writer is flushed or closed.
+		 */
+		BUFFERED,
+
+		/**
+		 * Snippets are held in memory until the writer is closed. A snippet's file is
+		 * then only written if its content has changed, leaving unchanged files
+		 * untouched. The path of each snippet that is written is appended to
+		 * {@value StandardWriterResolver#CHANGED_SNIPPETS_FILE_NAME} in the configured output directory,
+		 * allowing a build to process only the snippets that have changed. The first line
+		 * of the file is of the form {@code # run <run id>} and identifies the test run
+		 * that recorded the paths that follow it. When a JVM first resolves a writer, the
+		 * file is emptied unless it was started by the same run, so a run that changes no
+		 * snippets leaves an empty list. The run id is taken from the
+		 * {@value StandardWriterResolver#RUN_ID_PROPERTY} system property. A build that
+		 * runs its tests in several JVMs should set it to a value that is unique to the
+		 * build so that the JVMs record their snippets in the same list. The file is
+		 * locked while it is written.
+		 */
+		SKIP_UNCHANGED
+
+	}
+
+	/**
+	 * A {@link Writer} that holds a snippet in memory and writes it to its file in a
+	 * single write when flushed or closed or, when skipping unchanged snippets, only when
+	 * closed and its content has changed.
+	 */
+	private final class BufferedSnippetWriter extends Writer {
+
+		private final StringBuilder buffer = new StringBuilder(SNIPPET_BUFFER_SIZE);
+
+		private final String operationName;
+
+		private final String snippetName;
+
+		private final File outputFile;
+
+		private final Charset charset;
+
+		private final boolean skipUnchanged;
+
+		private final File outputDirectory;
+
+		private OutputStream outputStream;
+
+		private SnippetWriteEvent writeEvent;
+
+		private long size;
+
+		private boolean closed;
+
+		private BufferedSnippetWriter(String operationName, String snippetName, File outputFile, Charset charset,
+				boolean skipUnchanged, File outputDirectory) {
+			this.operationName = operationName;
+			this.snippetName = snippetName;
+			this.outputFile = outputFile;
+			this.charset = charset;
+			this.skipUnchanged = skipUnchanged;
+			this.outputDirectory = outputDirectory;
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(String string, int offset, int length) throws IOException {
+			assertOpen();
+			this.buffer.append(string, offset, offset + length);
+		}
+
+		@Override
+		public Writer append(CharSequence sequence) throws IOException {
+			assertOpen();
+			this.buffer.append(sequence);
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			assertOpen();
+			if (!this.skipUnchanged) {
+				writeBuffer();
+				this.outputStream.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			if (this.skipUnchanged) {
+				writeIfChanged();
+				return;
+			}
+			try {
+				writeBuffer();
+			}
+			finally {
+				if (this.outputStream != null) {
+					this.outputStream.close();
+				}
+			}
+			if (this.writeEvent != null) {
+				this.writeEvent.complete(this.size, true);
+			}
+		}
+
+		private void writeIfChanged() throws IOException {
+			SnippetWriteEvent event = beginEvent();
+			ByteBuffer bytes = encode(this.buffer, this.charset);
+			if (hasContent(this.outputFile, bytes)) {
+				if (event != null) {
+					event.complete(bytes.remaining(), false);
+				}
+				return;
+			}
+			int size = bytes.remaining();
+			try (OutputStream outputStream = openOutputStream(this.outputFile)) {
+				outputStream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), size);
+			}
+			if (this.outputDirectory != null) {
+				recordChangedSnippet(this.outputDirectory, this.outputFile);
+			}
+			if (event != null) {
+				event.complete(size, true);
+			}
+		}
+
+		private void writeBuffer() throws IOException {
+			if (this.writeEvent == null) {
+				this.writeEvent = beginEvent();
+			}
+			if (this.outputStream == null) {
+				this.outputStream = openOutputStream(this.outputFile);
+			}
+			if (this.buffer.length() > 0) {
+				ByteBuffer bytes = encode(this.buffer, this.charset);
+				int size = bytes.remaining();
+				this.outputStream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), size);
+				this.size += size;
+				this.buffer.setLength(0);
+			}
+		}
+
+		private SnippetWriteEvent beginEvent() {
+			return FlightRecorderEvents.isEnabled()
+					? new SnippetWriteEvent(this.operationName, this.snippetName, this.outputFile.getPath()) : null;
+		}
+
+		private void assertOpen() throws IOException {
+			if (this.closed) {
+				throw new IOException("Writer has been closed");
+			}
+		}
+
 	}
 
 }
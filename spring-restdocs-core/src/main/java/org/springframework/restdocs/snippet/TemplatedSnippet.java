@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.instrumentation.DocumentationPhase;
+import org.springframework.restdocs.instrumentation.FlightRecorderEvents;
+import org.springframework.restdocs.instrumentation.Instrumentation;
+import org.springframework.restdocs.instrumentation.SnippetEvent;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.templates.Template;
 import org.springframework.restdocs.templates.TemplateEngine;
@@ -74,13 +78,73 @@ public abstract class TemplatedSnippet implements Snippet {
 		RestDocumentationContext context = (RestDocumentationContext) operation.getAttributes()
 				.get(RestDocumentationContext.class.getName());
 		WriterResolver writerResolver = (WriterResolver) operation.getAttributes().get(WriterResolver.class.getName());
+		Instrumentation instrumentation = Instrumentation.of(operation);
+		SnippetEvent event = FlightRecorderEvents.isEnabled() ? new SnippetEvent(operation.getName(), this.snippetName)
+				: null;
+		long start = instrumentation.start();
+		long processingNanos = 0;
+		int length;
 		try (Writer writer = writerResolver.resolve(operation.getName(), this.snippetName, context)) {
+			long modelStart = instrumentation.start();
 			Map<String, Object> model = createModel(operation);
 			model.putAll(this.attributes);
+			processingNanos += instrumentation.record(DocumentationPhase.MODEL_CREATION, this.snippetName, modelStart,
+					-1);
 			TemplateEngine templateEngine = (TemplateEngine) operation.getAttributes()
 					.get(TemplateEngine.class.getName());
-			writer.append(templateEngine.compileTemplate(this.templateName).render(model));
+			long compileStart = instrumentation.start();
+			Template template = templateEngine.compileTemplate(this.templateName);
+			processingNanos += instrumentation.record(DocumentationPhase.TEMPLATE_COMPILATION, this.templateName,
+					compileStart, -1);
+			long renderStart = instrumentation.start();
+			String rendered = template.render(model);
+			length = rendered.length();
+			processingNanos += instrumentation.record(DocumentationPhase.TEMPLATE_RENDERING, this.snippetName,
+					renderStart, length);
+			writer.append(rendered);
 		}
+		// Writing includes resolving and closing the writer so it is measured as
+		// everything other than the processing
+		instrumentation.record(DocumentationPhase.SNIPPET_WRITE, this.snippetName, start + processingNanos, length);
+		if (event != null) {
+			event.complete(length);
+		}
+	}
+
+	/**
+	 * Contributes the inputs to this snippet, other than the request and response of the
+	 * given {@code operation}, to the given {@code fingerprint}. The inputs are the type,
+	 * name, and attributes of the snippet, the identity of its template, and its
+	 * {@link #contributeConfigurationTo(Fingerprint) configuration}.
+	 * @param fingerprint the fingerprint
+	 * @param operation the operation that is being documented
+	 * @throws IOException if the identity of the template cannot be determined
+	 * @since 3.0.0
+	 */
+	public void contributeTo(Fingerprint fingerprint, Operation operation) throws IOException {
+		fingerprint.add(getClass().getName()).add(this.snippetName).add(this.templateName).add(this.attributes);
+		TemplateEngine templateEngine = (TemplateEngine) operation.getAttributes().get(TemplateEngine.class.getName());
+		String templateIdentity = (templateEngine != null) ? templateEngine.getTemplateIdentity(this.templateName)
+				: null;
+		if (templateIdentity == null) {
+			fingerprint.markUnstable();
+		}
+		fingerprint.add(templateIdentity);
+		contributeConfigurationTo(fingerprint);
+	}
+
+	/**
+	 * Contributes the configuration of this snippet that affects the documentation that
+	 * it produces, such as its descriptors, to the given {@code fingerprint}. The default
+	 * implementation marks the fingerprint as unstable as the configuration of a subclass
+	 * is unknown. Subclasses should override this method to add all of their
+	 * configuration, including that of any superclass other than
+	 * {@code TemplatedSnippet}.
+	 * @param fingerprint the fingerprint
+	 * @since 3.0.0
+	 */
+	protected void contributeConfigurationTo(Fingerprint fingerprint) {
+		fingerprint.markUnstable();
 	}
 
 	/**
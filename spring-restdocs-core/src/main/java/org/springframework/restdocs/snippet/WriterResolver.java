@@ -18,6 +18,7 @@ package org.springframework.restdocs.snippet;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.restdocs.RestDocumentationContext;
 
@@ -41,4 +42,37 @@ public interface WriterResolver {
 	Writer resolve(String operationName, String snippetName, RestDocumentationContext restDocumentationContext)
 			throws IOException;
 
+	/**
+	 * Returns a future that completes once the snippets of the operation with the given
+	 * name, whose writers have been closed, have been written. The future completes
+	 * exceptionally if any of the snippets could not be written. The default
+	 * implementation returns a completed future as it assumes that a snippet has been
+	 * written by the time that its writer has been closed.
+	 * @param operationName the name of the operation that is being documented
+	 * @param restDocumentationContext the current documentation context
+	 * @return a future that completes when the operation's snippets have been written
+	 * @since 3.0.0
+	 */
+	default CompletableFuture<Void> whenWritten(String operationName,
+			RestDocumentationContext restDocumentationContext) {
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Returns whether the snippets of the operation with the given name that were
+	 * written by an earlier run are still available. Used to decide whether an operation
+	 * whose inputs have not changed can be skipped. The default implementation returns
+	 * {@code false} so that such operations are always documented again.
+	 * @param operationName the name of the operation
+	 * @param restDocumentationContext the current documentation context
+	 * @return {@code true} if the operation's snippets are available, otherwise
+	 * {@code false}
+	 * @throws IOException if the snippets cannot be checked
+	 * @since 3.0.0
+	 */
+	default boolean hasSnippets(String operationName, RestDocumentationContext restDocumentationContext)
+			throws IOException {
+		return false;
+	}
+
 }
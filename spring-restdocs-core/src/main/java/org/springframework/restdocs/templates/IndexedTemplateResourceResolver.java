@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.templates;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link TemplateResourceResolver} that resolves templates from an index of the
+ * classpath. The index is built when the resolver is created by scanning
+ * {@code org/springframework/restdocs/templates/**} once. Templates are then resolved
+ * using the same locations and precedence as
+ * {@link StandardTemplateResourceResolver}:
+ * <ol>
+ * <li>
+ * <code>org/springframework/restdocs/templates/${templateFormatId}/${name}.snippet</code>
+ * </li>
+ * <li><code>org/springframework/restdocs/templates/${name}.snippet</code></li>
+ * <li>
+ * <code>org/springframework/restdocs/templates/${templateFormatId}/default-${name}.snippet</code>
+ * </li>
+ * </ol>
+ * The index is trusted: the locations are only looked for on the classpath if none of
+ * them are in the index, or if the classpath could not be scanned. As a result, a
+ * custom template that cannot be found by scanning, for example because it is in a jar
+ * file without directory entries, does not override an indexed template in a
+ * lower-precedence location. The result of each resolution is cached.
+ *
+ * @author Andy Wilkinson
+ * @since 3.0.0
+ * @see StandardTemplateResourceResolver
+ */
+public class IndexedTemplateResourceResolver implements TemplateResourceResolver {
+
+	private static final String TEMPLATES_LOCATION = "org/springframework/restdocs/templates/";
+
+	private static final String SNIPPET_SUFFIX = ".snippet";
+
+	private static final String DEFAULT_PREFIX = "default-";
+
+	private final TemplateFormat templateFormat;
+
+	private final ClassLoader classLoader;
+
+	private final Map<String, Resource> index;
+
+	private final Map<String, Resource> resolvedTemplates = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new {@code IndexedTemplateResourceResolver} that will produce default
+	 * template resources formatted with the given {@code templateFormat}. The classpath
+	 * of the default class loader is indexed.
+	 * @param templateFormat the format for the default snippet templates
+	 */
+	public IndexedTemplateResourceResolver(TemplateFormat templateFormat) {
+		this(templateFormat, ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Creates a new {@code IndexedTemplateResourceResolver} that will produce default
+	 * template resources formatted with the given {@code templateFormat}. The classpath
+	 * of the given {@code classLoader} is indexed.
+	 * @param templateFormat the format for the default snippet templates
+	 * @param classLoader the class loader whose classpath is indexed
+	 */
+	public IndexedTemplateResourceResolver(TemplateFormat templateFormat, ClassLoader classLoader) {
+		this.templateFormat = templateFormat;
+		this.classLoader = classLoader;
+		this.index = scan(classLoader);
+	}
+
+	private static Map<String, Resource> scan(ClassLoader classLoader) {
+		ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+		Map<String, Resource> resources = new HashMap<>();
+		try {
+			for (Resource root : resolver
+					.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + TEMPLATES_LOCATION)) {
+				String rootUrl = root.getURL().toString();
+				for (Resource resource : resolver.getResources(rootUrl + "**/*" + SNIPPET_SUFFIX)) {
+					String url = resource.getURL().toString();
+					if (url.startsWith(rootUrl)) {
+						resources.putIfAbsent(url.substring(rootUrl.length()), resource);
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			return Collections.emptyMap();
+		}
+		return resources;
+	}
+
+	@Override
+	public Resource resolveTemplateResource(String name) {
+		return this.resolvedTemplates.computeIfAbsent(name, this::resolve);
+	}
+
+	private Resource resolve(String name) {
+		String[] locations = { this.templateFormat.getId() + "/" + name, name,
+				this.templateFormat.getId() + "/" + DEFAULT_PREFIX + name };
+		for (String location : locations) {
+			Resource template = this.index.get(location + SNIPPET_SUFFIX);
+			if (template != null) {
+				return template;
+			}
+		}
+		for (String location : locations) {
+			Resource template = new ClassPathResource(TEMPLATES_LOCATION + location + SNIPPET_SUFFIX,
+					this.classLoader);
+			if (template.exists()) {
+				return template;
+			}
+		}
+		throw new IllegalStateException("Template named '" + name + "' could not be resolved");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,4 +38,18 @@ public interface TemplateEngine {
 	 */
 	Template compileTemplate(String path) throws IOException;
 
+	/**
+	 * Returns the identity of the template at the given {@code path}. The identity
+	 * changes whenever the output of rendering the template with a particular model may
+	 * change, for example because the template itself has been modified. The default
+	 * implementation returns {@code null}, indicating that the identity is unknown.
+	 * @param path the path of the template
+	 * @return the identity of the template or {@code null}
+	 * @throws IOException if the template cannot be read
+	 * @since 3.0.0
+	 */
+	default String getTemplateIdentity(String path) throws IOException {
+		return null;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2020 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,18 @@
 package org.springframework.restdocs.templates.mustache;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.io.Resource;
 import org.springframework.restdocs.mustache.Mustache;
@@ -29,17 +36,30 @@ import org.springframework.restdocs.mustache.Mustache.Compiler;
 import org.springframework.restdocs.templates.Template;
 import org.springframework.restdocs.templates.TemplateEngine;
 import org.springframework.restdocs.templates.TemplateResourceResolver;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * A <a href="https://mustache.github.io">Mustache</a>-based {@link TemplateEngine}
  * implemented using <a href="https://github.com/samskivert/jmustache">JMustache</a>.
  * <p>
+ * Compiled templates are cached, by default up to a limit of
+ * {@value #DEFAULT_TEMPLATE_CACHE_LIMIT} templates, with the least recently used template
+ * being evicted when the limit is exceeded. Optionally, templates that have been
+ * compiled from a file can be recompiled when the file is modified.
+ * <p>
  * Note that JMustache has been repackaged and embedded to prevent classpath conflicts.
  *
  * @author Andy Wilkinson
  */
 public class MustacheTemplateEngine implements TemplateEngine {
 
+	/**
+	 * The default maximum number of compiled templates that are cached.
+	 * @see #setTemplateCacheLimit(int)
+	 */
+	public static final int DEFAULT_TEMPLATE_CACHE_LIMIT = 64;
+
 	private final TemplateResourceResolver templateResourceResolver;
 
 	private final Charset templateEncoding;
@@ -48,6 +68,13 @@ public class MustacheTemplateEngine implements TemplateEngine {
 
 	private final Map<String, Object> context;
 
+	private final Map<String, String> templateIdentities = new ConcurrentHashMap<>();
+
+	private volatile ConcurrentLruCache<String, CompiledTemplate> compiledTemplates = createTemplateCache(
+			DEFAULT_TEMPLATE_CACHE_LIMIT);
+
+	private volatile boolean checkForModifiedTemplates;
+
 	/**
 	 * Creates a new {@code MustacheTemplateEngine} that will use the given
 	 * {@code templateResourceResolver} to resolve template paths. Templates will be read
@@ -134,12 +161,102 @@ public class MustacheTemplateEngine implements TemplateEngine {
 		this.context = context;
 	}
 
+	/**
+	 * Sets the maximum number of compiled templates that will be cached. When the limit is
+	 * exceeded, the least recently used template is evicted. A limit of {@code 0}
+	 * disables caching so that templates are compiled every time they are requested.
+	 * Changing the limit discards any templates that have already been cached. The
+	 * default is {@value #DEFAULT_TEMPLATE_CACHE_LIMIT}.
+	 * @param templateCacheLimit the template cache limit
+	 * @since 3.0.0
+	 */
+	public void setTemplateCacheLimit(int templateCacheLimit) {
+		Assert.isTrue(templateCacheLimit >= 0, "Template cache limit must not be negative");
+		this.compiledTemplates = createTemplateCache(templateCacheLimit);
+	}
+
+	/**
+	 * Sets whether cached templates that were compiled from a file should be recompiled
+	 * when the file has been modified. Useful when custom templates are being edited
+	 * while documentation is being generated. The default is {@code false}.
+	 * @param checkForModifiedTemplates whether to check for modified templates
+	 * @since 3.0.0
+	 */
+	public void setCheckForModifiedTemplates(boolean checkForModifiedTemplates) {
+		this.checkForModifiedTemplates = checkForModifiedTemplates;
+	}
+
 	@Override
 	public Template compileTemplate(String name) throws IOException {
+		ConcurrentLruCache<String, CompiledTemplate> compiledTemplates = this.compiledTemplates;
+		try {
+			CompiledTemplate compiledTemplate = compiledTemplates.get(name);
+			if (this.checkForModifiedTemplates && compiledTemplate.isModified()) {
+				compiledTemplates.remove(name);
+				compiledTemplate = compiledTemplates.get(name);
+			}
+			return compiledTemplate.template;
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private ConcurrentLruCache<String, CompiledTemplate> createTemplateCache(int templateCacheLimit) {
+		return new ConcurrentLruCache<>(templateCacheLimit, (name) -> {
+			try {
+				return compile(name);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+	}
+
+	/**
+	 * Returns the identity of the template at the given {@code path}, derived from the
+	 * content and encoding of the template resource. Identities are cached unless
+	 * {@link #setCheckForModifiedTemplates(boolean) checking for modified templates} is
+	 * enabled.
+	 * @param path the path of the template
+	 * @return the identity of the template
+	 * @throws IOException if the template cannot be read
+	 * @since 3.0.0
+	 */
+	@Override
+	public String getTemplateIdentity(String path) throws IOException {
+		String identity = this.checkForModifiedTemplates ? null : this.templateIdentities.get(path);
+		if (identity == null) {
+			identity = computeTemplateIdentity(path);
+			this.templateIdentities.put(path, identity);
+		}
+		return identity;
+	}
+
+	private String computeTemplateIdentity(String path) throws IOException {
+		Resource templateResource = this.templateResourceResolver.resolveTemplateResource(path);
+		try (InputStream input = templateResource.getInputStream()) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(this.templateEncoding.name().getBytes(StandardCharsets.UTF_8));
+			digest.update(input.readAllBytes());
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private CompiledTemplate compile(String name) throws IOException {
 		Resource templateResource = this.templateResourceResolver.resolveTemplateResource(name);
-		return new MustacheTemplate(
-				this.compiler.compile(new InputStreamReader(templateResource.getInputStream(), this.templateEncoding)),
-				this.context);
+		long lastModified = lastModified(templateResource);
+		try (Reader reader = new InputStreamReader(templateResource.getInputStream(), this.templateEncoding)) {
+			return new CompiledTemplate(new MustacheTemplate(this.compiler.compile(reader), this.context),
+					templateResource, lastModified);
+		}
+	}
+
+	private static long lastModified(Resource resource) throws IOException {
+		return resource.isFile() ? resource.lastModified() : -1;
 	}
 
 	/**
@@ -159,4 +276,29 @@ public class MustacheTemplateEngine implements TemplateEngine {
 		return this.templateResourceResolver;
 	}
 
+	private static final class CompiledTemplate {
+
+		private final Template template;
+
+		private final Resource resource;
+
+		private final long lastModified;
+
+		private CompiledTemplate(Template template, Resource resource, long lastModified) {
+			this.template = template;
+			this.resource = resource;
+			this.lastModified = lastModified;
+		}
+
+		private boolean isModified() {
+			try {
+				return lastModified(this.resource) != this.lastModified;
+			}
+			catch (IOException ex) {
+				return true;
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ManualRestDocumentation}.
+ *
+ * @author Andy Wilkinson
+ */
+public class ManualRestDocumentationTests {
+
+	private final ManualRestDocumentation restDocumentation = new ManualRestDocumentation("build");
+
+	@Test
+	public void beforeTestWhenContextAlreadyExistsOnCurrentThreadFails() {
+		this.restDocumentation.beforeTest(getClass(), "one");
+		assertThatIllegalStateException().isThrownBy(() -> this.restDocumentation.beforeTest(getClass(), "two"))
+				.withMessage("Context already exists. Did you forget to call afterTest()?");
+	}
+
+	@Test
+	public void beforeOperationWithoutContextFails() {
+		assertThatIllegalStateException().isThrownBy(this.restDocumentation::beforeOperation)
+				.withMessageStartingWith("No context is available for the current thread.");
+	}
+
+	@Test
+	public void stepCountIsIncrementedByEachOperation() {
+		this.restDocumentation.beforeTest(getClass(), "test");
+		this.restDocumentation.beforeOperation();
+		assertThat(this.restDocumentation.beforeOperation().getStepCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void completionCallbacksAreCalledAfterTest() {
+		AtomicInteger calls = new AtomicInteger();
+		this.restDocumentation.beforeTest(getClass(), "test");
+		assertThat(this.restDocumentation.beforeOperation().registerTestCompletionCallback(calls::incrementAndGet))
+				.isTrue();
+		this.restDocumentation.afterTest();
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	public void operationOnAnotherThreadUsesSoleActiveContext() throws Exception {
+		this.restDocumentation.beforeTest(getClass(), "test");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			RestDocumentationContext context = executor.submit(this.restDocumentation::beforeOperation).get();
+			assertThat(context.getTestMethodName()).isEqualTo("test");
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void afterTestOnAnotherThreadDoesNotCompleteTheActiveTest() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		this.restDocumentation.beforeTest(getClass(), "test");
+		this.restDocumentation.beforeOperation().registerTestCompletionCallback(calls::incrementAndGet);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(this.restDocumentation::afterTest).get();
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(calls).hasValue(0);
+		assertThat(this.restDocumentation.beforeOperation().getStepCount()).isEqualTo(2);
+		this.restDocumentation.afterTest();
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	public void concurrentTestsHaveTheirOwnContexts() throws Exception {
+		int threads = 4;
+		CountDownLatch started = new CountDownLatch(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] tests = new Future<?>[threads];
+			for (int i = 0; i < threads; i++) {
+				String methodName = "test" + i;
+				tests[i] = executor.submit(() -> {
+					this.restDocumentation.beforeTest(getClass(), methodName);
+					started.countDown();
+					started.await(10, TimeUnit.SECONDS);
+					for (int step = 1; step <= 100; step++) {
+						RestDocumentationContext context = this.restDocumentation.beforeOperation();
+						assertThat(context.getTestMethodName()).isEqualTo(methodName);
+						assertThat(context.getStepCount()).isEqualTo(step);
+					}
+					this.restDocumentation.afterTest();
+					return null;
+				});
+			}
+			for (Future<?> test : tests) {
+				test.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,34 @@
 
 package org.springframework.restdocs;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.restdocs.generate.RestDocumentationGenerator;
+import org.springframework.restdocs.instrumentation.DocumentationPhase;
+import org.springframework.restdocs.instrumentation.Measurement;
+import org.springframework.restdocs.instrumentation.MeasurementListener;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationRequestFactory;
@@ -40,9 +55,13 @@ import org.springframework.restdocs.operation.preprocess.OperationPreprocessor;
 import org.springframework.restdocs.operation.preprocess.OperationRequestPreprocessor;
 import org.springframework.restdocs.operation.preprocess.OperationResponsePreprocessor;
 import org.springframework.restdocs.operation.preprocess.Preprocessors;
+import org.springframework.restdocs.snippet.Fingerprint;
+import org.springframework.restdocs.snippet.Fingerprintable;
 import org.springframework.restdocs.snippet.Snippet;
+import org.springframework.restdocs.snippet.WriterResolver;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -56,6 +75,9 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
  */
 public class RestDocumentationGeneratorTests {
 
+	@Rule
+	public final TemporaryFolder temp = new TemporaryFolder();
+
 	@SuppressWarnings("unchecked")
 	private final RequestConverter<Object> requestConverter = mock(RequestConverter.class);
 
@@ -71,6 +93,10 @@ public class RestDocumentationGeneratorTests {
 
 	private final OperationResponse operationResponse = new OperationResponseFactory().create(0, null, null);
 
+	private final OperationRequest incrementalOperationRequest = new OperationRequestFactory().create(
+			URI.create("http://localhost:8080"), HttpMethod.GET, null, new HttpHeaders(), null,
+			Collections.emptyList());
+
 	private final Snippet snippet = mock(Snippet.class);
 
 	private final OperationPreprocessor requestPreprocessor = mock(OperationPreprocessor.class);
@@ -166,6 +192,190 @@ public class RestDocumentationGeneratorTests {
 		verifySnippetInvocation(additionalSnippet2, configuration);
 	}
 
+	@Test
+	public void handlingIsMeasuredWhenMeasurementListenerIsConfigured() throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.operationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		OperationRequest preprocessed = new OperationRequestFactory().create(URI.create("http://localhost:8080"), null,
+				"content".getBytes(), new HttpHeaders(), null, null);
+		given(this.requestPreprocessor.preprocess(this.operationRequest)).willReturn(preprocessed);
+		HashMap<String, Object> configuration = new HashMap<>();
+		List<Measurement> measurements = new ArrayList<>();
+		configuration.put(MeasurementListener.class.getName(), (MeasurementListener) measurements::add);
+		new RestDocumentationGenerator<>("id", this.requestConverter, this.responseConverter,
+				Preprocessors.preprocessRequest(this.requestPreprocessor), this.snippet).handle(this.request,
+						this.response, configuration);
+		assertThat(measurements).extracting(Measurement::getPhase).containsExactly(
+				DocumentationPhase.REQUEST_CONVERSION, DocumentationPhase.PREPROCESSOR,
+				DocumentationPhase.REQUEST_PREPROCESSING, DocumentationPhase.RESPONSE_CONVERSION,
+				DocumentationPhase.RESPONSE_PREPROCESSING, DocumentationPhase.OPERATION);
+		assertThat(measurements).extracting(Measurement::getOperationName).containsOnly("id");
+		assertThat(measurements.get(2).getSize()).isEqualTo(7);
+	}
+
+	@Test
+	public void snippetsAreDocumentedInParallelWhenEnabled() throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.operationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		HashMap<String, Object> configuration = new HashMap<>();
+		AtomicInteger executed = new AtomicInteger();
+		configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS, (Executor) (task) -> {
+			executed.incrementAndGet();
+			new Thread(task).start();
+		});
+		AtomicInteger documented = new AtomicInteger();
+		Snippet snippet = (operation) -> documented.incrementAndGet();
+		new RestDocumentationGenerator<>("id", this.requestConverter, this.responseConverter, snippet, snippet, snippet,
+				snippet, this.snippet).handle(this.request, this.response, configuration);
+		assertThat(documented).hasValue(4);
+		assertThat(executed).hasValue(4);
+		verifySnippetInvocation(this.snippet, configuration);
+	}
+
+	@Test
+	public void allParallelSnippetFailuresAreReported() throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.operationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		HashMap<String, Object> configuration = new HashMap<>();
+		configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS,
+				(Executor) (task) -> new Thread(task).start());
+		Snippet first = (operation) -> {
+			throw new IllegalStateException("first");
+		};
+		Snippet second = (operation) -> {
+			throw new IllegalStateException("second");
+		};
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, first, this.snippet, second);
+		assertThatIllegalStateException()
+				.isThrownBy(() -> generator.handle(this.request, this.response, configuration)).withMessage("first")
+				.satisfies((ex) -> assertThat(ex.getSuppressed()).extracting(Throwable::getMessage)
+						.containsExactly("second"));
+		verifySnippetInvocation(this.snippet, configuration);
+	}
+
+	@Test
+	public void operationWithUnchangedInputsIsNotDocumentedAgainWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		FingerprintableSnippet snippet = new FingerprintableSnippet("alpha");
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, snippet);
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		assertThat(snippet.documented).hasValue(1);
+		assertThat(new File(this.temp.getRoot(), RestDocumentationGenerator.FINGERPRINTS_DIRECTORY_NAME).list())
+				.hasSize(1);
+	}
+
+	@Test
+	public void operationWhoseSnippetsAreNoLongerAvailableIsDocumentedAgainWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		FingerprintableSnippet snippet = new FingerprintableSnippet("alpha");
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, snippet);
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		generator.handle(this.request, this.response, incrementalConfiguration(false));
+		assertThat(snippet.documented).hasValue(2);
+	}
+
+	@Test
+	public void skippedOperationIsMeasuredWhenIncrementalGenerationIsEnabled() throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, new FingerprintableSnippet("alpha"));
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		Map<String, Object> configuration = incrementalConfiguration();
+		List<Measurement> measurements = new ArrayList<>();
+		configuration.put(MeasurementListener.class.getName(), (MeasurementListener) measurements::add);
+		generator.handle(this.request, this.response, configuration);
+		Measurement operation = measurements.get(measurements.size() - 1);
+		assertThat(operation.getPhase()).isEqualTo(DocumentationPhase.OPERATION);
+		assertThat(operation.getSubject()).isEqualTo("skipped");
+	}
+
+	@Test
+	public void operationWithChangedResponseIsDocumentedAgainWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse,
+				new OperationResponseFactory().create(200, null, null));
+		FingerprintableSnippet snippet = new FingerprintableSnippet("alpha");
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, snippet);
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		assertThat(snippet.documented).hasValue(2);
+	}
+
+	@Test
+	public void operationWithChangedSnippetConfigurationIsDocumentedAgainWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		FingerprintableSnippet alpha = new FingerprintableSnippet("alpha");
+		new RestDocumentationGenerator<>("id", this.requestConverter, this.responseConverter, alpha)
+				.handle(this.request, this.response, incrementalConfiguration());
+		FingerprintableSnippet bravo = new FingerprintableSnippet("bravo");
+		new RestDocumentationGenerator<>("id", this.requestConverter, this.responseConverter, bravo)
+				.handle(this.request, this.response, incrementalConfiguration());
+		assertThat(alpha.documented).hasValue(1);
+		assertThat(bravo.documented).hasValue(1);
+	}
+
+	@Test
+	public void fingerprintIsRecordedOnceSnippetsHaveBeenWrittenWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		FingerprintableSnippet snippet = new FingerprintableSnippet("alpha");
+		CompletableFuture<Void> written = new CompletableFuture<>();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(
+				this.temp.getRoot().getAbsolutePath());
+		new RestDocumentationGenerator<>("id", this.requestConverter, this.responseConverter, snippet)
+				.handle(this.request, this.response, incrementalConfiguration(restDocumentation, written));
+		File fingerprints = new File(this.temp.getRoot(), RestDocumentationGenerator.FINGERPRINTS_DIRECTORY_NAME);
+		assertThat(fingerprints.list()).isNullOrEmpty();
+		written.complete(null);
+		restDocumentation.afterTest();
+		assertThat(fingerprints.list()).hasSize(1);
+	}
+
+	@Test
+	public void operationWhoseSnippetsFailToBeWrittenIsDocumentedAgainWhenIncrementalGenerationIsEnabled()
+			throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		FingerprintableSnippet snippet = new FingerprintableSnippet("alpha");
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, snippet);
+		CompletableFuture<Void> written = new CompletableFuture<>();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(
+				this.temp.getRoot().getAbsolutePath());
+		generator.handle(this.request, this.response, incrementalConfiguration(restDocumentation, written));
+		written.completeExceptionally(new IOException("Disk full"));
+		restDocumentation.afterTest();
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		assertThat(snippet.documented).hasValue(2);
+	}
+
+	@Test
+	public void operationWithSnippetThatCannotBeFingerprintedIsAlwaysDocumented() throws IOException {
+		given(this.requestConverter.convert(this.request)).willReturn(this.incrementalOperationRequest);
+		given(this.responseConverter.convert(this.response)).willReturn(this.operationResponse);
+		AtomicInteger documented = new AtomicInteger();
+		Snippet snippet = (operation) -> documented.incrementAndGet();
+		RestDocumentationGenerator<Object, Object> generator = new RestDocumentationGenerator<>("id",
+				this.requestConverter, this.responseConverter, snippet);
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		generator.handle(this.request, this.response, incrementalConfiguration());
+		assertThat(documented).hasValue(2);
+	}
+
 	private void verifySnippetInvocation(Snippet snippet, Map<String, Object> attributes) throws IOException {
 		ArgumentCaptor<Operation> operation = ArgumentCaptor.forClass(Operation.class);
 		verify(snippet).document(operation.capture());
@@ -200,4 +410,67 @@ public class RestDocumentationGeneratorTests {
 		return new OperationResponseFactory().create(0, null, null);
 	}
 
+	private Map<String, Object> incrementalConfiguration() {
+		return incrementalConfiguration(true);
+	}
+
+	private Map<String, Object> incrementalConfiguration(boolean hasSnippets) {
+		return incrementalConfiguration(new ManualRestDocumentation(this.temp.getRoot().getAbsolutePath()),
+				CompletableFuture.completedFuture(null), hasSnippets);
+	}
+
+	private Map<String, Object> incrementalConfiguration(ManualRestDocumentation restDocumentation,
+			CompletableFuture<Void> written) {
+		return incrementalConfiguration(restDocumentation, written, true);
+	}
+
+	private Map<String, Object> incrementalConfiguration(ManualRestDocumentation restDocumentation,
+			CompletableFuture<Void> written, boolean hasSnippets) {
+		restDocumentation.beforeTest(getClass(), "test");
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(RestDocumentationContext.class.getName(), restDocumentation.beforeOperation());
+		configuration.put(RestDocumentationGenerator.ATTRIBUTE_NAME_INCREMENTAL_GENERATION, true);
+		configuration.put(WriterResolver.class.getName(), new WriterResolver() {
+
+			@Override
+			public Writer resolve(String operationName, String snippetName, RestDocumentationContext context) {
+				return new StringWriter();
+			}
+
+			@Override
+			public CompletableFuture<Void> whenWritten(String operationName, RestDocumentationContext context) {
+				return written;
+			}
+
+			@Override
+			public boolean hasSnippets(String operationName, RestDocumentationContext context) {
+				return hasSnippets;
+			}
+
+		});
+		return configuration;
+	}
+
+	private static final class FingerprintableSnippet implements Snippet, Fingerprintable {
+
+		private final AtomicInteger documented = new AtomicInteger();
+
+		private final String configuration;
+
+		private FingerprintableSnippet(String configuration) {
+			this.configuration = configuration;
+		}
+
+		@Override
+		public void document(Operation operation) throws IOException {
+			this.documented.incrementAndGet();
+		}
+
+		@Override
+		public void contributeTo(Fingerprint fingerprint) {
+			fingerprint.add(this.configuration);
+		}
+
+	}
+
 }
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.junit.Test;
 
@@ -36,6 +37,8 @@ import org.springframework.restdocs.cli.HttpieRequestSnippet;
 import org.springframework.restdocs.generate.RestDocumentationGenerator;
 import org.springframework.restdocs.http.HttpRequestSnippet;
 import org.springframework.restdocs.http.HttpResponseSnippet;
+import org.springframework.restdocs.instrumentation.AggregatingMeasurementListener;
+import org.springframework.restdocs.instrumentation.MeasurementListener;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.operation.OperationRequestFactory;
 import org.springframework.restdocs.operation.OperationResponse;
@@ -43,9 +46,13 @@ import org.springframework.restdocs.operation.OperationResponseFactory;
 import org.springframework.restdocs.operation.preprocess.OperationRequestPreprocessor;
 import org.springframework.restdocs.operation.preprocess.OperationResponsePreprocessor;
 import org.springframework.restdocs.operation.preprocess.Preprocessors;
+import org.springframework.restdocs.payload.AbstractFieldsSnippet;
+import org.springframework.restdocs.payload.ContentHandlerFactory;
 import org.springframework.restdocs.payload.RequestBodySnippet;
 import org.springframework.restdocs.payload.ResponseBodySnippet;
+import org.springframework.restdocs.snippet.AsyncWriterResolver;
 import org.springframework.restdocs.snippet.Snippet;
+import org.springframework.restdocs.snippet.SnippetArchiveWriterResolver;
 import org.springframework.restdocs.snippet.StandardWriterResolver;
 import org.springframework.restdocs.snippet.WriterResolver;
 import org.springframework.restdocs.templates.TemplateEngine;
@@ -92,6 +99,8 @@ public class RestDocumentationConfigurerTests {
 				.get(SnippetConfiguration.class.getName());
 		assertThat(snippetConfiguration.getEncoding()).isEqualTo("UTF-8");
 		assertThat(snippetConfiguration.getTemplateFormat().getId()).isEqualTo(TemplateFormats.asciidoctor().getId());
+		assertThat(configuration).containsEntry(AbstractFieldsSnippet.ATTRIBUTE_NAME_STREAMING_THRESHOLD,
+				AbstractFieldsSnippet.DEFAULT_STREAMING_THRESHOLD);
 		OperationRequestPreprocessor defaultOperationRequestPreprocessor = (OperationRequestPreprocessor) configuration
 				.get(RestDocumentationGenerator.ATTRIBUTE_NAME_DEFAULT_OPERATION_REQUEST_PREPROCESSOR);
 		assertThat(defaultOperationRequestPreprocessor).isNull();
@@ -161,6 +170,89 @@ public class RestDocumentationConfigurerTests {
 				StandardCharsets.ISO_8859_1);
 	}
 
+	@Test
+	public void defaultTemplateEngineIsReused() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.apply(configuration, createContext());
+		TemplateEngine templateEngine = (TemplateEngine) configuration.get(TemplateEngine.class.getName());
+		this.configurer.apply(configuration, createContext());
+		assertThat(configuration.get(TemplateEngine.class.getName())).isSameAs(templateEngine);
+		this.configurer.snippets().withEncoding("ISO-8859-1");
+		this.configurer.apply(configuration, createContext());
+		assertThat(configuration.get(TemplateEngine.class.getName())).isNotSameAs(templateEngine);
+	}
+
+	@Test
+	public void configurationIsReusedUntilConfigurerIsModified() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.apply(configuration, createContext());
+		WriterResolver writerResolver = (WriterResolver) configuration.get(WriterResolver.class.getName());
+		Map<String, Object> secondConfiguration = new HashMap<>();
+		this.configurer.apply(secondConfiguration, createContext());
+		assertThat(secondConfiguration.get(WriterResolver.class.getName())).isSameAs(writerResolver);
+		this.configurer.snippets().withPayloadStreamingThreshold(1024);
+		Map<String, Object> thirdConfiguration = new HashMap<>();
+		this.configurer.apply(thirdConfiguration, createContext());
+		assertThat(thirdConfiguration.get(WriterResolver.class.getName())).isNotSameAs(writerResolver);
+		assertThat(thirdConfiguration.get(AbstractFieldsSnippet.ATTRIBUTE_NAME_STREAMING_THRESHOLD)).isEqualTo(1024);
+	}
+
+	@Test
+	public void asynchronousWrites() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withAsynchronousWrites(true).apply(configuration, createContext());
+		assertThat(configuration.get(WriterResolver.class.getName())).isInstanceOf(AsyncWriterResolver.class);
+	}
+
+	@Test
+	public void snippetArchives() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withSnippetArchives(true).apply(configuration, createContext());
+		assertThat(configuration.get(WriterResolver.class.getName()))
+				.isInstanceOf(SnippetArchiveWriterResolver.class);
+	}
+
+	@Test
+	public void parallelSnippets() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withParallelSnippets(true).apply(configuration, createContext());
+		assertThat(configuration.get(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS))
+				.isInstanceOf(ThreadPoolExecutor.class);
+		assertThat(((ThreadPoolExecutor) configuration.get(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS))
+				.getMaximumPoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Test
+	public void parallelSnippetsWithCustomThreads() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withParallelSnippets(3).apply(configuration, createContext());
+		assertThat(((ThreadPoolExecutor) configuration.get(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS))
+				.getMaximumPoolSize()).isEqualTo(3);
+	}
+
+	@Test
+	public void parallelSnippetsAreDisabledByDefault() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.apply(configuration, createContext());
+		assertThat(configuration).doesNotContainKey(RestDocumentationGenerator.ATTRIBUTE_NAME_PARALLEL_SNIPPETS);
+	}
+
+	@Test
+	public void incrementalGeneration() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withIncrementalGeneration(true).apply(configuration, createContext());
+		assertThat(configuration).containsEntry(RestDocumentationGenerator.ATTRIBUTE_NAME_INCREMENTAL_GENERATION,
+				true);
+	}
+
+	@Test
+	public void incrementalGenerationIsDisabledByDefault() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.apply(configuration, createContext());
+		assertThat(configuration).containsEntry(RestDocumentationGenerator.ATTRIBUTE_NAME_INCREMENTAL_GENERATION,
+				false);
+	}
+
 	@Test
 	public void customTemplateFormat() {
 		Map<String, Object> configuration = new HashMap<>();
@@ -172,6 +264,37 @@ public class RestDocumentationConfigurerTests {
 		assertThat(snippetConfiguration.getTemplateFormat().getId()).isEqualTo(TemplateFormats.markdown().getId());
 	}
 
+	@Test
+	public void customPayloadStreamingThreshold() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.snippets().withPayloadStreamingThreshold(1024).apply(configuration, createContext());
+		assertThat(configuration).containsEntry(AbstractFieldsSnippet.ATTRIBUTE_NAME_STREAMING_THRESHOLD, 1024L);
+	}
+
+	@Test
+	public void customContentHandlerFactories() {
+		Map<String, Object> configuration = new HashMap<>();
+		ContentHandlerFactory factory = mock(ContentHandlerFactory.class);
+		this.configurer.snippets().withContentHandlerFactories(factory).apply(configuration, createContext());
+		assertThat(configuration.get(AbstractFieldsSnippet.ATTRIBUTE_NAME_CONTENT_HANDLER_FACTORIES))
+				.isEqualTo(Collections.singletonList(factory));
+	}
+
+	@Test
+	public void customMeasurementListener() {
+		Map<String, Object> configuration = new HashMap<>();
+		MeasurementListener listener = new AggregatingMeasurementListener();
+		this.configurer.snippets().withMeasurementListener(listener).apply(configuration, createContext());
+		assertThat(configuration.get(MeasurementListener.class.getName())).isSameAs(listener);
+	}
+
+	@Test
+	public void noMeasurementListenerByDefault() {
+		Map<String, Object> configuration = new HashMap<>();
+		this.configurer.apply(configuration, createContext());
+		assertThat(configuration).doesNotContainKey(MeasurementListener.class.getName());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void asciidoctorTableCellContentLambaIsInstalledWhenUsingAsciidoctorTemplateFormat() {
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.restdocs.instrumentation.AggregatingMeasurementListener.Statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AggregatingMeasurementListener}.
+ *
+ * @author Andy Wilkinson
+ */
+public class AggregatingMeasurementListenerTests {
+
+	private final AggregatingMeasurementListener listener = new AggregatingMeasurementListener();
+
+	@Test
+	public void measurementsAreAggregatedByPhaseAndSubject() {
+		measured("one", DocumentationPhase.TEMPLATE_RENDERING, "request-fields", 10, 100);
+		measured("two", DocumentationPhase.TEMPLATE_RENDERING, "request-fields", 30, 50);
+		measured("one", DocumentationPhase.TEMPLATE_RENDERING, "http-request", 5, 20);
+		measured("one", DocumentationPhase.MODEL_CREATION, "request-fields", 7, -1);
+		Statistics statistics = this.listener.getStatistics(DocumentationPhase.TEMPLATE_RENDERING, "request-fields");
+		assertThat(statistics.getCount()).isEqualTo(2);
+		assertThat(statistics.getTotalNanos()).isEqualTo(40);
+		assertThat(statistics.getMaxNanos()).isEqualTo(30);
+		assertThat(statistics.getTotalSize()).isEqualTo(150);
+		assertThat(this.listener.getStatistics(DocumentationPhase.TEMPLATE_RENDERING, "http-request").getCount())
+				.isEqualTo(1);
+		assertThat(this.listener.getStatistics(DocumentationPhase.MODEL_CREATION, "request-fields").getTotalSize())
+				.isEqualTo(-1);
+		assertThat(this.listener.getStatistics(DocumentationPhase.SNIPPET_WRITE, "request-fields")).isNull();
+	}
+
+	@Test
+	public void measurementsWithoutASubjectAreAggregated() {
+		measured("one", DocumentationPhase.OPERATION, null, 10, -1);
+		measured("two", DocumentationPhase.OPERATION, null, 20, -1);
+		Statistics statistics = this.listener.getStatistics(DocumentationPhase.OPERATION, null);
+		assertThat(statistics.getCount()).isEqualTo(2);
+		assertThat(statistics.getSubject()).isNull();
+	}
+
+	@Test
+	public void statisticsAreOrderedByPhaseAndThenByTotalDuration() {
+		measured("one", DocumentationPhase.SNIPPET_WRITE, "a", 10, 1);
+		measured("one", DocumentationPhase.MODEL_CREATION, "b", 10, -1);
+		measured("one", DocumentationPhase.MODEL_CREATION, "c", 20, -1);
+		assertThat(this.listener.getStatistics()).extracting(Statistics::getSubject).containsExactly("c", "b", "a");
+	}
+
+	@Test
+	public void summaryContainsARowForEachPhaseAndSubject() {
+		measured("one", DocumentationPhase.TEMPLATE_RENDERING, "request-fields", 3000000, 100);
+		measured("one", DocumentationPhase.OPERATION, null, 5000000, -1);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		this.listener.printSummary(new PrintStream(output, true, StandardCharsets.UTF_8));
+		String[] lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+		assertThat(lines).hasSize(3);
+		assertThat(lines[0]).startsWith("Phase").contains("Subject", "Count", "Total (ms)", "Size");
+		assertThat(lines[1].split("\\s+")).containsExactly("TEMPLATE_RENDERING", "request-fields", "1", "3", "3000",
+				"3000", "100");
+		assertThat(lines[2].split("\\s+")).containsExactly("OPERATION", "-", "1", "5", "5000", "5000", "-");
+	}
+
+	private void measured(String operationName, DocumentationPhase phase, String subject, long durationNanos,
+			long size) {
+		this.listener.measured(new Measurement(operationName, phase, subject, durationNanos, size));
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FlightRecorderEvents} and the events that it controls.
+ *
+ * @author Andy Wilkinson
+ */
+public class FlightRecorderEventsTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void eventsAreDisabledByDefault() {
+		assertThat(FlightRecorderEvents.isEnabled()).isFalse();
+	}
+
+	@Test
+	public void operationEvent() throws IOException {
+		RecordedEvent event = record("org.springframework.restdocs.Operation",
+				() -> new OperationEvent("test").complete(12, 34));
+		assertThat(event.getString("operation")).isEqualTo("test");
+		assertThat(event.getLong("requestSize")).isEqualTo(12);
+		assertThat(event.getLong("responseSize")).isEqualTo(34);
+	}
+
+	@Test
+	public void snippetEvent() throws IOException {
+		RecordedEvent event = record("org.springframework.restdocs.Snippet",
+				() -> new SnippetEvent("test", "http-request").complete(56));
+		assertThat(event.getString("operation")).isEqualTo("test");
+		assertThat(event.getString("snippet")).isEqualTo("http-request");
+		assertThat(event.getLong("characters")).isEqualTo(56);
+	}
+
+	@Test
+	public void payloadParsingEvent() throws IOException {
+		RecordedEvent event = record("org.springframework.restdocs.PayloadParsing",
+				() -> new PayloadParsingEvent("test", "response-fields", "application/json", 78).complete());
+		assertThat(event.getString("operation")).isEqualTo("test");
+		assertThat(event.getString("snippet")).isEqualTo("response-fields");
+		assertThat(event.getString("contentType")).isEqualTo("application/json");
+		assertThat(event.getLong("payloadSize")).isEqualTo(78);
+	}
+
+	@Test
+	public void snippetWriteEvent() throws IOException {
+		RecordedEvent event = record("org.springframework.restdocs.SnippetWrite",
+				() -> new SnippetWriteEvent("test", "http-request", "test/http-request.adoc").complete(90, true));
+		assertThat(event.getString("operation")).isEqualTo("test");
+		assertThat(event.getString("snippet")).isEqualTo("http-request");
+		assertThat(event.getString("path")).isEqualTo("test/http-request.adoc");
+		assertThat(event.getLong("size")).isEqualTo(90);
+		assertThat(event.getBoolean("written")).isTrue();
+	}
+
+	private RecordedEvent record(String eventName, Runnable emitter) throws IOException {
+		Path recorded = this.temp.newFile("recording.jfr").toPath();
+		try (Recording recording = new Recording()) {
+			recording.enable(eventName);
+			recording.start();
+			emitter.run();
+			recording.stop();
+			recording.dump(recorded);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recorded);
+		assertThat(events).hasSize(1);
+		return events.get(0);
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.instrumentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Instrumentation}.
+ *
+ * @author Andy Wilkinson
+ */
+public class InstrumentationTests {
+
+	private final List<Measurement> measurements = new ArrayList<>();
+
+	private final Map<String, Object> attributes = Collections.singletonMap(MeasurementListener.class.getName(),
+			(MeasurementListener) this.measurements::add);
+
+	@Test
+	public void instrumentationIsDisabledWithoutAMeasurementListener() {
+		Instrumentation instrumentation = Instrumentation.of("test", Collections.emptyMap());
+		assertThat(instrumentation.isEnabled()).isFalse();
+		assertThat(instrumentation.start()).isEqualTo(0);
+		assertThat(instrumentation.record(DocumentationPhase.OPERATION, null, 0, -1)).isEqualTo(0);
+	}
+
+	@Test
+	public void measurementIsPassedToListener() {
+		Instrumentation instrumentation = Instrumentation.of("test", this.attributes);
+		long start = instrumentation.start();
+		long duration = instrumentation.record(DocumentationPhase.SNIPPET_WRITE, "http-request", start, 42);
+		assertThat(this.measurements).hasSize(1);
+		Measurement measurement = this.measurements.get(0);
+		assertThat(measurement.getOperationName()).isEqualTo("test");
+		assertThat(measurement.getPhase()).isEqualTo(DocumentationPhase.SNIPPET_WRITE);
+		assertThat(measurement.getSubject()).isEqualTo("http-request");
+		assertThat(measurement.getDurationNanos()).isEqualTo(duration).isGreaterThanOrEqualTo(0);
+		assertThat(measurement.getSize()).isEqualTo(42);
+	}
+
+	@Test
+	public void currentIsDisabledWhenNoInstrumentationIsOpen() {
+		assertThat(Instrumentation.current().isEnabled()).isFalse();
+	}
+
+	@Test
+	public void openInstrumentationIsCurrentUntilItsScopeIsClosed() {
+		Instrumentation instrumentation = Instrumentation.of("test", this.attributes);
+		try (Instrumentation.Scope scope = instrumentation.open()) {
+			assertThat(Instrumentation.current()).isSameAs(instrumentation);
+			Instrumentation nested = Instrumentation.of("nested", this.attributes);
+			try (Instrumentation.Scope nestedScope = nested.open()) {
+				assertThat(Instrumentation.current()).isSameAs(nested);
+			}
+			assertThat(Instrumentation.current()).isSameAs(instrumentation);
+		}
+		assertThat(Instrumentation.current().isEnabled()).isFalse();
+	}
+
+}
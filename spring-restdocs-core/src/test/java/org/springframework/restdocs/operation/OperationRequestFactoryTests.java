@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.operation;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OperationRequestFactory}.
+ *
+ * @author Andy Wilkinson
+ */
+public class OperationRequestFactoryTests {
+
+	private final OperationRequestFactory factory = new OperationRequestFactory();
+
+	@Test
+	public void contentLengthOfRequestWithContent() {
+		assertThat(createRequest("content".getBytes()).getContentLength()).isEqualTo(7);
+	}
+
+	@Test
+	public void contentLengthOfRequestWithNoContent() {
+		assertThat(createRequest(null).getContentLength()).isEqualTo(0);
+	}
+
+	@Test
+	public void contentAsByteBufferIsReadOnlyViewOfContent() {
+		ByteBuffer content = createRequest("content".getBytes()).getContentAsByteBuffer();
+		assertThat(content.isReadOnly()).isTrue();
+		byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		assertThat(new String(bytes)).isEqualTo("content");
+	}
+
+	@Test
+	public void requestCreatedWithNewHeadersHasSameContent() {
+		OperationRequest original = createRequest("content".getBytes());
+		OperationRequest request = this.factory.createFrom(original, new HttpHeaders());
+		assertThat(request.getContent()).isEqualTo("content".getBytes());
+	}
+
+	private OperationRequest createRequest(byte[] content) {
+		return this.factory.create(URI.create("http://localhost"), HttpMethod.POST, content, new HttpHeaders(),
+				new Parameters(), Collections.emptyList());
+	}
+
+}
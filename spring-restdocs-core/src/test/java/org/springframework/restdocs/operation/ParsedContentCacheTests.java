@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.operation;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.ParsedContentCache.ContentParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParsedContentCache}.
+ *
+ * @author Andy Wilkinson
+ */
+public class ParsedContentCacheTests {
+
+	private final AtomicInteger parses = new AtomicInteger();
+
+	private final ContentParser<String> parser = (content) -> {
+		this.parses.incrementAndGet();
+		return new String(content);
+	};
+
+	@Test
+	public void contentIsParsedEveryTimeWhenCacheIsNotOpen() throws IOException {
+		assertThat(ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser))
+				.isEqualTo("a");
+		assertThat(ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser))
+				.isEqualTo("a");
+		assertThat(this.parses).hasValue(2);
+	}
+
+	@Test
+	public void equalContentIsParsedOnceWhileCacheIsOpen() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			String first = ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class,
+					this.parser);
+			String second = ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class,
+					this.parser);
+			assertThat(second).isSameAs(first);
+		}
+		assertThat(this.parses).hasValue(1);
+	}
+
+	@Test
+	public void contentWithDifferentMediaTypesIsParsedSeparately() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser);
+			ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_XML, String.class, this.parser);
+		}
+		assertThat(this.parses).hasValue(2);
+	}
+
+	@Test
+	public void nullParsedFormIsCached() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			ContentParser<Object> nullParser = (content) -> {
+				this.parses.incrementAndGet();
+				return null;
+			};
+			assertThat(ParsedContentCache.get("null".getBytes(), null, Object.class, nullParser)).isNull();
+			assertThat(ParsedContentCache.get("null".getBytes(), null, Object.class, nullParser)).isNull();
+		}
+		assertThat(this.parses).hasValue(1);
+	}
+
+	@Test
+	public void contentThatIsPutIsNotParsed() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			ParsedContentCache.put("a".getBytes(), MediaType.APPLICATION_JSON, String.class, "parsed");
+			assertThat(ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser))
+					.isEqualTo("parsed");
+		}
+		assertThat(this.parses).hasValue(0);
+	}
+
+	@Test
+	public void sharedCacheIsUsedByAnotherThread() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			String parsed = ParsedContentCache.get("a".getBytes(), null, String.class, this.parser);
+			String parsedByOtherThread = executor.submit(() -> {
+				try (ParsedContentCache.Scope sharedScope = scope.share()) {
+					return ParsedContentCache.get("a".getBytes(), null, String.class, this.parser);
+				}
+			}).get();
+			assertThat(parsedByOtherThread).isSameAs(parsed);
+			assertThat(this.parses).hasValue(1);
+			executor.submit(() -> ParsedContentCache.get("a".getBytes(), null, String.class, this.parser)).get();
+			assertThat(this.parses).hasValue(2);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void closingCacheDiscardsItsEntries() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser);
+		}
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			ParsedContentCache.get("a".getBytes(), MediaType.APPLICATION_JSON, String.class, this.parser);
+		}
+		assertThat(this.parses).hasValue(2);
+	}
+
+}
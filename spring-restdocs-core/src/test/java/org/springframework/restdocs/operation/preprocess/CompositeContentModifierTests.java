@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.restdocs.operation.preprocess;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompositeContentModifier}.
+ *
+ * @author Andy Wilkinson
+ */
+public class CompositeContentModifierTests {
+
+	@Test
+	public void textModifiersAreAppliedInTurn() {
+		List<ContentModifier> modifiers = Arrays.asList(
+				new PatternReplacingContentModifier(Pattern.compile("alpha"), "bravo", StandardCharsets.UTF_8),
+				new PatternReplacingContentModifier(Pattern.compile("bravo"), "charlie", StandardCharsets.UTF_8));
+		assertThat(new CompositeContentModifier(modifiers).modifyContent("alpha bravo".getBytes(), null))
+				.isEqualTo("charlie charlie".getBytes());
+	}
+
+	@Test
+	public void resultIsTheSameAsApplyingModifiersIndividually() {
+		List<ContentModifier> modifiers = Arrays.asList(
+				new PatternReplacingContentModifier(Pattern.compile("a"), "ä", StandardCharsets.ISO_8859_1),
+				(content, contentType) -> new String(content, StandardCharsets.ISO_8859_1).toUpperCase()
+						.getBytes(StandardCharsets.ISO_8859_1),
+				new PatternReplacingContentModifier(Pattern.compile("B"), "ß", StandardCharsets.UTF_8),
+				new LinkMaskingContentModifier());
+		byte[] content = "{\"href\": \"abc\"}".getBytes(StandardCharsets.UTF_8);
+		byte[] expected = content;
+		for (ContentModifier modifier : modifiers) {
+			expected = modifier.modifyContent(expected, null);
+		}
+		assertThat(new CompositeContentModifier(modifiers).modifyContent(content, null)).isEqualTo(expected);
+	}
+
+	@Test
+	public void contentTypeCharsetIsUsedByTextModifiers() {
+		List<ContentModifier> modifiers = Arrays.asList(
+				new PatternReplacingContentModifier(Pattern.compile("a"), "ä", StandardCharsets.UTF_8),
+				new PatternReplacingContentModifier(Pattern.compile("b"), "ä", StandardCharsets.UTF_8));
+		MediaType contentType = new MediaType("text", "plain", StandardCharsets.ISO_8859_1);
+		assertThat(new CompositeContentModifier(modifiers).modifyContent("ab".getBytes(), contentType))
+				.isEqualTo("ää".getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package org.springframework.restdocs.operation.preprocess;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
 
 import org.junit.Test;
 
@@ -83,4 +86,21 @@ public class ContentModifyingOperationPreprocessorTests {
 		assertThat(preprocessed.getHeaders().getContentLength()).isEqualTo(8L);
 	}
 
+	@Test
+	public void adjacentPreprocessorsAreCombined() {
+		OperationPreprocessor headers = new HeadersModifyingOperationPreprocessor().remove("a");
+		ContentModifyingOperationPreprocessor alpha = new ContentModifyingOperationPreprocessor(
+				new PatternReplacingContentModifier(Pattern.compile("alpha"), "bravo"));
+		ContentModifyingOperationPreprocessor bravo = new ContentModifyingOperationPreprocessor(
+				new PatternReplacingContentModifier(Pattern.compile("bravo"), "charlie"));
+		List<OperationPreprocessor> combined = ContentModifyingOperationPreprocessor
+				.combineAdjacent(Arrays.asList(alpha, bravo, headers, this.preprocessor));
+		assertThat(combined).hasSize(3);
+		assertThat(combined.get(1)).isSameAs(headers);
+		assertThat(combined.get(2)).isSameAs(this.preprocessor);
+		OperationResponse response = this.responseFactory.create(HttpStatus.OK.value(), new HttpHeaders(),
+				"alpha".getBytes());
+		assertThat(combined.get(0).preprocess(response).getContentAsString()).isEqualTo("charlie");
+	}
+
 }
@@ -139,6 +139,30 @@ public class HeadersModifyingOperationPreprocessorTests {
 				.containsOnlyKeys("bravo");
 	}
 
+	@Test
+	public void modificationsOfChainedPreprocessorsAreApplied() {
+		this.preprocessor.add("a", "alpha").remove("b");
+		HeadersModifyingOperationPreprocessor next = new HeadersModifyingOperationPreprocessor().add("a", "avocado")
+				.set("c", "charlie");
+		HttpHeaders headers = next.preprocess(this.preprocessor.preprocess(createResponse((original) -> {
+			original.add("a", "apple");
+			original.add("b", "bravo");
+		}))).getHeaders();
+		assertThat(headers.get("a")).containsExactly("apple", "alpha", "avocado");
+		assertThat(headers.get("b")).isNull();
+		assertThat(headers.getFirst("c")).isEqualTo("charlie");
+		assertThat(headers).containsOnlyKeys("a", "c");
+	}
+
+	@Test
+	public void originalHeadersAreNotModified() {
+		this.preprocessor.add("a", "alpha").remove("a", "apple");
+		OperationResponse response = createResponse((headers) -> headers.addAll("a", List.of("apple", "avocado")));
+		assertThat(this.preprocessor.preprocess(response).getHeaders()).containsEntry("a",
+				Arrays.asList("avocado", "alpha"));
+		assertThat(response.getHeaders()).containsEntry("a", Arrays.asList("apple", "avocado"));
+	}
+
 	private OperationRequest createRequest() {
 		return createRequest(null);
 	}
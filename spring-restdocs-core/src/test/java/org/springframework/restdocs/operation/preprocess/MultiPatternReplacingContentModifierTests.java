@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.restdocs.operation.preprocess;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiPatternReplacingContentModifier}.
+ *
+ * @author Andy Wilkinson
+ */
+public class MultiPatternReplacingContentModifierTests {
+
+	private final Map<Pattern, String> replacements = new LinkedHashMap<>();
+
+	@Test
+	public void occurrencesOfEachPatternAreReplaced() {
+		this.replacements.put(Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}",
+				Pattern.CASE_INSENSITIVE), "<<uuid>>");
+		this.replacements.put(Pattern.compile("\\d{4}-\\d{2}-\\d{2}"), "<<date>>");
+		assertThat(modify("{\"id\" : \"CA761232-ED42-11CE-BACD-00AA0057B223\", \"date\" : \"2022-06-01\"}"))
+				.isEqualTo("{\"id\" : \"<<uuid>>\", \"date\" : \"<<date>>\"}");
+	}
+
+	@Test
+	public void contentThatDoesNotMatchIsUnchanged() {
+		this.replacements.put(Pattern.compile("[0-9]+"), "<<number>>");
+		this.replacements.put(Pattern.compile("token"), "<<token>>");
+		assertThat(modify("{\"id\" : \"abc\"}")).isEqualTo("{\"id\" : \"abc\"}");
+	}
+
+	@Test
+	public void onlyFirstGroupOfPatternIsReplaced() {
+		this.replacements.put(Pattern.compile("(\\d+)-(\\d+)"), "<<first>>");
+		this.replacements.put(Pattern.compile("\"token\" : \"(.*?)\""), "<<token>>");
+		assertThat(modify("{\"range\" : \"12-34\", \"token\" : \"abc\"}"))
+				.isEqualTo("{\"range\" : \"<<first>>-34\", \"token\" : \"<<token>>\"}");
+	}
+
+	@Test
+	public void firstMatchingPatternIsReplaced() {
+		this.replacements.put(Pattern.compile("abc"), "<<abc>>");
+		this.replacements.put(Pattern.compile("[a-z]+"), "<<letters>>");
+		assertThat(modify("abc def")).isEqualTo("<<abc>> <<letters>>");
+	}
+
+	@Test
+	public void patternFlagsArePreserved() {
+		this.replacements.put(Pattern.compile("abc", Pattern.CASE_INSENSITIVE), "<<abc>>");
+		this.replacements.put(Pattern.compile("a.c", Pattern.LITERAL), "<<literal>>");
+		this.replacements.put(Pattern.compile("def"), "<<def>>");
+		assertThat(modify("ABC abc a.c axc DEF def")).isEqualTo("<<abc>> <<abc>> <<literal>> axc DEF <<def>>");
+	}
+
+	@Test
+	public void patternWithCommentsFlagCanEndWithComment() {
+		this.replacements.put(Pattern.compile("a b c  # letters", Pattern.COMMENTS), "<<abc>>");
+		this.replacements.put(Pattern.compile("def"), "<<def>>");
+		assertThat(modify("abc def")).isEqualTo("<<abc>> <<def>>");
+	}
+
+	@Test
+	public void encodingIsPreservedUsingCharsetFromContentType() {
+		String japaneseContent = "\u30b3\u30f3\u30c6\u30f3\u30c4";
+		this.replacements.put(Pattern.compile("[0-9]+"), "<<number>>");
+		MultiPatternReplacingContentModifier contentModifier = new MultiPatternReplacingContentModifier(
+				this.replacements, StandardCharsets.ISO_8859_1);
+		assertThat(contentModifier.modifyContent((japaneseContent + " 123").getBytes(StandardCharsets.UTF_8),
+				new MediaType("text", "plain", StandardCharsets.UTF_8)))
+						.isEqualTo((japaneseContent + " <<number>>").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String modify(String content) {
+		return new String(new MultiPatternReplacingContentModifier(this.replacements, StandardCharsets.UTF_8)
+				.modifyContent(content.getBytes(StandardCharsets.UTF_8), null), StandardCharsets.UTF_8);
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.restdocs.operation.preprocess;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +25,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.ParsedContentCache;
 import org.springframework.restdocs.testfixtures.OutputCaptureRule;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +48,19 @@ public class PrettyPrintingContentModifierTests {
 				.isEqualTo(String.format("{%n  \"a\" : 5%n}").getBytes());
 	}
 
+	@Test
+	public void prettyPrintedJsonIsAddedToParsedContentCache() throws IOException {
+		try (ParsedContentCache.Scope scope = ParsedContentCache.open()) {
+			byte[] prettyPrinted = new PrettyPrintingContentModifier().modifyContent("{\"a\":5}".getBytes(),
+					MediaType.APPLICATION_JSON);
+			Object parsed = ParsedContentCache.get(prettyPrinted, MediaType.APPLICATION_JSON, Object.class,
+					(content) -> {
+						throw new IllegalStateException("Pretty-printed content should not be parsed");
+					});
+			assertThat(parsed).isEqualTo(Collections.singletonMap("a", 5));
+		}
+	}
+
 	@Test
 	public void prettyPrintXml() {
 		assertThat(new PrettyPrintingContentModifier()
@@ -52,6 +69,13 @@ public class PrettyPrintingContentModifierTests {
 								+ "<one a=\"alpha\">%n    <two b=\"bravo\"/>%n</one>%n").getBytes());
 	}
 
+	@Test
+	public void prettyPrintXmlWithJsonContentType() {
+		assertThat(new PrettyPrintingContentModifier().modifyContent("<one><two/></one>".getBytes(),
+				MediaType.APPLICATION_JSON)).isEqualTo(String
+						.format("<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n<one>%n    <two/>%n</one>%n").getBytes());
+	}
+
 	@Test
 	public void empytContentIsHandledGracefully() {
 		assertThat(new PrettyPrintingContentModifier().modifyContent("".getBytes(), null)).isEqualTo("".getBytes());
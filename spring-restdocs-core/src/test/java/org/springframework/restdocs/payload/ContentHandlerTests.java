@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ContentHandler}.
+ *
+ * @author Andy Wilkinson
+ */
+public class ContentHandlerTests {
+
+	@Test
+	public void jsonContentTypeSelectsJsonContentHandler() {
+		assertThat(forContent("{\"a\":1}", MediaType.APPLICATION_JSON)).isInstanceOf(JsonContentHandler.class);
+	}
+
+	@Test
+	public void jsonSuffixedContentTypeSelectsJsonContentHandler() {
+		assertThat(forContent("{\"a\":1}", MediaType.APPLICATION_PROBLEM_JSON))
+				.isInstanceOf(JsonContentHandler.class);
+	}
+
+	@Test
+	public void xmlContentTypeSelectsXmlContentHandler() {
+		assertThat(forContent("<a>1</a>", MediaType.TEXT_XML)).isInstanceOf(XmlContentHandler.class);
+	}
+
+	@Test
+	public void xmlContentWithJsonContentTypeFallsBackToXmlContentHandler() {
+		assertThat(forContent("<a>1</a>", MediaType.APPLICATION_JSON)).isInstanceOf(XmlContentHandler.class);
+	}
+
+	@Test
+	public void jsonContentWithUnknownContentTypeIsIdentifiedFromContent() {
+		assertThat(forContent(" \n{\"a\":1}", MediaType.TEXT_PLAIN)).isInstanceOf(JsonContentHandler.class);
+	}
+
+	@Test
+	public void xmlContentWithByteOrderMarkAndNoContentTypeIsIdentifiedFromContent() {
+		assertThat(forContent("\uFEFF<a>1</a>", null)).isInstanceOf(XmlContentHandler.class);
+	}
+
+	@Test
+	public void contentThatIsNeitherJsonNorXmlCannotBeHandled() {
+		assertThatExceptionOfType(PayloadHandlingException.class)
+				.isThrownBy(() -> forContent("a=1", MediaType.TEXT_PLAIN))
+				.withMessage("Cannot handle text/plain content as it could not be parsed as JSON or XML");
+	}
+
+	@Test
+	public void firstFactoryThatSupportsContentTypeIsUsed() {
+		MediaType csv = new MediaType("text", "csv");
+		ContentHandler handler = new TestContentHandler();
+		List<ContentHandlerFactory> factories = Arrays.asList(new TestContentHandlerFactory(MediaType.TEXT_PLAIN, null),
+				new TestContentHandlerFactory(csv, handler), new TestContentHandlerFactory(csv, null));
+		assertThat(ContentHandler.forContentWithDescriptors("a,b".getBytes(), csv, Collections.emptyList(),
+				AbstractFieldsSnippet.DEFAULT_STREAMING_THRESHOLD, factories)).isSameAs(handler);
+	}
+
+	@Test
+	public void contentIsHandledAsJsonOrXmlWhenNoFactorySupportsContentType() {
+		List<ContentHandlerFactory> factories = Arrays
+				.asList(new TestContentHandlerFactory(new MediaType("text", "csv"), null));
+		assertThat(ContentHandler.forContentWithDescriptors("{\"a\":1}".getBytes(), MediaType.APPLICATION_JSON,
+				Collections.emptyList(), AbstractFieldsSnippet.DEFAULT_STREAMING_THRESHOLD, factories))
+						.isInstanceOf(JsonContentHandler.class);
+	}
+
+	private ContentHandler forContent(String content, MediaType contentType) {
+		return ContentHandler.forContentWithDescriptors(content.getBytes(StandardCharsets.UTF_8), contentType,
+				Collections.emptyList());
+	}
+
+	private static final class TestContentHandlerFactory implements ContentHandlerFactory {
+
+		private final MediaType contentType;
+
+		private final ContentHandler contentHandler;
+
+		private TestContentHandlerFactory(MediaType contentType, ContentHandler contentHandler) {
+			this.contentType = contentType;
+			this.contentHandler = contentHandler;
+		}
+
+		@Override
+		public boolean supports(MediaType contentType) {
+			return this.contentType.isCompatibleWith(contentType);
+		}
+
+		@Override
+		public ContentHandler createContentHandler(byte[] content, MediaType contentType,
+				List<FieldDescriptor> descriptors) {
+			return this.contentHandler;
+		}
+
+	}
+
+	private static final class TestContentHandler implements ContentHandler {
+
+		@Override
+		public Object resolveFieldType(FieldDescriptor fieldDescriptor) {
+			return JsonFieldType.STRING;
+		}
+
+		@Override
+		public List<FieldDescriptor> findMissingFields() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public String getUndocumentedContent() {
+			return null;
+		}
+
+	}
+
+}
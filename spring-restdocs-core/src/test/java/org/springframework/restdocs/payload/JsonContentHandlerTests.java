@@ -200,4 +200,14 @@ public class JsonContentHandlerTests {
 		assertThat(missingFields.size()).isEqualTo(0);
 	}
 
+	@Test
+	public void undocumentedContentCanBeRetrievedRepeatedly() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a"));
+		JsonContentHandler contentHandler = new JsonContentHandler("{\"a\":\"alpha\",\"b\":\"bravo\"}".getBytes(),
+				descriptors);
+		assertThat(contentHandler.getUndocumentedContent()).isEqualTo(String.format("{%n  \"b\" : \"bravo\"%n}"));
+		assertThat(contentHandler.getUndocumentedContent()).isEqualTo(String.format("{%n  \"b\" : \"bravo\"%n}"));
+		assertThat(contentHandler.findMissingFields()).isEmpty();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.restdocs.payload;
 import org.junit.Test;
 
 import org.springframework.restdocs.payload.JsonFieldPath.PathType;
+import org.springframework.restdocs.payload.JsonFieldPath.Segment;
+import org.springframework.restdocs.payload.JsonFieldPath.SegmentType;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -156,4 +158,16 @@ public class JsonFieldPathTests {
 		assertThat(JsonFieldPath.compile("a.b.['*'].c").getSegments()).containsExactly("a", "b", "*", "c");
 	}
 
+	@Test
+	public void compiledSegmentsAreClassified() {
+		assertThat(JsonFieldPath.compile("a[].b[0].*['*'][*]").getCompiledSegments()).extracting(Segment::getType)
+				.containsExactly(SegmentType.KEY, SegmentType.ARRAY_WILDCARD, SegmentType.KEY, SegmentType.ARRAY_INDEX,
+						SegmentType.MAP_WILDCARD, SegmentType.MAP_WILDCARD, SegmentType.ARRAY_WILDCARD);
+	}
+
+	@Test
+	public void compilationOfSamePathIsCached() {
+		assertThat(JsonFieldPath.compile("a.b[].c")).isSameAs(JsonFieldPath.compile("a.b[].c"));
+	}
+
 }
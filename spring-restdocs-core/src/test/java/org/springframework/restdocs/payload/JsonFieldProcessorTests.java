@@ -28,6 +28,7 @@ import java.util.Map;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
+import org.springframework.restdocs.payload.JsonFieldProcessor.Evaluation;
 import org.springframework.restdocs.payload.JsonFieldProcessor.ExtractedField;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -474,6 +475,73 @@ public class JsonFieldProcessorTests {
 		assertThat(this.fieldProcessor.hasField("a.[].b", payload)).isFalse();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluateMultiplePaths() throws IOException {
+		Map<String, Object> payload = new ObjectMapper()
+				.readValue("{\"a\": [{\"b\":\"bravo\",\"c\":1},{\"b\":\"bravo\"}], \"d\": null}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a", "a[].b", "a[].c", "d", "e"), payload);
+		assertThat(evaluation.hasField("a")).isTrue();
+		assertThat(evaluation.hasField("a[].b")).isTrue();
+		assertThat(evaluation.hasField("a[].c")).isFalse();
+		assertThat(evaluation.hasField("d")).isTrue();
+		assertThat(evaluation.hasField("e")).isFalse();
+		assertThat(evaluation.extract("a[].b").getValue()).isEqualTo(Arrays.asList("bravo", "bravo"));
+		assertThat(evaluation.extract("a[].c").getValue()).isEqualTo(Arrays.asList(1, ExtractedField.ABSENT));
+		assertThat(evaluation.extract("e").getValue()).isEqualTo(ExtractedField.ABSENT);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluateWildcardPaths() throws IOException {
+		Map<String, Object> payload = new ObjectMapper()
+				.readValue("{\"a\": {\"one\": {\"id\":1}, \"two\": {\"id\":2}}}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a.*", "a.*.id"), payload);
+		assertThat(evaluation.hasField("a.*.id")).isTrue();
+		assertThat(evaluation.extract("a.*.id").getValue()).isEqualTo(Arrays.asList(1, 2));
+		assertThat((List<?>) evaluation.extract("a.*").getValue()).hasSize(2);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluationOfPathThatWasNotEvaluatedFallsBackToTraversal() throws IOException {
+		Map<String, Object> payload = new ObjectMapper().readValue("{\"a\": {\"b\":\"bravo\"}}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a"), payload);
+		assertThat(evaluation.hasField("a.b")).isTrue();
+		assertThat(evaluation.extract("a.b").getValue()).isEqualTo("bravo");
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluationRemovesItemsInArray() throws IOException {
+		Map<String, Object> payload = new ObjectMapper()
+				.readValue("{\"a\": [{\"b\":\"bravo\",\"c\":1},{\"b\":\"bravo\"}]}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a[].b", "a[].c"), payload);
+		evaluation.remove("a[].b");
+		assertThat(payload.toString()).isEqualTo("{a=[{c=1}]}");
+		evaluation.remove("a[].c");
+		assertThat(payload.size()).isEqualTo(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluationDoesNotRemoveMapWithEntries() throws IOException {
+		Map<String, Object> payload = new ObjectMapper().readValue("{\"a\": {\"b\":\"bravo\"}}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a"), payload);
+		evaluation.remove("a");
+		assertThat(payload.size()).isEqualTo(1);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void evaluationRemovesSubsection() throws IOException {
+		Map<String, Object> payload = new ObjectMapper()
+				.readValue("{\"a\": [{\"b\":\"bravo\"},{\"b\":\"bravo\"}], \"c\": 1}", Map.class);
+		Evaluation evaluation = this.fieldProcessor.evaluate(Arrays.asList("a[]"), payload);
+		evaluation.removeSubsection("a[]");
+		assertThat(payload.toString()).isEqualTo("{c=1}");
+	}
+
 	private Map<String, String> createEntry(String... pairs) {
 		Map<String, String> entry = new HashMap<>();
 		for (String pair : pairs) {
@@ -137,6 +137,17 @@ public class ResponseFieldsSnippetFailureTests {
 				.withMessage("Cannot handle text/plain content as it could not be parsed as JSON or XML");
 	}
 
+	@Test
+	public void undocumentedResponseFieldWhenContentIsStreamed() {
+		assertThatExceptionOfType(SnippetException.class)
+				.isThrownBy(() -> new ResponseFieldsSnippet(Arrays.asList(fieldWithPath("a").description("one")))
+						.document(this.operationBuilder
+								.attribute(AbstractFieldsSnippet.ATTRIBUTE_NAME_STREAMING_THRESHOLD, 0L).response()
+								.content("{\"a\": 5, \"b\": 4}").build()))
+				.withMessage(String.format(
+						"The following parts of the payload were not documented:%n{%n  \"b\" : 4%n}"));
+	}
+
 	@Test
 	public void nonOptionalFieldBeneathArrayThatIsSometimesNull() {
 		assertThatExceptionOfType(SnippetException.class)
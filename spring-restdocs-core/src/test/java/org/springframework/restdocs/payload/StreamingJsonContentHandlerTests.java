@@ -0,0 +1,210 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.payload;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.payload.StreamingJsonContentHandler.StreamingNotSupportedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StreamingJsonContentHandler}.
+ *
+ * @author Andy Wilkinson
+ */
+public class StreamingJsonContentHandlerTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void typeForFieldWithNullValueMustMatch() {
+		this.thrown.expect(FieldTypesDoNotMatchException.class);
+		FieldDescriptor descriptor = new FieldDescriptor("a").type(JsonFieldType.STRING);
+		new StreamingJsonContentHandler("{\"a\": null}".getBytes(), Arrays.asList(descriptor))
+				.resolveFieldType(descriptor);
+	}
+
+	@Test
+	public void typeForOptionalFieldWithNumberAndThenNullValueIsNumber() {
+		FieldDescriptor descriptor = new FieldDescriptor("a[].id").optional();
+		Object fieldType = new StreamingJsonContentHandler("{\"a\":[{\"id\":1},{\"id\":null}]}".getBytes(),
+				Arrays.asList(descriptor)).resolveFieldType(descriptor);
+		assertThat((JsonFieldType) fieldType).isEqualTo(JsonFieldType.NUMBER);
+	}
+
+	@Test
+	public void typeForFieldWithNumberAndThenNullValueIsVaries() {
+		FieldDescriptor descriptor = new FieldDescriptor("a[].id");
+		Object fieldType = new StreamingJsonContentHandler("{\"a\":[{\"id\":1},{\"id\":null}]}".getBytes(),
+				Arrays.asList(descriptor)).resolveFieldType(descriptor);
+		assertThat((JsonFieldType) fieldType).isEqualTo(JsonFieldType.VARIES);
+	}
+
+	@Test
+	public void typeForFieldBeneathWildcard() {
+		FieldDescriptor descriptor = new FieldDescriptor("*.b");
+		Object fieldType = new StreamingJsonContentHandler("{\"a\":{\"b\":[]},\"c\":{\"b\":[1]}}".getBytes(),
+				Arrays.asList(descriptor)).resolveFieldType(descriptor);
+		assertThat((JsonFieldType) fieldType).isEqualTo(JsonFieldType.ARRAY);
+	}
+
+	@Test
+	public void typeForFieldThatIsNotPresentCannotBeDetermined() {
+		this.thrown.expect(FieldDoesNotExistException.class);
+		FieldDescriptor descriptor = new FieldDescriptor("a.b");
+		new StreamingJsonContentHandler("{\"a\":{\"c\":1}}".getBytes(), Arrays.asList(descriptor))
+				.resolveFieldType(descriptor);
+	}
+
+	@Test
+	public void typeForFieldWithSometimesPresentOptionalAncestorCanBeProvidedExplicitly() {
+		FieldDescriptor descriptor = new FieldDescriptor("a.[].b.c").type(JsonFieldType.NUMBER);
+		FieldDescriptor ancestor = new FieldDescriptor("a.[].b").optional();
+		Object fieldType = new StreamingJsonContentHandler(
+				"{\"a\":[ { \"d\": 4}, {\"b\":{\"c\":5}, \"d\": 4}]}".getBytes(), Arrays.asList(descriptor, ancestor))
+						.resolveFieldType(descriptor);
+		assertThat((JsonFieldType) fieldType).isEqualTo(JsonFieldType.NUMBER);
+	}
+
+	@Test
+	public void failsFastWithNonJsonContent() {
+		this.thrown.expect(PayloadHandlingException.class);
+		new StreamingJsonContentHandler("<a>Non-JSON content</a>".getBytes(), Collections.emptyList());
+	}
+
+	@Test
+	public void scalarContentIsNotSupported() {
+		this.thrown.expect(StreamingNotSupportedException.class);
+		new StreamingJsonContentHandler("\"alpha\"".getBytes(), Collections.emptyList());
+	}
+
+	@Test
+	public void keyThatIsAmbiguousWithWildcardIsNotSupported() {
+		this.thrown.expect(StreamingNotSupportedException.class);
+		new StreamingJsonContentHandler("{\"*\":\"alpha\"}".getBytes(), Arrays.asList(new FieldDescriptor("*")));
+	}
+
+	@Test
+	public void describedFieldThatIsNotPresentIsConsideredMissing() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a"), new FieldDescriptor("b"),
+				new FieldDescriptor("c"));
+		List<FieldDescriptor> missingFields = new StreamingJsonContentHandler(
+				"{\"a\": \"alpha\", \"b\":\"bravo\"}".getBytes(), descriptors).findMissingFields();
+		assertThat(missingFields.size()).isEqualTo(1);
+		assertThat(missingFields.get(0).getPath()).isEqualTo("c");
+	}
+
+	@Test
+	public void describedFieldThatIsSometimesAbsentIsConsideredMissing() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a[].b"), new FieldDescriptor("a[].c"));
+		List<FieldDescriptor> missingFields = new StreamingJsonContentHandler(
+				"{\"a\":[{\"b\":1,\"c\":2},{\"c\":2}]}".getBytes(), descriptors).findMissingFields();
+		assertThat(missingFields.size()).isEqualTo(1);
+		assertThat(missingFields.get(0).getPath()).isEqualTo("a[].b");
+	}
+
+	@Test
+	public void describedFieldThatIsNotPresentNestedBeneathOptionalFieldThatIsNotPresentIsNotConsideredMissing() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a").optional(), new FieldDescriptor("b"),
+				new FieldDescriptor("a.c"));
+		List<FieldDescriptor> missingFields = new StreamingJsonContentHandler("{\"b\":\"bravo\"}".getBytes(),
+				descriptors).findMissingFields();
+		assertThat(missingFields.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void describedMissingFieldThatIsChildOfNestedOptionalArrayThatIsEmptyIsNotConsideredMissing() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a.[].b").optional(),
+				new FieldDescriptor("a.[].b.[]").optional(), new FieldDescriptor("a.[].b.[].c"));
+		List<FieldDescriptor> missingFields = new StreamingJsonContentHandler("{\"a\":[{\"b\":[[]]}]}".getBytes(),
+				descriptors).findMissingFields();
+		assertThat(missingFields.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void describedMissingFieldThatIsChildOfOptionalObjectThatIsNullIsNotConsideredMissing() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a").optional(),
+				new FieldDescriptor("a.b"));
+		List<FieldDescriptor> missingFields = new StreamingJsonContentHandler("{\"a\":null}".getBytes(), descriptors)
+				.findMissingFields();
+		assertThat(missingFields.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void completelyDocumentedContentHasNoUndocumentedContent() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a[].b"), new FieldDescriptor("a[].c"));
+		assertThat(new StreamingJsonContentHandler("{\"a\":[{\"b\":1,\"c\":[1,2]},{\"b\":2,\"c\":[]}]}".getBytes(),
+				descriptors).getUndocumentedContent()).isNull();
+	}
+
+	@Test
+	public void undocumentedContentIsRetrieved() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a"), new FieldDescriptor("c.d"));
+		StreamingJsonContentHandler contentHandler = new StreamingJsonContentHandler(
+				"{\"a\":\"alpha\",\"b\":[1.5,{\"e\":true}],\"c\":{\"d\":4,\"f\":null}}".getBytes(), descriptors);
+		assertThat(contentHandler.getUndocumentedContent())
+				.isEqualTo(String.format("{%n  \"b\" : [ 1.5, {%n    \"e\" : true%n  } ],%n  \"c\" : {%n"
+						+ "    \"f\" : null%n  }%n}"));
+	}
+
+	@Test
+	public void objectWithUndocumentedEntriesIsNotRemoved() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a"));
+		assertThat(new StreamingJsonContentHandler("{\"a\":{\"b\":1}}".getBytes(), descriptors)
+				.getUndocumentedContent()).isEqualTo(String.format("{%n  \"a\" : {%n    \"b\" : 1%n  }%n}"));
+	}
+
+	@Test
+	public void objectWhoseEntriesAreDocumentedFirstIsRemoved() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a.b"), new FieldDescriptor("a"));
+		assertThat(new StreamingJsonContentHandler("{\"a\":{\"b\":1}}".getBytes(), descriptors)
+				.getUndocumentedContent()).isNull();
+	}
+
+	@Test
+	public void subsectionIsRemovedWithItsEntries() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new SubsectionDescriptor("a"), new FieldDescriptor("b"));
+		assertThat(new StreamingJsonContentHandler("{\"a\":{\"c\":[{\"d\":1}]},\"b\":2}".getBytes(), descriptors)
+				.getUndocumentedContent()).isNull();
+	}
+
+	@Test
+	public void streamingIsUsedForContentLargerThanThreshold() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("a"));
+		assertThat(ContentHandler.forContentWithDescriptors("{\"a\":1}".getBytes(), MediaType.APPLICATION_JSON,
+				descriptors, 6)).isInstanceOf(StreamingJsonContentHandler.class);
+		assertThat(ContentHandler.forContentWithDescriptors("{\"a\":1}".getBytes(), MediaType.APPLICATION_JSON,
+				descriptors, 7)).isInstanceOf(JsonContentHandler.class);
+	}
+
+	@Test
+	public void contentThatCannotBeStreamedIsReadIntoMemory() {
+		List<FieldDescriptor> descriptors = Arrays.asList(new FieldDescriptor("*"));
+		assertThat(ContentHandler.forContentWithDescriptors("{\"*\":1}".getBytes(), MediaType.APPLICATION_JSON,
+				descriptors, 0)).isInstanceOf(JsonContentHandler.class);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,6 +88,23 @@ public class XmlContentHandlerTests {
 		createHandler("non-XML content", Collections.emptyList());
 	}
 
+	@Test
+	public void undocumentedContentCanBeRetrievedRepeatedly() {
+		List<FieldDescriptor> descriptors = Arrays.asList(fieldWithPath("a/b").type("b").description("description"));
+		XmlContentHandler handler = createHandler("<a><b>5</b><c>6</c></a>", descriptors);
+		String undocumentedContent = String.format("<a>%n    <c>6</c>%n</a>%n");
+		assertThat(handler.getUndocumentedContent()).isEqualTo(undocumentedContent);
+		assertThat(handler.getUndocumentedContent()).isEqualTo(undocumentedContent);
+		assertThat(handler.findMissingFields()).isEmpty();
+	}
+
+	@Test
+	public void sameFieldPathCanBeUsedWithDifferentContent() {
+		List<FieldDescriptor> descriptors = Arrays.asList(fieldWithPath("a/b").type("b").description("description"));
+		assertThat(createHandler("<a><b>5</b></a>", descriptors).findMissingFields()).isEmpty();
+		assertThat(createHandler("<a><c>5</c></a>", descriptors).findMissingFields()).hasSize(1);
+	}
+
 	private XmlContentHandler createHandler(String xml, List<FieldDescriptor> descriptors) {
 		return new XmlContentHandler(xml.getBytes(), descriptors);
 	}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.restdocs.ManualRestDocumentation;
+import org.springframework.restdocs.RestDocumentationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link AsyncWriterResolver}.
+ *
+ * @author Andy Wilkinson
+ */
+public class AsyncWriterResolverTests {
+
+	private final ManualRestDocumentation restDocumentation = new ManualRestDocumentation("build");
+
+	private final CountDownLatch writesAllowed = new CountDownLatch(1);
+
+	private final StringWriter output = new StringWriter();
+
+	@Test
+	public void snippetIsWrittenByTheTimeTheTestHasCompleted() throws IOException {
+		AsyncWriterResolver resolver = new AsyncWriterResolver(this::resolveBlockingWriter, 1, 4);
+		this.restDocumentation.beforeTest(getClass(), "test");
+		try (Writer writer = resolver.resolve("operation", "snippet", this.restDocumentation.beforeOperation())) {
+			writer.write("content");
+		}
+		assertThat(this.output.toString()).isEmpty();
+		this.writesAllowed.countDown();
+		this.restDocumentation.afterTest();
+		assertThat(this.output.toString()).isEqualTo("content");
+	}
+
+	@Test
+	public void whenWrittenCompletesOnceTheOperationsSnippetsHaveBeenWritten() throws Exception {
+		AsyncWriterResolver resolver = new AsyncWriterResolver(this::resolveBlockingWriter, 1, 4);
+		this.restDocumentation.beforeTest(getClass(), "test");
+		RestDocumentationContext context = this.restDocumentation.beforeOperation();
+		try (Writer writer = resolver.resolve("operation", "snippet", context)) {
+			writer.write("content");
+		}
+		CompletableFuture<Void> written = resolver.whenWritten("operation", context);
+		assertThat(written.isDone()).isFalse();
+		assertThat(resolver.whenWritten("other", context).isDone()).isTrue();
+		this.writesAllowed.countDown();
+		written.get(10, TimeUnit.SECONDS);
+		assertThat(this.output.toString()).isEqualTo("content");
+		this.restDocumentation.afterTest();
+	}
+
+	@Test
+	public void writeFailureIsReportedWhenTheTestHasCompleted() throws IOException {
+		AsyncWriterResolver resolver = new AsyncWriterResolver((operation, snippet, context) -> new StringWriter() {
+
+			@Override
+			public void close() throws IOException {
+				throw new IOException("Disk full");
+			}
+
+		}, 1, 4);
+		this.restDocumentation.beforeTest(getClass(), "test");
+		resolver.resolve("operation", "snippet", this.restDocumentation.beforeOperation()).close();
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(this.restDocumentation::afterTest)
+				.withMessageContaining("Failed to write snippet");
+	}
+
+	@Test
+	public void snippetIsWrittenSynchronouslyWhenContextDoesNotSupportCompletionCallbacks() throws IOException {
+		AsyncWriterResolver resolver = new AsyncWriterResolver((operation, snippet, context) -> this.output, 1, 4);
+		try (Writer writer = resolver.resolve("operation", "snippet", new BasicContext())) {
+			writer.write("content");
+		}
+		assertThat(this.output.toString()).isEqualTo("content");
+	}
+
+	private Writer resolveBlockingWriter(String operationName, String snippetName, RestDocumentationContext context) {
+		return new Writer() {
+
+			@Override
+			public void write(char[] chars, int offset, int length) throws IOException {
+				try {
+					AsyncWriterResolverTests.this.writesAllowed.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				AsyncWriterResolverTests.this.output.write(chars, offset, length);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+
+		};
+	}
+
+	private static final class BasicContext implements RestDocumentationContext {
+
+		@Override
+		public Class<?> getTestClass() {
+			return AsyncWriterResolverTests.class;
+		}
+
+		@Override
+		public String getTestMethodName() {
+			return "test";
+		}
+
+		@Override
+		public int getStepCount() {
+			return 1;
+		}
+
+		@Override
+		public File getOutputDirectory() {
+			return new File("build");
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.payload.JsonFieldType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+/**
+ * Tests for {@link Fingerprint}.
+ *
+ * @author Andy Wilkinson
+ */
+public class FingerprintTests {
+
+	@Test
+	public void sameInputsProduceSameFingerprint() {
+		assertThat(new Fingerprint().add("a").add(1).add(HttpMethod.GET).toHexString())
+				.isEqualTo(new Fingerprint().add("a").add(1).add(HttpMethod.GET).toHexString());
+	}
+
+	@Test
+	public void adjacentStringsAreDelimited() {
+		assertThat(new Fingerprint().add("ab").add("c").toHexString())
+				.isNotEqualTo(new Fingerprint().add("a").add("bc").toHexString());
+	}
+
+	@Test
+	public void valuesOfDifferentTypesProduceDifferentFingerprints() {
+		assertThat(new Fingerprint().add("1").toHexString()).isNotEqualTo(new Fingerprint().add(1).toHexString());
+	}
+
+	@Test
+	public void nullIsDistinctFromEmptyString() {
+		assertThat(new Fingerprint().add((Object) null).toHexString())
+				.isNotEqualTo(new Fingerprint().add("").toHexString());
+	}
+
+	@Test
+	public void mapsAreAddedInIterationOrder() {
+		Map<String, Object> first = new LinkedHashMap<>();
+		first.put("a", "1");
+		first.put("b", Arrays.asList("2", "3"));
+		Map<String, Object> second = new LinkedHashMap<>();
+		second.put("b", Arrays.asList("2", "3"));
+		second.put("a", "1");
+		assertThat(new Fingerprint().add(first).toHexString()).isEqualTo(new Fingerprint().add(first).toHexString())
+				.isNotEqualTo(new Fingerprint().add(second).toHexString());
+	}
+
+	@Test
+	public void descriptorsContributeTheirConfiguration() {
+		FieldDescriptor descriptor = fieldWithPath("a").description("one").type(JsonFieldType.STRING);
+		assertThat(new Fingerprint().add(descriptor).toHexString())
+				.isEqualTo(new Fingerprint()
+						.add(fieldWithPath("a").description("one").type(JsonFieldType.STRING)).toHexString())
+				.isNotEqualTo(new Fingerprint().add(fieldWithPath("a").description("one").type(JsonFieldType.STRING)
+						.optional()).toHexString())
+				.isNotEqualTo(new Fingerprint().add(fieldWithPath("a").description("two").type(JsonFieldType.STRING))
+						.toHexString());
+	}
+
+	@Test
+	public void unsupportedValueMakesFingerprintUnstable() {
+		Fingerprint fingerprint = new Fingerprint().add("a");
+		assertThat(fingerprint.isStable()).isTrue();
+		fingerprint.add(new Object());
+		assertThat(fingerprint.isStable()).isFalse();
+	}
+
+	@Test
+	public void supportedValues() {
+		assertThat(Fingerprint.isSupported("a")).isTrue();
+		assertThat(Fingerprint.isSupported(null)).isTrue();
+		assertThat(Fingerprint.isSupported(Collections.singletonMap("a", Arrays.asList(1, 2)))).isTrue();
+		assertThat(Fingerprint.isSupported(fieldWithPath("a"))).isTrue();
+		assertThat(Fingerprint.isSupported(new Object())).isFalse();
+		assertThat(Fingerprint.isSupported(Collections.singletonList(new Object()))).isFalse();
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.snippet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.restdocs.ManualRestDocumentation;
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.templates.TemplateFormats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SnippetArchiveWriterResolver}.
+ *
+ * @author Andy Wilkinson
+ */
+public class SnippetArchiveWriterResolverTests {
+
+	@Rule
+	public final TemporaryFolder temp = new TemporaryFolder();
+
+	private final SnippetArchiveWriterResolver resolver = new SnippetArchiveWriterResolver(
+			new RestDocumentationContextPlaceholderResolverFactory(), "UTF-8", TemplateFormats.asciidoctor());
+
+	@Test
+	public void snippetsAreAppendedToArchiveNamedAfterTestClass() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+		restDocumentation.beforeTest(getClass(), "test");
+		RestDocumentationContext context = restDocumentation.beforeOperation();
+		write("alpha", "bravo", context, "caf\u00e9");
+		write("alpha", "charlie", context, "two");
+		restDocumentation.afterTest();
+		assertThat(new File(outputDirectory, "alpha")).doesNotExist();
+		assertThat(readArchive(outputDirectory, getClass().getName())).containsExactly(
+				Map.entry("alpha/bravo.adoc", "caf\u00e9"), Map.entry("alpha/charlie.adoc", "two"));
+	}
+
+	@Test
+	public void placeholdersAreResolvedInOperationName() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+		restDocumentation.beforeTest(getClass(), "placeholderTest");
+		RestDocumentationContext context = restDocumentation.beforeOperation();
+		write("{method-name}", "bravo", context, "content");
+		restDocumentation.afterTest();
+		assertThat(readArchive(outputDirectory, getClass().getName()))
+				.containsExactly(Map.entry("placeholder-test/bravo.adoc", "content"));
+	}
+
+	@Test
+	public void snippetsWrittenWithoutTestClassAreAppendedToDefaultArchive() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+		restDocumentation.beforeTest(null, null);
+		write("alpha", "bravo", restDocumentation.beforeOperation(), "content");
+		restDocumentation.afterTest();
+		assertThat(readArchive(outputDirectory, "snippets")).containsExactly(Map.entry("alpha/bravo.adoc", "content"));
+	}
+
+	@Test
+	public void snippetOfOperationWithAbsoluteNameIsWrittenToFile() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		File operationDirectory = this.temp.newFolder();
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+		restDocumentation.beforeTest(getClass(), "test");
+		write(operationDirectory.getAbsolutePath(), "bravo", restDocumentation.beforeOperation(), "content");
+		restDocumentation.afterTest();
+		assertThat(new File(operationDirectory, "bravo.adoc")).hasContent("content");
+		assertThat(outputDirectory.list()).isEmpty();
+	}
+
+	@Test
+	public void existingArchiveIsCompactedWhenFirstUsed() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		String archiveName = getClass().getName();
+		Files.writeString(new File(outputDirectory, archiveName + SnippetArchiveWriterResolver.DATA_FILE_SUFFIX)
+				.toPath(), "oldnewother");
+		Files.writeString(
+				new File(outputDirectory, archiveName + SnippetArchiveWriterResolver.INDEX_FILE_SUFFIX).toPath(),
+				"snippet-archive 1 UTF-8\n0 3 alpha/bravo.adoc\n3 3 alpha/bravo.adoc\n6 5 alpha/charlie.adoc\n");
+		ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+		restDocumentation.beforeTest(getClass(), "test");
+		write("alpha", "delta", restDocumentation.beforeOperation(), "added");
+		restDocumentation.afterTest();
+		assertThat(readArchive(outputDirectory, archiveName)).containsExactly(Map.entry("alpha/bravo.adoc", "new"),
+				Map.entry("alpha/charlie.adoc", "other"), Map.entry("alpha/delta.adoc", "added"));
+		assertThat(new File(outputDirectory, archiveName + SnippetArchiveWriterResolver.DATA_FILE_SUFFIX))
+				.hasContent("newotheradded");
+	}
+
+	private void write(String operationName, String snippetName, RestDocumentationContext context, String content)
+			throws IOException {
+		try (Writer writer = this.resolver.resolve(operationName, snippetName, context)) {
+			writer.write(content);
+		}
+	}
+
+	private Map<String, String> readArchive(File outputDirectory, String archiveName) throws IOException {
+		byte[] data = Files.readAllBytes(
+				new File(outputDirectory, archiveName + SnippetArchiveWriterResolver.DATA_FILE_SUFFIX).toPath());
+		List<String> index = Files.readAllLines(
+				new File(outputDirectory, archiveName + SnippetArchiveWriterResolver.INDEX_FILE_SUFFIX).toPath());
+		assertThat(index.get(0)).isEqualTo("snippet-archive 1 UTF-8");
+		Map<String, String> snippets = new LinkedHashMap<>();
+		for (String entry : index.subList(1, index.size())) {
+			String[] components = entry.split(" ", 3);
+			int offset = Integer.parseInt(components[0]);
+			int length = Integer.parseInt(components[1]);
+			snippets.put(components[2],
+					new String(Arrays.copyOfRange(data, offset, offset + length), StandardCharsets.UTF_8));
+		}
+		return snippets;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2019 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,14 @@
 package org.springframework.restdocs.snippet;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,8 +32,10 @@ import org.junit.rules.TemporaryFolder;
 
 import org.springframework.restdocs.ManualRestDocumentation;
 import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.snippet.StandardWriterResolver.WriteMode;
 import org.springframework.restdocs.templates.TemplateFormats;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.PropertyPlaceholderHelper.PlaceholderResolver;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -94,6 +101,116 @@ public class StandardWriterResolverTests {
 		assertSnippetLocation(writer, new File(outputDirectory, "alpha/bravo.adoc"));
 	}
 
+	@Test
+	public void bufferedWriterWritesSnippetWhenClosed() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		StandardWriterResolver resolver = new StandardWriterResolver(this.placeholderResolverFactory, "UTF-8",
+				TemplateFormats.asciidoctor(), WriteMode.BUFFERED);
+		File snippet = new File(outputDirectory, "alpha/bravo.adoc");
+		try (Writer writer = resolver.resolve("alpha", "bravo", context)) {
+			writer.append("caf\u00e9 ").write("test");
+			assertThat(snippet).doesNotExist();
+		}
+		String content = FileCopyUtils
+				.copyToString(new InputStreamReader(new FileInputStream(snippet), StandardCharsets.UTF_8));
+		assertThat(content).isEqualTo("caf\u00e9 test");
+	}
+
+	@Test
+	public void bufferedWriterWritesSnippetWhenFlushed() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		StandardWriterResolver resolver = new StandardWriterResolver(this.placeholderResolverFactory, "UTF-8",
+				TemplateFormats.asciidoctor(), WriteMode.BUFFERED);
+		Writer writer = resolver.resolve("alpha", "bravo", context);
+		assertSnippetLocation(writer, new File(outputDirectory, "alpha/bravo.adoc"));
+	}
+
+	@Test
+	public void outputDirectoryThatIsDeletedAfterFirstUseIsRecreated() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		this.resolver.resolve("alpha", "bravo", context).close();
+		File operationDirectory = new File(outputDirectory, "alpha");
+		FileSystemUtils.deleteRecursively(operationDirectory);
+		Writer writer = this.resolver.resolve("alpha", "charlie", context);
+		assertSnippetLocation(writer, new File(operationDirectory, "charlie.adoc"));
+	}
+
+	@Test
+	public void unchangedSnippetIsNotRewrittenWhenSkippingUnchangedSnippets() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		StandardWriterResolver resolver = new StandardWriterResolver(this.placeholderResolverFactory, "UTF-8",
+				TemplateFormats.asciidoctor(), WriteMode.SKIP_UNCHANGED);
+		File snippet = new File(outputDirectory, "alpha/bravo.adoc");
+		snippet.getParentFile().mkdirs();
+		Files.write(snippet.toPath(), "test".getBytes(StandardCharsets.UTF_8));
+		assertThat(snippet.setLastModified(1000)).isTrue();
+		try (Writer writer = resolver.resolve("alpha", "bravo", context)) {
+			writer.write("test");
+		}
+		assertThat(snippet.lastModified()).isEqualTo(1000);
+		assertThat(changedSnippets(outputDirectory)).isEmpty();
+	}
+
+	@Test
+	public void changedSnippetsAreWrittenAndRecordedWhenSkippingUnchangedSnippets() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		File changedSnippets = new File(outputDirectory, StandardWriterResolver.CHANGED_SNIPPETS_FILE_NAME);
+		Files.write(changedSnippets.toPath(), "stale/snippet.adoc".getBytes(StandardCharsets.UTF_8));
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		StandardWriterResolver resolver = new StandardWriterResolver(this.placeholderResolverFactory, "UTF-8",
+				TemplateFormats.asciidoctor(), WriteMode.SKIP_UNCHANGED);
+		File changed = new File(outputDirectory, "alpha/bravo.adoc");
+		changed.getParentFile().mkdirs();
+		Files.write(changed.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+		try (Writer writer = resolver.resolve("alpha", "bravo", context)) {
+			writer.write("new");
+		}
+		try (Writer writer = resolver.resolve("alpha", "charlie", context)) {
+			writer.write("new");
+		}
+		assertThat(changed).hasContent("new");
+		assertThat(new File(outputDirectory, "alpha/charlie.adoc")).hasContent("new");
+		assertThat(changedSnippets(outputDirectory)).containsExactly("alpha/bravo.adoc", "alpha/charlie.adoc");
+	}
+
+	@Test
+	public void changedSnippetsOfSameRunAreKeptWhenSkippingUnchangedSnippets() throws IOException {
+		File outputDirectory = this.temp.newFolder();
+		File changedSnippets = new File(outputDirectory, StandardWriterResolver.CHANGED_SNIPPETS_FILE_NAME);
+		Files.write(changedSnippets.toPath(), ("# run test-run" + System.lineSeparator() + "earlier/snippet.adoc"
+				+ System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+		RestDocumentationContext context = createContext(outputDirectory.getAbsolutePath());
+		given(this.placeholderResolverFactory.create(context)).willReturn(mock(PlaceholderResolver.class));
+		StandardWriterResolver resolver = new StandardWriterResolver(this.placeholderResolverFactory, "UTF-8",
+				TemplateFormats.asciidoctor(), WriteMode.SKIP_UNCHANGED);
+		System.setProperty(StandardWriterResolver.RUN_ID_PROPERTY, "test-run");
+		try {
+			try (Writer writer = resolver.resolve("alpha", "bravo", context)) {
+				writer.write("new");
+			}
+		}
+		finally {
+			System.clearProperty(StandardWriterResolver.RUN_ID_PROPERTY);
+		}
+		assertThat(changedSnippets(outputDirectory)).containsExactly("earlier/snippet.adoc", "alpha/bravo.adoc");
+	}
+
+	private List<String> changedSnippets(File outputDirectory) throws IOException {
+		List<String> lines = Files
+				.readAllLines(new File(outputDirectory, StandardWriterResolver.CHANGED_SNIPPETS_FILE_NAME).toPath());
+		assertThat(lines.get(0)).startsWith("# run ");
+		return lines.subList(1, lines.size());
+	}
+
 	private RestDocumentationContext createContext(String outputDir) {
 		ManualRestDocumentation manualRestDocumentation = new ManualRestDocumentation(outputDir);
 		manualRestDocumentation.beforeTest(getClass(), null);
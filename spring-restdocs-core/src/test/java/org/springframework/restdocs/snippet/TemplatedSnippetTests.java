@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2021 the original author or authors.
+ * Copyright 2014-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,18 @@
 package org.springframework.restdocs.snippet;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.springframework.restdocs.instrumentation.DocumentationPhase;
+import org.springframework.restdocs.instrumentation.Measurement;
+import org.springframework.restdocs.instrumentation.MeasurementListener;
 import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.templates.TemplateFormats;
 import org.springframework.restdocs.testfixtures.GeneratedSnippets;
@@ -73,6 +78,20 @@ public class TemplatedSnippetTests {
 		assertThat(this.snippets.snippet("multiple-snippets-two")).isNotNull();
 	}
 
+	@Test
+	public void documentationIsMeasuredWhenMeasurementListenerIsConfigured() throws IOException {
+		List<Measurement> measurements = new ArrayList<>();
+		new TestTemplatedSnippet("one", "multiple-snippets").document(this.operationBuilder
+				.attribute(MeasurementListener.class.getName(), (MeasurementListener) measurements::add).build());
+		assertThat(measurements).extracting(Measurement::getPhase).containsExactly(DocumentationPhase.MODEL_CREATION,
+				DocumentationPhase.TEMPLATE_COMPILATION, DocumentationPhase.TEMPLATE_RENDERING,
+				DocumentationPhase.SNIPPET_WRITE);
+		assertThat(measurements).extracting(Measurement::getSubject).containsExactly("multiple-snippets-one",
+				"multiple-snippets", "multiple-snippets-one", "multiple-snippets-one");
+		assertThat(measurements.get(3).getSize())
+				.isEqualTo(this.snippets.snippet("multiple-snippets-one").length());
+	}
+
 	private static class TestTemplatedSnippet extends TemplatedSnippet {
 
 		protected TestTemplatedSnippet(String snippetName, String templateName) {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.templates;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link IndexedTemplateResourceResolver}.
+ *
+ * @author Andy Wilkinson
+ */
+public class IndexedTemplateResourceResolverTests {
+
+	@Rule
+	public final TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void formatSpecificCustomSnippetHasHighestPrecedence() throws IOException {
+		File formatSpecificCustom = addTemplate("asciidoctor/test.snippet");
+		addTemplate("test.snippet");
+		addTemplate("asciidoctor/default-test.snippet");
+		Resource snippet = createResolver().resolveTemplateResource("test");
+		assertThat(snippet.getFile()).isEqualTo(formatSpecificCustom);
+	}
+
+	@Test
+	public void generalCustomSnippetIsUsedInAbsenceOfFormatSpecificCustomSnippet() throws IOException {
+		File custom = addTemplate("test.snippet");
+		addTemplate("asciidoctor/default-test.snippet");
+		Resource snippet = createResolver().resolveTemplateResource("test");
+		assertThat(snippet.getFile()).isEqualTo(custom);
+	}
+
+	@Test
+	public void defaultSnippetIsUsedInAbsenceOfCustomSnippets() throws IOException {
+		File defaultTemplate = addTemplate("asciidoctor/default-test.snippet");
+		Resource snippet = createResolver().resolveTemplateResource("test");
+		assertThat(snippet.getFile()).isEqualTo(defaultTemplate);
+	}
+
+	@Test
+	public void snippetForAnotherFormatIsNotUsed() throws IOException {
+		addTemplate("markdown/test.snippet");
+		File defaultTemplate = addTemplate("asciidoctor/default-test.snippet");
+		Resource snippet = createResolver().resolveTemplateResource("test");
+		assertThat(snippet.getFile()).isEqualTo(defaultTemplate);
+	}
+
+	@Test
+	public void customSnippetThatIsNotIndexedDoesNotOverrideIndexedDefaultSnippet() throws IOException {
+		File defaultTemplate = addTemplate("asciidoctor/default-test.snippet");
+		IndexedTemplateResourceResolver resolver = createResolver();
+		addTemplate("test.snippet");
+		assertThat(resolver.resolveTemplateResource("test").getURL()).isEqualTo(defaultTemplate.toURI().toURL());
+	}
+
+	@Test
+	public void snippetThatIsNotIndexedIsFoundOnTheClasspath() throws IOException {
+		IndexedTemplateResourceResolver resolver = createResolver();
+		File custom = addTemplate("test.snippet");
+		assertThat(resolver.resolveTemplateResource("test").getURL()).isEqualTo(custom.toURI().toURL());
+	}
+
+	@Test
+	public void failsIfCustomAndDefaultSnippetsDoNotExist() throws IOException {
+		IndexedTemplateResourceResolver resolver = createResolver();
+		assertThatIllegalStateException().isThrownBy(() -> resolver.resolveTemplateResource("test"))
+				.withMessage("Template named 'test' could not be resolved");
+	}
+
+	private File addTemplate(String path) throws IOException {
+		File template = new File(this.temp.getRoot(), "org/springframework/restdocs/templates/" + path);
+		template.getParentFile().mkdirs();
+		Files.write(template.toPath(), path.getBytes());
+		return template;
+	}
+
+	private IndexedTemplateResourceResolver createResolver() throws IOException {
+		new File(this.temp.getRoot(), "org/springframework/restdocs/templates").mkdirs();
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { this.temp.getRoot().toURI().toURL() }, null);
+		return new IndexedTemplateResourceResolver(TemplateFormats.asciidoctor(), classLoader);
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.restdocs.templates.mustache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.restdocs.templates.Template;
+import org.springframework.restdocs.templates.TemplateResourceResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MustacheTemplateEngine}.
+ *
+ * @author Andy Wilkinson
+ */
+public class MustacheTemplateEngineTests {
+
+	@Rule
+	public final TemporaryFolder temp = new TemporaryFolder();
+
+	private final AtomicInteger resolutions = new AtomicInteger();
+
+	@Test
+	public void compiledTemplateIsCached() throws IOException {
+		MustacheTemplateEngine engine = new MustacheTemplateEngine(resolver(new ByteArrayResource("{{a}}".getBytes())));
+		Template template = engine.compileTemplate("test");
+		assertThat(engine.compileTemplate("test")).isSameAs(template);
+		assertThat(template.render(Collections.singletonMap("a", "alpha"))).isEqualTo("alpha");
+		assertThat(this.resolutions).hasValue(1);
+	}
+
+	@Test
+	public void templateIsCompiledEveryTimeWhenCacheIsDisabled() throws IOException {
+		MustacheTemplateEngine engine = new MustacheTemplateEngine(resolver(new ByteArrayResource("{{a}}".getBytes())));
+		engine.setTemplateCacheLimit(0);
+		assertThat(engine.compileTemplate("test")).isNotSameAs(engine.compileTemplate("test"));
+		assertThat(this.resolutions).hasValue(2);
+	}
+
+	@Test
+	public void leastRecentlyUsedTemplateIsEvictedWhenCacheLimitIsExceeded() throws IOException {
+		MustacheTemplateEngine engine = new MustacheTemplateEngine(resolver(new ByteArrayResource("{{a}}".getBytes())));
+		engine.setTemplateCacheLimit(1);
+		Template one = engine.compileTemplate("one");
+		engine.compileTemplate("two");
+		assertThat(engine.compileTemplate("one")).isNotSameAs(one);
+		assertThat(this.resolutions).hasValue(3);
+	}
+
+	@Test
+	public void modifiedTemplateFileIsNotRecompiledByDefault() throws IOException {
+		File file = this.temp.newFile("test.snippet");
+		Files.write(file.toPath(), "before".getBytes(StandardCharsets.UTF_8));
+		MustacheTemplateEngine engine = new MustacheTemplateEngine(resolver(new FileSystemResource(file)));
+		assertThat(engine.compileTemplate("test").render(Collections.emptyMap())).isEqualTo("before");
+		modify(file, "after");
+		assertThat(engine.compileTemplate("test").render(Collections.emptyMap())).isEqualTo("before");
+	}
+
+	@Test
+	public void modifiedTemplateFileIsRecompiledWhenCheckingForModifiedTemplates() throws IOException {
+		File file = this.temp.newFile("test.snippet");
+		Files.write(file.toPath(), "before".getBytes(StandardCharsets.UTF_8));
+		MustacheTemplateEngine engine = new MustacheTemplateEngine(resolver(new FileSystemResource(file)));
+		engine.setCheckForModifiedTemplates(true);
+		Template template = engine.compileTemplate("test");
+		assertThat(engine.compileTemplate("test")).isSameAs(template);
+		modify(file, "after");
+		assertThat(engine.compileTemplate("test").render(Collections.emptyMap())).isEqualTo("after");
+	}
+
+	private TemplateResourceResolver resolver(Resource resource) {
+		return (name) -> {
+			this.resolutions.incrementAndGet();
+			return resource;
+		};
+	}
+
+	private void modify(File file, String content) throws IOException {
+		long lastModified = file.lastModified();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(lastModified + 1000);
+	}
+
+}